@@ -2,6 +2,7 @@ package main;
 
 import java.awt.BorderLayout;
 import java.awt.Color;
+import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.Graphics;
@@ -49,6 +50,7 @@ import javax.swing.UIManager;
 import javax.swing.border.Border;
 
 import main.core.ActionContext;
+import main.core.ActiveDisplay;
 import main.core.Difficulty;
 import main.core.Display;
 import main.core.EasyDifficultyObserver;
@@ -95,7 +97,19 @@ public class GUIBuilder
 		gui.setIDLabel(idLabel);
 		JLabel bestLabel = this.createBestTimeLabel(guiResource, font);
 		basePanel.add(this.createToolBar001(guiResource, gui, idLabel, bestLabel, font), new GridBagConstraints(0, 0, 1, 1, 1.0, 0.0, GridBagConstraints.CENTER, GridBagConstraints.HORIZONTAL, new Insets(0, 0, 0, 0), 0, 0));
-		Display display = new Display(this.mDisplayMediator);
+		Display display = null;
+		Component surface = null;
+		if(this.mMediator.isActiveRendering()){
+			/* The Display only lays out the canvas; everything is drawn onto the canvas from the Ticker thread. */
+			display = new Display(null);
+			ActiveDisplay active = new ActiveDisplay(this.mDisplayMediator, this.mMediator.getRenderBuffers());
+			display.add(active, BorderLayout.CENTER);
+			gui.setActiveDisplay(active);
+			surface = active;
+		}else{
+			display = new Display(this.mDisplayMediator);
+			surface = display;
+		}
 		gui.setDisplay(display);
 		basePanel.add(display, new GridBagConstraints(0, 1, 1, 1, 1.0, 1.0, GridBagConstraints.CENTER, GridBagConstraints.BOTH, new Insets(4, 6, 0, 6), 0, 0));
 		StatusBar status = this.createStatusBar(gui);
@@ -104,8 +118,8 @@ public class GUIBuilder
 		
 		gui.addComponentListener(this.createComponentListener());
 		gui.addWindowListener(this.createWindowListener());
-		display.addMouseListener(this.createMouseListener(gui));
-		display.addMouseMotionListener(this.createMouseMotionListener(gui));
+		surface.addMouseListener(this.createMouseListener(gui));
+		surface.addMouseMotionListener(this.createMouseMotionListener(gui));
 		
 		gui.setFocusable(true); // required for keyboard events.
 		gui.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -591,5 +605,7 @@ public class GUIBuilder
 		abstract String getResizeIconPath();
 		abstract void resizePerformed();
 		abstract void beginAppShutdown();
+		abstract boolean isActiveRendering();
+		abstract int getRenderBuffers();
 	}
 }
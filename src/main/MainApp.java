@@ -1,18 +1,25 @@
 package main;
 
+import java.awt.AWTEvent;
 import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.awt.Toolkit;
+import java.awt.event.AWTEventListener;
 
+import java.io.File;
 import java.util.HashMap;
-import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.concurrent.TimeUnit;
 
 import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.UIManager.LookAndFeelInfo;
 
+import main.core.BestTimesJournal;
+import main.core.Config;
 import main.core.Difficulty;
 import main.core.Display;
 import main.core.EasyDifficultyObserver;
@@ -21,6 +28,7 @@ import main.core.ExitGameObserver;
 import main.core.FirstPuzzleObserver;
 import main.core.HardDifficultyObserver;
 import main.core.LastPuzzleObserver;
+import main.core.Leaderboard;
 import main.core.MainGUI;
 import main.core.MediumDifficultyObserver;
 import main.core.NewGameObserver;
@@ -30,151 +38,206 @@ import main.core.PreviousPuzzleObserver;
 import main.core.ShuffleObserver;
 import main.core.SolveObserver;
 import main.core.XMLAttrib;
-import main.core.XMLReadBestTimes;
+import main.core.XMLStreamConfigs;
 import main.core.XMLTag;
 import main.core.util.ReadWriteFile;
 import main.core.util.Ticker;
-import main.core.util.XMLReader;
-import main.core.util.XMLUtil;
 import main.core.util.XMLWriter;
 
 public class MainApp
 {
 	private static final String CONFIG_FILE_PATH = "config.xml";
+	private static final String JOURNAL_FILE_PATH = "best_times.journal";
+	private static final long COMPACTION_PERIOD_SECONDS = 60L;
 	
+	private Config mConfig = null;
+	private XMLStreamConfigs mConfigReader = null;
+	private BestTimesJournal mJournal = null;
 	private Engine mEngine = null;
 	private MainGUI mMainGUI = null;
 	private Ticker mTicker = null;
-	private HashMap<Difficulty, HashMap<Integer, Long>> mBestTimes = new HashMap<Difficulty, HashMap<Integer, Long>>();
+	private Leaderboard mLeaderboard = new Leaderboard();
 	private ResourceBundle mAppResource = null;
 	private ResourceBundle mMainResource = null;
 	
 	public MainApp()
 	{
 		this.initializeLookAndFeel();
-		this.fillBestTimesMap();
+		this.loadConfiguration();
+		this.openJournal();
 		this.retrieveI18NResources();
 		this.mMainGUI = new MainGUI();
 		this.mEngine = new Engine(this.createEngineMediator(this.mMainGUI), this.getDataPaths());
 		GUIBuilder builder = new GUIBuilder(this.createGUIBuilderMediator(this.mEngine), this.createDisplayMediator(this.mEngine));
 		this.mMainGUI = builder.createPrimaryStyle(this.mMainGUI);
 		
-		this.mMainGUI.setDifficultyValue(this.readConfigDifficulty());
+		this.mMainGUI.setDifficultyValue(this.mConfig.getDifficulty());
 		this.mMainGUI.getStatusBar().setText(MainGUI.StatusSection.DIFFICULTY, this.mEngine.getDifficultyStatus());
 		this.mMainGUI.getStatusBar().setText(MainGUI.StatusSection.PUZZLE_NUM, this.mEngine.getPuzzleNumberStatus());
 		this.mMainGUI.getStatusBar().setText(MainGUI.StatusSection.TIMER, this.mEngine.getTimeStatus(0));
+		this.loadLeaderboard();
 		
 		mTicker = new Ticker(createTickerObserver(this.mMainGUI, this.mEngine), 60, 60, 1);
+		this.mEngine.getProfiler().attach(mTicker, 60);
+		this.mEngine.getProfiler().register();
+		if(this.mConfig.isDemandScheduling() && !this.mMainGUI.isActiveRendering()){
+			mTicker.setDemandDriven(true);
+			Toolkit.getDefaultToolkit().addAWTEventListener(this.createWakeListener(), AWTEvent.MOUSE_EVENT_MASK | AWTEvent.MOUSE_MOTION_EVENT_MASK | AWTEvent.KEY_EVENT_MASK | AWTEvent.COMPONENT_EVENT_MASK);
+		}
 		mTicker.startTimer();
 		return;
 	}
 	
-	private void retrieveI18NResources()
+	/**
+	 * Wakes the Ticker after every input event.  The wake is queued behind the event, so the listeners that act on it 
+	 * have run and marked what changed before the frame that draws it.
+	 */
+	private AWTEventListener createWakeListener()
 	{
-		try{
-			XMLReader reader = XMLUtil.getReaderAbsolute(CONFIG_FILE_PATH, XMLTag.CONFIGS);
-			if(reader == null){
-				throw new Exception("Unable to read config.xml file.");
+		final Runnable wake = new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				MainApp.this.mTicker.wake();
+				return;
 			}
-			String language = reader.readStringAttribute(XMLTag.LOCALE, XMLAttrib.LANGUAGE);
-			String region = reader.readStringAttribute(XMLTag.LOCALE, XMLAttrib.REGION);
-			Locale locale = new Locale.Builder().setLanguage(language).setRegion(region).build();
-			this.mAppResource = ResourceBundle.getBundle("resources.Application", locale);
-			this.mMainResource = ResourceBundle.getBundle("resources.MainGUI", locale);
-		}catch(Exception ex){
-			ex.printStackTrace();
-			System.exit(1);
-		}
-		return;
+		};
+		return new AWTEventListener()
+		{
+			@Override
+			public void eventDispatched(AWTEvent event)
+			{
+				SwingUtilities.invokeLater(wake);
+				return;
+			}
+		};
 	}
 	
-	private HashMap<Difficulty, String> getDataPaths()
+	private void loadConfiguration()
 	{
-		HashMap<Difficulty, String> paths = null;
 		try{
-			XMLReader reader = XMLUtil.getReaderAbsolute("config.xml", XMLTag.PUZZLES);
-			if(reader == null){
+			this.mConfigReader = Config.open(CONFIG_FILE_PATH);
+			if(this.mConfigReader == null){
 				throw new Exception("Unable to read config.xml file.");
 			}
-			paths = new HashMap<Difficulty, String>();
-			paths.put(Difficulty.EASY, reader.readStringAttribute(XMLTag.EASY, XMLAttrib.PATH));
-			paths.put(Difficulty.MEDIUM, reader.readStringAttribute(XMLTag.MEDIUM, XMLAttrib.PATH));
-			paths.put(Difficulty.HARD, reader.readStringAttribute(XMLTag.HARD, XMLAttrib.PATH));
+			this.mConfig = new Config(this.mConfigReader.readSettings(this.mLeaderboard));
 		}catch(Exception ex){
 			ex.printStackTrace();
 			System.exit(1);
 		}
-		return paths;
+		return;
 	}
 	
-	private Difficulty readConfigDifficulty()
+	private void retrieveI18NResources()
 	{
-		Difficulty dif = null;
 		try{
-			XMLReader reader = XMLUtil.getReaderAbsolute("config.xml", XMLTag.CONFIGS);
-			if(reader == null){
-				throw new Exception("Unable to read config.xml file.");
-			}
-			String rawText = reader.readString(XMLTag.DIFFICULTY);
-			dif = Difficulty.getTypeForName(rawText);
+			this.mAppResource = ResourceBundle.getBundle("resources.Application", this.mConfig.getLocale());
+			this.mMainResource = ResourceBundle.getBundle("resources.MainGUI", this.mConfig.getLocale());
 		}catch(Exception ex){
 			ex.printStackTrace();
 			System.exit(1);
 		}
-		return dif;
+		return;
 	}
 	
-	public String readImagePath(String xmlTag)
+	private HashMap<Difficulty, String> getDataPaths()
 	{
-		String path = null;
-		try{
-			XMLReader reader = XMLUtil.getReaderAbsolute("config.xml", XMLTag.CONFIGS);
-			if(reader == null){
-				throw new Exception("Unable to read config.xml file.");
-			}
-			path = reader.readStringAttribute(xmlTag, XMLAttrib.PATH);
-		}catch(Exception ex){
-			ex.printStackTrace();
-			System.exit(1);
-		}
-		return path;
+		return new HashMap<Difficulty, String>(this.mConfig.getPuzzlePaths());
 	}
 	
-	public String readResizeGripPath()
+	/**
+	 * Replays the journal, which compaction keeps short, so the difficulty it holds is known before the GUI is built.
+	 */
+	private void openJournal()
 	{
-		String path = null;
 		try{
-			XMLReader reader = XMLUtil.getReaderAbsolute("config.xml", XMLTag.CONFIGS);
-			if(reader == null){
-				throw new Exception("Unable to read config.xml file.");
+			this.mJournal = new BestTimesJournal(new File(JOURNAL_FILE_PATH), new BestTimesJournal.Compactor()
+			{
+				@Override
+				public String snapshot() throws Exception
+				{
+					return MainApp.this.prepareXMLToWrite();
+				}
+				
+				@Override
+				public void write(String snapshot) throws Exception
+				{
+					MainApp.this.writeConfigFile(snapshot);
+					return;
+				}
+			});
+			Difficulty dif = this.mJournal.replay(this.mLeaderboard);
+			if(dif != null){
+				this.mConfig = this.mConfig.withDifficulty(dif);
 			}
-			path = reader.readStringAttribute(XMLTag.RESIZE_GRIP, XMLAttrib.PATH);
 		}catch(Exception ex){
 			ex.printStackTrace();
-			System.exit(1);
 		}
-		return path;
+		return;
 	}
 	
-	private void fillBestTimesMap()
+	/**
+	 * Finishes the pass over config.xml that loadConfiguration() started, reading the best_time entries after the
+	 * settings into the leaderboard on a thread of its own, so a long history doesn't hold up the EDT, then shows the
+	 * best time of the current puzzle.  Compaction rewrites config.xml from the
+	 * leaderboard, so it can only start once the leaderboard is complete; if the best times couldn't all be read, it
+	 * doesn't start at all, leaving config.xml as it is and new times in the journal.
+	 */
+	private void loadLeaderboard()
 	{
-		try{
-			for(Difficulty dif : Difficulty.values())
+		Thread loader = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
 			{
-				this.mBestTimes.put(dif, new HashMap<Integer, Long>());
+				int count = MainApp.this.mConfigReader.readBestTimes(MainApp.this.mLeaderboard);
+				MainApp.this.mConfigReader = null;
+				if(count < 0){
+					System.err.println("Best times in config.xml could not all be read; leaving it as it is and keeping new times in the journal.");
+				}else{
+					MainApp.this.mJournal.startCompaction(COMPACTION_PERIOD_SECONDS, TimeUnit.SECONDS);
+				}
+				SwingUtilities.invokeLater(new Runnable()
+				{
+					@Override
+					public void run()
+					{
+						MainApp.this.mMainGUI.displayBestTime(MainApp.this.mEngine.getBestTimeStatus());
+						return;
+					}
+				});
+				return;
 			}
-			XMLReader reader = XMLUtil.getReaderAbsolute("config.xml", XMLTag.CONFIGS);
-			this.mBestTimes = new XMLReadBestTimes(reader).read(this.mBestTimes);
-		}catch(Exception ex){
-			ex.printStackTrace();
+		}, "Leaderboard loader");
+		loader.setDaemon(true);
+		loader.start();
+		return;
+	}
+	
+	/**
+	 * Journals a time if it makes the puzzle's top times.  The time goes on the leaderboard first and the journal
+	 * writes it on its own thread, so the EDT never waits on the disk or on a compaction.
+	 */
+	private void recordBestTime(Difficulty dif, int devID, long millis)
+	{
+		if(this.mLeaderboard.add(dif, devID, millis)){
+			this.mJournal.appendTime(dif, devID, millis);
 		}
 		return;
 	}
 	
+	/**
+	 * Best times are already in the journal, so saving only has to journal the difficulty if it has changed.  The
+	 * next compaction, at the latest on the next start, folds it all into config.xml.
+	 */
 	private void saveConfiguration()
 	{
-		String xml = this.prepareXMLToWrite();
-		this.writeConfigFile(xml);
+		if(this.mEngine.getDifficulty() != this.mConfig.getDifficulty()){
+			this.mConfig = this.mConfig.withDifficulty(this.mEngine.getDifficulty());
+			this.mJournal.appendDifficulty(this.mConfig.getDifficulty());
+		}
+		this.mJournal.close();
 		return;
 	}
 	
@@ -183,60 +246,81 @@ public class MainApp
 		/* Worst config file ever.  Since most of the properties won't change, this routine is just copying most of it. */ 
 		String xml = null;
 		try{
-			XMLReader reader = XMLUtil.getReaderAbsolute(CONFIG_FILE_PATH, XMLTag.CONFIGS);
+			Config config = this.mConfig;
 			XMLWriter writer = new XMLWriter();
 			writer.getEventWriter().add(writer.getEventFactory().createStartDocument());
 			writer.getEventWriter().add(writer.getEventFactory().createStartElement("", "", XMLTag.ROOT));
 			
 			writer.getEventWriter().add(writer.getEventFactory().createStartElement("", "", XMLTag.LOCALE));
-			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.LANGUAGE, reader.readStringAttribute(XMLTag.LOCALE, XMLAttrib.LANGUAGE)));
-			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.REGION, reader.readStringAttribute(XMLTag.LOCALE, XMLAttrib.REGION)));
+			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.LANGUAGE, config.getLanguage()));
+			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.REGION, config.getRegion()));
 			writer.getEventWriter().add(writer.getEventFactory().createEndElement("", "", XMLTag.LOCALE));
 			
-			writer.getEventWriter().add(writer.getEventFactory().createStartElement("", "", XMLTag.BEST_TIMES));
-			writer.getEventWriter().add(writer.getEventFactory().createEndElement("", "", XMLTag.BEST_TIMES));
+			writer.addXMLElement(XMLTag.DIFFICULTY, config.getDifficulty().name());
 			
-			writer.addXMLElement(XMLTag.DIFFICULTY, this.mEngine.getDifficulty().name());
+			writer.getEventWriter().add(writer.getEventFactory().createStartElement("", "", XMLTag.RENDERING));
+			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.MODE, config.isActiveRendering() ? Config.ACTIVE_RENDERING : Config.PASSIVE_RENDERING));
+			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.BUFFERS, String.valueOf(config.getRenderBuffers())));
+			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.SCHEDULING, config.isDemandScheduling() ? Config.DEMAND_SCHEDULING : Config.FIXED_SCHEDULING));
+			writer.getEventWriter().add(writer.getEventFactory().createEndElement("", "", XMLTag.RENDERING));
 			
 			writer.getEventWriter().add(writer.getEventFactory().createStartElement("", "", XMLTag.IMAGES));
 			writer.getEventWriter().add(writer.getEventFactory().createStartElement("", "", XMLTag.CROSS));
-			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.PATH, reader.readStringAttribute(XMLTag.CROSS, XMLAttrib.PATH)));
+			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.PATH, config.getImagePath(XMLTag.CROSS)));
 			writer.getEventWriter().add(writer.getEventFactory().createEndElement("", "", XMLTag.CROSS));
 			writer.getEventWriter().add(writer.getEventFactory().createStartElement("", "", XMLTag.ELBOW));
-			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.PATH, reader.readStringAttribute(XMLTag.ELBOW, XMLAttrib.PATH)));
+			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.PATH, config.getImagePath(XMLTag.ELBOW)));
 			writer.getEventWriter().add(writer.getEventFactory().createEndElement("", "", XMLTag.ELBOW));
 			writer.getEventWriter().add(writer.getEventFactory().createStartElement("", "", XMLTag.GREEN_GAUGE));
-			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.PATH, reader.readStringAttribute(XMLTag.GREEN_GAUGE, XMLAttrib.PATH)));
+			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.PATH, config.getImagePath(XMLTag.GREEN_GAUGE)));
 			writer.getEventWriter().add(writer.getEventFactory().createEndElement("", "", XMLTag.GREEN_GAUGE));
 			writer.getEventWriter().add(writer.getEventFactory().createStartElement("", "", XMLTag.PIPE));
-			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.PATH, reader.readStringAttribute(XMLTag.PIPE, XMLAttrib.PATH)));
+			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.PATH, config.getImagePath(XMLTag.PIPE)));
 			writer.getEventWriter().add(writer.getEventFactory().createEndElement("", "", XMLTag.PIPE));
 			writer.getEventWriter().add(writer.getEventFactory().createStartElement("", "", XMLTag.RED_GAUGE));
-			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.PATH, reader.readStringAttribute(XMLTag.RED_GAUGE, XMLAttrib.PATH)));
+			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.PATH, config.getImagePath(XMLTag.RED_GAUGE)));
 			writer.getEventWriter().add(writer.getEventFactory().createEndElement("", "", XMLTag.RED_GAUGE));
 			writer.getEventWriter().add(writer.getEventFactory().createStartElement("", "", XMLTag.RESIZE_GRIP));
-			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.PATH, reader.readStringAttribute(XMLTag.RESIZE_GRIP, XMLAttrib.PATH)));
+			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.PATH, config.getImagePath(XMLTag.RESIZE_GRIP)));
 			writer.getEventWriter().add(writer.getEventFactory().createEndElement("", "", XMLTag.RESIZE_GRIP));
 			writer.getEventWriter().add(writer.getEventFactory().createStartElement("", "", XMLTag.T_JUNCTION));
-			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.PATH, reader.readStringAttribute(XMLTag.T_JUNCTION, XMLAttrib.PATH)));
+			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.PATH, config.getImagePath(XMLTag.T_JUNCTION)));
 			writer.getEventWriter().add(writer.getEventFactory().createEndElement("", "", XMLTag.T_JUNCTION));
 			writer.getEventWriter().add(writer.getEventFactory().createStartElement("", "", XMLTag.TILE));
-			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.PATH, reader.readStringAttribute(XMLTag.TILE, XMLAttrib.PATH)));
+			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.PATH, config.getImagePath(XMLTag.TILE)));
 			writer.getEventWriter().add(writer.getEventFactory().createEndElement("", "", XMLTag.TILE));
 			writer.getEventWriter().add(writer.getEventFactory().createEndElement("", "", XMLTag.IMAGES));
 			
 			writer.getEventWriter().add(writer.getEventFactory().createStartElement("", "", XMLTag.PUZZLES));
 			writer.getEventWriter().add(writer.getEventFactory().createStartElement("", "", XMLTag.EASY));
-			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.PATH, reader.readStringAttribute(XMLTag.EASY, XMLAttrib.PATH)));
+			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.PATH, config.getPuzzlePaths().get(Difficulty.EASY)));
 			writer.getEventWriter().add(writer.getEventFactory().createEndElement("", "", XMLTag.EASY));
 			writer.getEventWriter().add(writer.getEventFactory().createStartElement("", "", XMLTag.MEDIUM));
-			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.PATH, reader.readStringAttribute(XMLTag.MEDIUM, XMLAttrib.PATH)));
+			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.PATH, config.getPuzzlePaths().get(Difficulty.MEDIUM)));
 			writer.getEventWriter().add(writer.getEventFactory().createEndElement("", "", XMLTag.MEDIUM));
 			writer.getEventWriter().add(writer.getEventFactory().createStartElement("", "", XMLTag.HARD));
-			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.PATH, reader.readStringAttribute(XMLTag.HARD, XMLAttrib.PATH)));
+			writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.PATH, config.getPuzzlePaths().get(Difficulty.HARD)));
 			writer.getEventWriter().add(writer.getEventFactory().createEndElement("", "", XMLTag.HARD));
 			writer.getEventWriter().add(writer.getEventFactory().createEndElement("", "", XMLTag.PUZZLES));
 			
+			/* Last, so the settings can be read without reading past the best times. */
+			writer.getEventWriter().add(writer.getEventFactory().createStartElement("", "", XMLTag.BEST_TIMES));
+			for(Difficulty dif : Difficulty.values())
+			{
+				for(Integer devID : this.mLeaderboard.getDevIDs(dif))
+				{
+					for(Long time : this.mLeaderboard.getTimes(dif, devID))
+					{
+						writer.getEventWriter().add(writer.getEventFactory().createStartElement("", "", XMLTag.BEST_TIME));
+						writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.DEV_ID, String.valueOf(devID)));
+						writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.DIFFICULTY, dif.name()));
+						writer.getEventWriter().add(writer.getEventFactory().createAttribute(XMLAttrib.TIME, String.valueOf(time)));
+						writer.getEventWriter().add(writer.getEventFactory().createEndElement("", "", XMLTag.BEST_TIME));
+					}
+				}
+			}
+			writer.getEventWriter().add(writer.getEventFactory().createEndElement("", "", XMLTag.BEST_TIMES));
+			
 			writer.getEventWriter().add(writer.getEventFactory().createEndElement("", "", XMLTag.ROOT));
 			writer.getEventWriter().add(writer.getEventFactory().createEndDocument());
 			
@@ -247,13 +331,13 @@ public class MainApp
 		return xml;
 	}
 	
-	private void writeConfigFile(String xml)
+	private void writeConfigFile(String xml) throws Exception
 	{
-		try{
-			ReadWriteFile.write(CONFIG_FILE_PATH, xml);
-		}catch(Exception ex){
-			ex.printStackTrace();
+		if(xml == null){
+			throw new Exception("Unable to build config.xml contents.");
 		}
+		ReadWriteFile.writeAtomic(CONFIG_FILE_PATH, xml);
+		return;
 	}
 	
 	public void beginAppShutdown()
@@ -282,9 +366,9 @@ public class MainApp
 			}
 			
 			@Override
-			public String readImagePath(String xmlTag)
+			public Config getConfig()
 			{
-				return MainApp.this.readImagePath(xmlTag);
+				return MainApp.this.mConfig;
 			}
 			
 			@Override
@@ -351,6 +435,26 @@ public class MainApp
 				return;
 			}
 			
+			@Override
+			public void displayBestTime(String caption)
+			{
+				gui.displayBestTime(caption);
+				return;
+			}
+			
+			@Override
+			public long getBestTime(Difficulty dif, int devID)
+			{
+				return MainApp.this.mLeaderboard.getBest(dif, devID);
+			}
+			
+			@Override
+			public void puzzleFinished(Difficulty dif, int devID, long millis)
+			{
+				MainApp.this.recordBestTime(dif, devID, millis);
+				return;
+			}
+			
 			@Override
 			public void beginAppShutdown()
 			{
@@ -476,10 +580,22 @@ public class MainApp
 				return engine.getTileWidth();
 			}
 			
+			@Override
+			public boolean isActiveRendering()
+			{
+				return MainApp.this.mConfig.isActiveRendering();
+			}
+			
+			@Override
+			public int getRenderBuffers()
+			{
+				return MainApp.this.mConfig.getRenderBuffers();
+			}
+			
 			@Override
 			public String getResizeIconPath()
 			{
-				return MainApp.this.readResizeGripPath();
+				return MainApp.this.mConfig.getResizeGripPath();
 			}
 			
 			@Override
@@ -524,9 +640,22 @@ public class MainApp
 			@Override
 			public void tickerRenderRequested()
 			{
-				gui.repaintDisplay();
+				if(gui.isActiveRendering()){
+					gui.renderActiveDisplay();
+					return;
+				}
+				Rectangle dirty = e.takeDirtyRegion();
+				if(dirty != null){
+					gui.repaintDisplay(dirty);
+				}
 				return;
 			}
+			
+			@Override
+			public long tickerIdleMillis()
+			{
+				return e.getIdleMillis();
+			}
 		};
 	}
 	
@@ -0,0 +1,77 @@
+package main.core;
+
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+
+import main.core.util.FrameJitter;
+
+/**
+ * Drawing surface for active rendering.  The Ticker thread draws each frame straight into the back buffer of a
+ * BufferStrategy and shows it, so frames reach the screen on the Ticker's schedule rather than whenever the EDT gets
+ * around to a coalesced repaint().  Swing never paints the canvas; it ignores repaint requests from the system.
+ *
+ * The canvas is placed inside the Display, which stops drawing anything itself, and takes the mouse listeners.
+ *
+ * @version 1.0 2026-10-17
+ */
+@SuppressWarnings("serial")
+public class ActiveDisplay extends Canvas
+{
+	private Display.Mediator mMediator = null;
+	private int mBuffers = Config.DEFAULT_RENDER_BUFFERS;
+	private FrameJitter mJitter = new FrameJitter();
+	
+	/**
+	 * @param mediator Display.Mediator the same drawing entry point the Display uses.
+	 * @param buffers int 2 for double or 3 for triple buffering.
+	 */
+	public ActiveDisplay(Display.Mediator mediator, int buffers)
+	{
+		this.mMediator = mediator;
+		this.mBuffers = buffers;
+		this.setIgnoreRepaint(true);
+		this.setBackground(Color.BLACK);
+		return;
+	}
+	
+	/**
+	 * Draws and shows one frame.  Called from the Ticker thread.
+	 * @return boolean false if the canvas isn't on screen yet, so nothing was drawn.
+	 */
+	public boolean renderFrame()
+	{
+		if(!this.isDisplayable() || this.getWidth() <= 0 || this.getHeight() <= 0){
+			return false;
+		}
+		BufferStrategy strategy = this.getBufferStrategy();
+		if(strategy == null){
+			this.createBufferStrategy(this.mBuffers);
+			strategy = this.getBufferStrategy();
+		}
+		/* The buffers are video memory that can be lost at any time; the frame is drawn again until it survives. */
+		do
+		{
+			do
+			{
+				Graphics2D g2d = (Graphics2D)strategy.getDrawGraphics();
+				try{
+					this.mMediator.render(g2d);
+				}finally{
+					g2d.dispose();
+				}
+			}while(strategy.contentsRestored());
+			strategy.show();
+		}while(strategy.contentsLost());
+		Toolkit.getDefaultToolkit().sync();
+		this.mJitter.frame();
+		return true;
+	}
+	
+	public FrameJitter getFrameJitter()
+	{
+		return this.mJitter;
+	}
+}
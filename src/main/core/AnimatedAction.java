@@ -1,6 +1,7 @@
 package main.core;
 
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 
@@ -8,11 +9,15 @@ import main.core.util.State;
 
 public class AnimatedAction
 {
+	private static final double QUARTER_TURN = Math.PI * 0.5;
+	private static final double QUARTER_TURN_TOLERANCE = 1.0E-9;
+	
 	private AnimatedAction.Mediator mMediator = null;
 	private Object mImageKey = null;
 	private double mX = 0.0;
 	private double mY = 0.0;
 	private MovementBehavior mBehavior = null;
+	private int mQuarterTurns = -1;
 	private State mPrimaryState = new PrimaryState();
 	private State mCompletionState = new CompletionState();
 	private State mDisposalState = new DisposalState();
@@ -33,6 +38,10 @@ public class AnimatedAction
 	
 	public void render(Graphics2D g2d)
 	{
+		if(this.mQuarterTurns >= 0){
+			g2d.drawImage(this.mMediator.getImage(this.mImageKey, this.mQuarterTurns), (int)Math.round(mX), (int)Math.round(mY), null);
+			return;
+		}
 		AffineTransform original = g2d.getTransform();
 		g2d.rotate(-mBehavior.getRotation(), mX + (this.mMediator.getImage(this.mImageKey).getWidth() / 2.0), mY + (this.mMediator.getImage(this.mImageKey).getHeight() / 2.0));
 		g2d.drawImage(this.mMediator.getImage(this.mImageKey), (int)Math.round(mX), (int)Math.round(mY), null);
@@ -40,6 +49,20 @@ public class AnimatedAction
 		return;
 	}
 	
+	/**
+	 * @return Rectangle enclosing everything render() draws at the current position.
+	 */
+	public Rectangle getBounds()
+	{
+		BufferedImage image = this.mMediator.getImage(this.mImageKey);
+		Rectangle bounds = new Rectangle((int)Math.round(mX), (int)Math.round(mY), image.getWidth(), image.getHeight());
+		if(this.mQuarterTurns >= 0){
+			return bounds;
+		}
+		AffineTransform rotation = AffineTransform.getRotateInstance(-mBehavior.getRotation(), mX + (image.getWidth() / 2.0), mY + (image.getHeight() / 2.0));
+		return rotation.createTransformedShape(bounds).getBounds();
+	}
+	
 	public void setX(double x)
 	{
 		this.mX = x;
@@ -70,9 +93,25 @@ public class AnimatedAction
 	public void setBehavior(MovementBehavior behavior)
 	{
 		this.mBehavior = behavior;
+		this.mQuarterTurns = getQuarterTurns(behavior.getRotation());
 		return;
 	}
 	
+	/**
+	 * @param radians double
+	 * @return int 0 to 3 if the angle is a whole number of quarter turns, drawn from the pre-rotated images, or -1 if 
+	 * it has to be drawn through a rotated transform.
+	 */
+	private static int getQuarterTurns(double radians)
+	{
+		double turns = radians / QUARTER_TURN;
+		long whole = Math.round(turns);
+		if(Math.abs(turns - whole) > QUARTER_TURN_TOLERANCE){
+			return -1;
+		}
+		return (int)Math.floorMod(whole, 4L);
+	}
+	
 	private class PrimaryState implements State
 	{
 		@Override
@@ -132,5 +171,6 @@ public class AnimatedAction
 	{
 		abstract void movePart();
 		abstract BufferedImage getImage(Object key);
+		abstract BufferedImage getImage(Object key, int quarterTurns);
 	}
 }
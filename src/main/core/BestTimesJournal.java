@@ -0,0 +1,327 @@
+package main.core;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import main.core.util.ReadWriteFile;
+
+/**
+ * Append-only log of best times and settings, folded into a snapshot from time to time.
+ *
+ * Each record is one line ending in a semicolon, written and forced to disk by a writer thread of its own, so the
+ * caller never waits on the disk:
+ *   T <difficulty> <dev_id> <milliseconds>;   a finished puzzle;
+ *   D <difficulty>;                           the difficulty chosen when the game was closed.
+ * Saving at shutdown is one more line rather than a rewrite of everything.
+ *
+ * compact() notes how long the log is and takes a snapshot under the lock, has the Compactor write it (config.xml,
+ * written with ReadWriteFile.writeAtomic) without the lock, then drops only the records up to the noted length, so
+ * appends carry on while the snapshot is written.  A record is added to the Leaderboard before it is appended, so
+ * every record up to that length is in the snapshot.  Replaying records is idempotent, since the Leaderboard ignores
+ * a time it already holds and the last difficulty wins, so a crash between the snapshot and the drop loses nothing;
+ * the same records are just applied twice.  A crash partway through an append leaves a line without its semicolon,
+ * which replay() skips rather than reading a cut off time as a faster one.
+ *
+ * @version 1.0 2026-10-17
+ */
+public class BestTimesJournal
+{
+	private static final String TIME_RECORD = "T";
+	private static final String DIFFICULTY_RECORD = "D";
+	private static final String RECORD_END = ";";
+	
+	private File mFile = null;
+	private BestTimesJournal.Compactor mCompactor = null;
+	private FileOutputStream mStream = null;
+	private ExecutorService mWriter = null;
+	private ScheduledExecutorService mScheduler = null;
+	private int mPending = 0;
+	private int mCompactions = 0;
+	private boolean mClosed = false;
+	
+	/**
+	 * @param file File the log is kept in.
+	 * @param compactor BestTimesJournal.Compactor that writes the snapshot the log is folded into.
+	 */
+	public BestTimesJournal(File file, BestTimesJournal.Compactor compactor)
+	{
+		this.mFile = file;
+		this.mCompactor = compactor;
+		this.mWriter = Executors.newSingleThreadExecutor(new ThreadFactory()
+		{
+			@Override
+			public Thread newThread(Runnable r)
+			{
+				Thread thread = new Thread(r, "BestTimesJournal writer");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		return;
+	}
+	
+	/**
+	 * Applies every complete record in the log.
+	 * @param board Leaderboard the times are added to.
+	 * @return Difficulty of the last difficulty record, or null if there is none.
+	 */
+	public synchronized Difficulty replay(Leaderboard board)
+	{
+		Difficulty last = null;
+		if(!this.mFile.isFile()){
+			return last;
+		}
+		try{
+			BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(this.mFile), StandardCharsets.UTF_8));
+			try{
+				String line = reader.readLine();
+				while(line != null)
+				{
+					line = line.trim();
+					String[] fields = line.endsWith(RECORD_END) ? line.substring(0, line.length() - 1).split(" ") : new String[]{""};
+					if(fields[0].equals(TIME_RECORD) && fields.length == 4){
+						Difficulty dif = Difficulty.getTypeForName(fields[1]);
+						if(dif != null){
+							board.add(dif, Integer.parseInt(fields[2]), Long.parseLong(fields[3]));
+							this.mPending++;
+						}
+					}else if(fields[0].equals(DIFFICULTY_RECORD) && fields.length == 2 && Difficulty.getTypeForName(fields[1]) != null){
+						last = Difficulty.getTypeForName(fields[1]);
+						this.mPending++;
+					}
+					line = reader.readLine();
+				}
+			}finally{
+				reader.close();
+			}
+		}catch(Exception ex){
+			ex.printStackTrace();
+		}
+		return last;
+	}
+	
+	/**
+	 * Queues a time record for the writer thread.  Add the time to the Leaderboard first, so any snapshot that
+	 * includes the record also includes the time.
+	 */
+	public void appendTime(Difficulty dif, int devID, long millis)
+	{
+		this.enqueue(TIME_RECORD + " " + dif.name() + " " + devID + " " + millis);
+		return;
+	}
+	
+	public void appendDifficulty(Difficulty dif)
+	{
+		this.enqueue(DIFFICULTY_RECORD + " " + dif.name());
+		return;
+	}
+	
+	private void enqueue(final String record)
+	{
+		try{
+			this.mWriter.execute(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					append(record);
+					return;
+				}
+			});
+		}catch(Exception ex){
+			ex.printStackTrace();
+		}
+		return;
+	}
+	
+	private synchronized void append(String record)
+	{
+		try{
+			if(this.mStream == null){
+				boolean torn = this.endsTorn();
+				this.mStream = new FileOutputStream(this.mFile, true);
+				if(torn){
+					this.mStream.write('\n');
+				}
+			}
+			this.mStream.write((record + RECORD_END + "\n").getBytes(StandardCharsets.UTF_8));
+			this.mStream.getFD().sync();
+			this.mPending++;
+		}catch(Exception ex){
+			ex.printStackTrace();
+		}
+		return;
+	}
+	
+	/**
+	 * @return boolean true if the log ends partway through a line, which must be ended before anything is appended.
+	 */
+	private boolean endsTorn() throws Exception
+	{
+		if(this.mFile.length() == 0L){
+			return false;
+		}
+		RandomAccessFile file = new RandomAccessFile(this.mFile, "r");
+		try{
+			file.seek(file.length() - 1L);
+			return file.read() != '\n';
+		}finally{
+			file.close();
+		}
+	}
+	
+	/**
+	 * Writes a snapshot and drops the records it holds.  Only taking the snapshot and dropping the records hold the
+	 * lock; records appended while the snapshot is written stay in the log.
+	 */
+	public void compact()
+	{
+		try{
+			long length = 0L;
+			int pending = 0;
+			String snapshot = null;
+			synchronized(this)
+			{
+				length = this.mFile.length();
+				pending = this.mPending;
+				snapshot = this.mCompactor.snapshot();
+			}
+			this.mCompactor.write(snapshot);
+			synchronized(this)
+			{
+				this.drop(length);
+				this.mPending -= pending;
+				this.mCompactions++;
+			}
+		}catch(Exception ex){
+			ex.printStackTrace();
+		}
+		return;
+	}
+	
+	/**
+	 * Replaces the log with whatever follows the first length bytes, the records appended since the snapshot.
+	 */
+	private void drop(long length) throws Exception
+	{
+		if(this.mStream != null){
+			this.mStream.close();
+			this.mStream = null;
+		}
+		byte[] tail = new byte[0];
+		if(this.mFile.length() > length){
+			RandomAccessFile file = new RandomAccessFile(this.mFile, "r");
+			try{
+				tail = new byte[(int)(file.length() - length)];
+				file.seek(length);
+				file.readFully(tail);
+			}finally{
+				file.close();
+			}
+		}
+		ReadWriteFile.writeAtomic(this.mFile.getPath(), new String(tail, StandardCharsets.UTF_8));
+		return;
+	}
+	
+	/**
+	 * Compacts on a background thread whenever the log has records, checking once per period.
+	 * @param period long time between checks.
+	 * @param unit TimeUnit of the period.
+	 */
+	public synchronized void startCompaction(long period, TimeUnit unit)
+	{
+		if(this.mScheduler != null || this.mClosed){
+			return;
+		}
+		this.mScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory()
+		{
+			@Override
+			public Thread newThread(Runnable r)
+			{
+				Thread thread = new Thread(r, "BestTimesJournal compaction");
+				thread.setDaemon(true);
+				thread.setPriority(Thread.MIN_PRIORITY);
+				return thread;
+			}
+		});
+		this.mScheduler.scheduleWithFixedDelay(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				if(getPendingCount() > 0){
+					compact();
+				}
+				return;
+			}
+		}, 0L, period, unit);
+		return;
+	}
+	
+	public synchronized int getPendingCount()
+	{
+		return this.mPending;
+	}
+	
+	public synchronized int getCompactionCount()
+	{
+		return this.mCompactions;
+	}
+	
+	/**
+	 * Writes the queued records, stops background compaction, waiting for one in progress, and closes the log.
+	 * Nothing is compacted here; the records already on disk are folded in on the next start.
+	 */
+	public void close()
+	{
+		ScheduledExecutorService scheduler = null;
+		synchronized(this)
+		{
+			scheduler = this.mScheduler;
+			this.mScheduler = null;
+			this.mClosed = true;
+		}
+		try{
+			this.mWriter.shutdown();
+			this.mWriter.awaitTermination(5L, TimeUnit.SECONDS);
+			if(scheduler != null){
+				scheduler.shutdown();
+				scheduler.awaitTermination(5L, TimeUnit.SECONDS);
+			}
+			synchronized(this)
+			{
+				if(this.mStream != null){
+					this.mStream.close();
+					this.mStream = null;
+				}
+			}
+		}catch(Exception ex){
+			ex.printStackTrace();
+		}
+		return;
+	}
+	
+	public interface Compactor
+	{
+		/**
+		 * Called under the journal's lock, so it should only copy what it needs.
+		 * @return String snapshot of everything the log holds so far.
+		 */
+		abstract String snapshot() throws Exception;
+		
+		/**
+		 * Writes a snapshot taken by snapshot(), or throws to leave the log as it is.
+		 */
+		abstract void write(String snapshot) throws Exception;
+	}
+}
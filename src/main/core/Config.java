@@ -0,0 +1,184 @@
+package main.core;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import main.core.util.XMLStreamParser;
+
+/**
+ * Typed, read-only view of config.xml.
+ *
+ * load() parses the whole file in one pass and everything afterward is a field lookup.  At startup the application
+ * uses open() instead, so the same pass goes on to read the best times, and hands the same Config to whatever needs
+ * it.  A Config never changes; a new setting
+ * such as the chosen difficulty gives a new Config, and a changed file is only seen after another explicit load().
+ *
+ * The optional rendering element picks how the board is drawn: mode="passive", the default, paints through Swing's
+ * repaint(); mode="active" draws from the Ticker thread into a Canvas with a BufferStrategy of the given number of
+ * buffers.  scheduling="demand", the default, lets the Ticker sleep while nothing on the board is moving;
+ * scheduling="fixed" ticks at the full rate all the time.  Active rendering always ticks at the full rate.
+ *
+ * @version 1.0 2026-10-17
+ */
+public class Config
+{
+	public static final String PASSIVE_RENDERING = "passive";
+	public static final String ACTIVE_RENDERING = "active";
+	public static final int DEFAULT_RENDER_BUFFERS = 2;
+	public static final String DEMAND_SCHEDULING = "demand";
+	public static final String FIXED_SCHEDULING = "fixed";
+	
+	private static int mParseCount = 0;
+	
+	private final String mLanguage;
+	private final String mRegion;
+	private final Difficulty mDifficulty;
+	private final boolean mActiveRendering;
+	private final int mRenderBuffers;
+	private final boolean mDemandScheduling;
+	private final Map<String, String> mImagePaths;
+	private final Map<Difficulty, String> mPuzzlePaths;
+	
+	public Config(ConfigData data)
+	{
+		this.mLanguage = data.language;
+		this.mRegion = data.region;
+		this.mDifficulty = data.difficulty;
+		this.mActiveRendering = data.activeRendering;
+		this.mRenderBuffers = Math.max(2, Math.min(3, data.renderBuffers));
+		this.mDemandScheduling = data.demandScheduling;
+		this.mImagePaths = Collections.unmodifiableMap(new HashMap<String, String>(data.imagePaths));
+		this.mPuzzlePaths = Collections.unmodifiableMap(new HashMap<Difficulty, String>(data.puzzlePaths));
+		return;
+	}
+	
+	private Config(Config that, Difficulty difficulty)
+	{
+		this.mLanguage = that.mLanguage;
+		this.mRegion = that.mRegion;
+		this.mDifficulty = difficulty;
+		this.mActiveRendering = that.mActiveRendering;
+		this.mRenderBuffers = that.mRenderBuffers;
+		this.mDemandScheduling = that.mDemandScheduling;
+		this.mImagePaths = that.mImagePaths;
+		this.mPuzzlePaths = that.mPuzzlePaths;
+		return;
+	}
+	
+	/**
+	 * @param absolutePath String file system path of config.xml.
+	 * @return Config, or null if the file can't be opened.
+	 */
+	public static Config load(String absolutePath)
+	{
+		XMLStreamConfigs reader = open(absolutePath);
+		return reader == null ? null : new Config(reader.read());
+	}
+	
+	/**
+	 * Opens config.xml for a pass that reads the best times as well, as the application does at startup: 
+	 * new Config(reader.readSettings(board)), and later reader.readBestTimes(board).
+	 * @param absolutePath String file system path of config.xml.
+	 * @return XMLStreamConfigs, or null if the file can't be opened.
+	 */
+	public static XMLStreamConfigs open(String absolutePath)
+	{
+		XMLStreamParser parser = XMLStreamParser.openFile(absolutePath);
+		if(parser == null){
+			return null;
+		}
+		synchronized(Config.class)
+		{
+			mParseCount++;
+		}
+		return new XMLStreamConfigs(parser);
+	}
+	
+	/**
+	 * @return int number of times load() or open() has opened a file, for checking that startup reads config.xml only 
+	 * once.
+	 */
+	public static synchronized int getParseCount()
+	{
+		return mParseCount;
+	}
+	
+	/**
+	 * @param difficulty Difficulty
+	 * @return Config with the same settings except for the difficulty.
+	 */
+	public Config withDifficulty(Difficulty difficulty)
+	{
+		return new Config(this, difficulty);
+	}
+	
+	public String getLanguage()
+	{
+		return this.mLanguage;
+	}
+	
+	public String getRegion()
+	{
+		return this.mRegion;
+	}
+	
+	public Locale getLocale()
+	{
+		return new Locale.Builder().setLanguage(this.mLanguage).setRegion(this.mRegion).build();
+	}
+	
+	public Difficulty getDifficulty()
+	{
+		return this.mDifficulty;
+	}
+	
+	public boolean isActiveRendering()
+	{
+		return this.mActiveRendering;
+	}
+	
+	/**
+	 * @return int 2 for double or 3 for triple buffering, used by active rendering.
+	 */
+	public int getRenderBuffers()
+	{
+		return this.mRenderBuffers;
+	}
+	
+	public boolean isDemandScheduling()
+	{
+		return this.mDemandScheduling;
+	}
+	
+	/**
+	 * @param xmlTag String tag of the image under the images element, such as XMLTag.CROSS.
+	 * @return String resource path, or null if the config doesn't name one.
+	 */
+	public String getImagePath(String xmlTag)
+	{
+		return this.mImagePaths.get(xmlTag);
+	}
+	
+	/**
+	 * @return Map of every image resource path by its tag under the images element, unmodifiable.
+	 */
+	public Map<String, String> getImagePaths()
+	{
+		return this.mImagePaths;
+	}
+	
+	public String getResizeGripPath()
+	{
+		return this.mImagePaths.get(XMLTag.RESIZE_GRIP);
+	}
+	
+	/**
+	 * @return Map of puzzle file resource paths by difficulty, unmodifiable.
+	 */
+	public Map<Difficulty, String> getPuzzlePaths()
+	{
+		return this.mPuzzlePaths;
+	}
+}
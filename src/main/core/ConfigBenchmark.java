@@ -0,0 +1,95 @@
+package main.core;
+
+import main.core.util.XMLReader;
+import main.core.util.XMLUtil;
+
+/**
+ * Command-line benchmark of reading config.xml while the application starts and loads puzzles, counting how many
+ * times the file is parsed.
+ *
+ * The per-lookup run repeats what MainApp used to do, a DOM parse of the whole file for each of the locale, puzzle
+ * paths, difficulty and resize grip, and another for each of the seven images on every puzzle load.  The startup run
+ * is what MainApp does now: Config.open() and one pass that reads the settings into a Config and the best times into
+ * a Leaderboard, followed by the same lookups against that Config.  Neither run reads best times the old way, which
+ * was one more parse.
+ *
+ * Usage: java main.core.ConfigBenchmark [config.xml] [puzzle loads]
+ *
+ * @version 1.0 2026-10-17
+ */
+public class ConfigBenchmark
+{
+	private static final String[] IMAGE_TAGS = new String[]{XMLTag.CROSS, XMLTag.ELBOW, XMLTag.PIPE, XMLTag.T_JUNCTION,
+			XMLTag.GREEN_GAUGE, XMLTag.RED_GAUGE, XMLTag.TILE};
+	
+	private static int mLegacyParses = 0;
+	
+	public static void main(String[] args)
+	{
+		String path = args.length > 0 ? args[0] : "config.xml";
+		int loads = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+		
+		/* One untimed pass of each so class loading and the JIT don't land on either measurement. */
+		runPerLookup(path, 1);
+		runStartup(path, 1);
+		mLegacyParses = 0;
+		int configParses = Config.getParseCount();
+		
+		long start = System.nanoTime();
+		int checksum = runPerLookup(path, loads);
+		double legacyMillis = (System.nanoTime() - start) / 1.0E6;
+		start = System.nanoTime();
+		checksum += runStartup(path, loads);
+		double configMillis = (System.nanoTime() - start) / 1.0E6;
+		configParses = Config.getParseCount() - configParses;
+		
+		System.out.println(String.format("%-12s %8s %10s   (startup plus %d puzzle loads, checksum %d)", "", "parses", "ms", loads, checksum));
+		System.out.println(String.format("%-12s %8d %10.2f", "per lookup", mLegacyParses, legacyMillis));
+		System.out.println(String.format("%-12s %8d %10.2f", "startup", configParses, configMillis));
+		return;
+	}
+	
+	private static int runPerLookup(String path, int loads)
+	{
+		int checksum = 0;
+		checksum += read(path, XMLTag.CONFIGS).readStringAttribute(XMLTag.LOCALE, XMLAttrib.LANGUAGE).length();
+		checksum += read(path, XMLTag.PUZZLES).readStringAttribute(XMLTag.EASY, XMLAttrib.PATH).length();
+		checksum += read(path, XMLTag.CONFIGS).readString(XMLTag.DIFFICULTY).length();
+		checksum += read(path, XMLTag.CONFIGS).readStringAttribute(XMLTag.RESIZE_GRIP, XMLAttrib.PATH).length();
+		for(int i = 0; i < loads; i++)
+		{
+			for(String tag : IMAGE_TAGS)
+			{
+				checksum += read(path, XMLTag.CONFIGS).readStringAttribute(tag, XMLAttrib.PATH).length();
+			}
+		}
+		return checksum;
+	}
+	
+	private static XMLReader read(String path, String rootTag)
+	{
+		mLegacyParses++;
+		return XMLUtil.getReaderAbsolute(path, rootTag);
+	}
+	
+	private static int runStartup(String path, int loads)
+	{
+		int checksum = 0;
+		Leaderboard board = new Leaderboard();
+		XMLStreamConfigs reader = Config.open(path);
+		Config config = new Config(reader.readSettings(board));
+		checksum += reader.readBestTimes(board);
+		checksum += config.getLanguage().length();
+		checksum += config.getPuzzlePaths().get(Difficulty.EASY).length();
+		checksum += config.getDifficulty().name().length();
+		checksum += config.getResizeGripPath().length();
+		for(int i = 0; i < loads; i++)
+		{
+			for(String tag : IMAGE_TAGS)
+			{
+				checksum += config.getImagePath(tag).length();
+			}
+		}
+		return checksum;
+	}
+}
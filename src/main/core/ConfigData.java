@@ -0,0 +1,20 @@
+package main.core;
+
+import java.util.HashMap;
+
+/**
+ * Plain holder for the settings read from config.xml.
+ *
+ * @version 1.0 2026-10-17
+ */
+public class ConfigData
+{
+	public String language = null;
+	public String region = null;
+	public Difficulty difficulty = null;
+	public boolean activeRendering = false;
+	public int renderBuffers = Config.DEFAULT_RENDER_BUFFERS;
+	public boolean demandScheduling = true;
+	public HashMap<String, String> imagePaths = new HashMap<String, String>();
+	public HashMap<Difficulty, String> puzzlePaths = new HashMap<Difficulty, String>();
+}
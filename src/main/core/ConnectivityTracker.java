@@ -0,0 +1,141 @@
+package main.core;
+
+import java.util.Arrays;
+
+import main.core.util.UnionFind;
+
+/**
+ * Keeps a component label for every cell of a PipeGrid so that goal lights can be checked without tracing the whole
+ * network again after every move.
+ *
+ * When a cell changes, only the components that held that cell or one of its four neighbors can be split or joined.
+ * Each piece left behind still touches the changed cell or a neighbor, so flooding outward from those five cells
+ * relabels everything that was affected and nothing else.  Labels are never reused, which keeps stale and fresh labels
+ * from being mistaken for each other.
+ *
+ * @version 1.0 2026-10-17
+ */
+public class ConnectivityTracker
+{
+	private static final int NONE = -1;
+	
+	private PipeGrid mGrid = null;
+	private int[] mLabels = null;
+	private int[] mStamps = null;
+	private int[] mStack = null;
+	private UnionFind mSets = null;
+	private int mNextLabel = 0;
+	private int mStamp = 0;
+	
+	public ConnectivityTracker(PipeGrid grid)
+	{
+		this.mGrid = grid;
+		this.mLabels = new int[grid.getCellCount()];
+		this.mStamps = new int[grid.getCellCount()];
+		this.mStack = new int[grid.getCellCount()];
+		this.mSets = new UnionFind(grid.getCellCount());
+		this.rebuild();
+		return;
+	}
+	
+	/**
+	 * Labels every cell of the grid from scratch by joining each cell with the linked neighbors to its east and south.
+	 * The label of a cell is its set's root, offset past every label handed out so far.
+	 */
+	public void rebuild()
+	{
+		this.mSets.reset();
+		for(int index = 0; index < this.mLabels.length; index++)
+		{
+			if(this.mGrid.isLinked(index, PipeGrid.EAST)){
+				this.mSets.union(index, index + 1);
+			}
+			if(this.mGrid.isLinked(index, PipeGrid.SOUTH)){
+				this.mSets.union(index, index + this.mGrid.getSize());
+			}
+		}
+		for(int index = 0; index < this.mLabels.length; index++)
+		{
+			this.mLabels[index] = this.mGrid.isEmpty(index) ? NONE : this.mNextLabel + this.mSets.find(index);
+		}
+		this.mNextLabel += this.mLabels.length;
+		return;
+	}
+	
+	/**
+	 * Must be called after a cell's contents (type or rotation) have changed in the grid.  A move is two changes: one
+	 * for the cell that was emptied and one for the cell that was filled.
+	 * @param index int cell index that changed.
+	 */
+	public void cellChanged(int index)
+	{
+		this.nextStamp();
+		this.relabel(index);
+		for(int direction = PipeGrid.NORTH; direction <= PipeGrid.WEST; direction++)
+		{
+			int neighbor = this.mGrid.getNeighbor(index, direction);
+			if(neighbor >= 0){
+				this.relabel(neighbor);
+			}
+		}
+		return;
+	}
+	
+	public int getComponent(int index)
+	{
+		return this.mLabels[index];
+	}
+	
+	public boolean isConnected(int first, int second)
+	{
+		return this.mLabels[first] != NONE && this.mLabels[first] == this.mLabels[second];
+	}
+	
+	private void relabel(int seed)
+	{
+		if(this.mStamps[seed] == this.mStamp){
+			return;
+		}
+		if(this.mGrid.isEmpty(seed)){
+			this.mLabels[seed] = NONE;
+			this.mStamps[seed] = this.mStamp;
+			return;
+		}
+		this.flood(seed, this.mNextLabel++);
+		return;
+	}
+	
+	private void flood(int seed, int label)
+	{
+		int top = 0;
+		this.mStack[top++] = seed;
+		this.mStamps[seed] = this.mStamp;
+		while(top > 0)
+		{
+			int current = this.mStack[--top];
+			this.mLabels[current] = label;
+			for(int direction = PipeGrid.NORTH; direction <= PipeGrid.WEST; direction++)
+			{
+				if(!this.mGrid.isLinked(current, direction)){
+					continue;
+				}
+				int neighbor = this.mGrid.getNeighbor(current, direction);
+				if(this.mStamps[neighbor] != this.mStamp){
+					this.mStamps[neighbor] = this.mStamp;
+					this.mStack[top++] = neighbor;
+				}
+			}
+		}
+		return;
+	}
+	
+	private void nextStamp()
+	{
+		this.mStamp++;
+		if(this.mStamp == Integer.MAX_VALUE){
+			Arrays.fill(this.mStamps, 0);
+			this.mStamp = 1;
+		}
+		return;
+	}
+}
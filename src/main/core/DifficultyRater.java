@@ -0,0 +1,263 @@
+package main.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import main.core.util.XMLStreamParser;
+
+/**
+ * Rates a puzzle by how hard the solver has to work on it rather than by the file it came from.
+ *
+ * The score adds up four measures from one solve:
+ *   - log10 of the backtracks, the amount of trial and error;
+ *   - half the average branching factor above one, how many choices each guess had;
+ *   - the share of decisions that were guesses rather than forced placements;
+ *   - the share of free cells left empty by the solution, since every empty cell is somewhere a part could go wrong.
+ * The sum is cut into EASY, MEDIUM and HARD at two thresholds.  The defaults were chosen so that the bundled puzzle
+ * files mostly keep their tiers, but the scores of a batch depend heavily on its grid size, so a batch of one size
+ * can all land in one tier.  calibrate() fits the thresholds to a sample instead, at its lower and upper thirds.  A
+ * solve that reaches the node limit is rated HARD.
+ *
+ * @version 1.0 2026-10-17
+ */
+public class DifficultyRater
+{
+	public static final double MEDIUM_THRESHOLD = 3.2;
+	public static final double HARD_THRESHOLD = 4.5;
+	public static final long DEFAULT_NODE_LIMIT = 200000L;
+	
+	private long mNodeLimit = DEFAULT_NODE_LIMIT;
+	private double mMediumThreshold = MEDIUM_THRESHOLD;
+	private double mHardThreshold = HARD_THRESHOLD;
+	
+	public DifficultyRater()
+	{
+		return;
+	}
+	
+	/**
+	 * @param nodeLimit long most nodes the solver may spend on one puzzle.
+	 */
+	public DifficultyRater(long nodeLimit)
+	{
+		this.mNodeLimit = nodeLimit;
+		return;
+	}
+	
+	/**
+	 * Solves the puzzle and rates it.  Safe to call from several threads at once.
+	 * @param data PipePuzzleData to rate.
+	 * @return DifficultyRater.Rating
+	 */
+	public Rating rate(PipePuzzleData data)
+	{
+		PipeSolver solver = new PipeSolver(data);
+		solver.setNodeLimit(this.mNodeLimit);
+		solver.solve();
+		return this.rate(data, solver);
+	}
+	
+	/**
+	 * Rates a puzzle from a solve that has already been run.
+	 * @param data PipePuzzleData that was solved.
+	 * @param solver PipeSolver holding the statistics of its last solve.
+	 * @return DifficultyRater.Rating
+	 */
+	public Rating rate(PipePuzzleData data, PipeSolver solver)
+	{
+		Rating rating = new Rating();
+		int parts = data.elbows + data.pipes + data.tJunctions + data.crosses;
+		int free = Math.max(1, data.size * data.size - data.starts.size() - data.goals.size());
+		long decisions = solver.getForced() + solver.getBranchPoints();
+		rating.effort = Math.log10(1.0 + solver.getBacktracks());
+		rating.branching = 0.5 * (solver.getBranchingFactor() - 1.0);
+		rating.guessing = decisions == 0L ? 0.0 : solver.getBranchPoints() / (double)decisions;
+		rating.openness = 1.0 - Math.min(parts, free) / (double)free;
+		rating.score = rating.effort + rating.branching + rating.guessing + rating.openness;
+		rating.limitReached = solver.isLimitReached();
+		this.classify(rating);
+		return rating;
+	}
+	
+	/**
+	 * Sets the rating's difficulty from its score and the current thresholds.
+	 * @param rating Rating to classify.
+	 * @return Difficulty
+	 */
+	public Difficulty classify(Rating rating)
+	{
+		if(rating.limitReached){
+			rating.difficulty = Difficulty.HARD;
+		}else if(rating.score < this.mMediumThreshold){
+			rating.difficulty = Difficulty.EASY;
+		}else if(rating.score < this.mHardThreshold){
+			rating.difficulty = Difficulty.MEDIUM;
+		}else{
+			rating.difficulty = Difficulty.HARD;
+		}
+		return rating.difficulty;
+	}
+	
+	/**
+	 * Moves the thresholds to the lower and upper thirds of the sample's scores, so a batch like the sample splits
+	 * about evenly into the three tiers.  Ratings that reached the node limit are left out, since they are HARD
+	 * whatever their score.  Not safe to call while other threads are rating.
+	 * @param sample List of ratings, typically the first few hundred of a batch.
+	 */
+	public void calibrate(List<Rating> sample)
+	{
+		double[] scores = new double[sample.size()];
+		int count = 0;
+		for(Rating rating : sample)
+		{
+			if(!rating.limitReached){
+				scores[count++] = rating.score;
+			}
+		}
+		if(count < 3){
+			return;
+		}
+		Arrays.sort(scores, 0, count);
+		this.mMediumThreshold = scores[count / 3];
+		this.mHardThreshold = scores[(2 * count) / 3];
+		return;
+	}
+	
+	public double getMediumThreshold()
+	{
+		return this.mMediumThreshold;
+	}
+	
+	public double getHardThreshold()
+	{
+		return this.mHardThreshold;
+	}
+	
+	/**
+	 * Rates a whole catalog on a fixed pool of threads.  The list is cut into one contiguous slice per task, and each
+	 * task writes only its own slice of the results, so the workers never wait on each other.  If any task fails the
+	 * rest are cancelled and the failure is thrown, rather than returning a list with gaps in it.
+	 * @param puzzles List of PipePuzzleData to rate.
+	 * @param threads int number of worker threads.
+	 * @return ArrayList of ratings in the same order as the puzzles.
+	 * @throws ExecutionException wrapping the first exception a task threw.
+	 */
+	public ArrayList<Rating> rateAll(final List<PipePuzzleData> puzzles, int threads) throws InterruptedException, ExecutionException
+	{
+		final Rating[] results = new Rating[puzzles.size()];
+		int tasks = Math.max(1, threads) * 4;
+		int slice = (puzzles.size() + tasks - 1) / tasks;
+		ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+		try{
+			ArrayList<Future<Object>> futures = new ArrayList<Future<Object>>();
+			for(int from = 0; from < puzzles.size(); from += slice)
+			{
+				final int first = from;
+				final int last = Math.min(puzzles.size(), from + slice);
+				futures.add(pool.submit(new Callable<Object>()
+				{
+					@Override
+					public Object call()
+					{
+						for(int i = first; i < last; i++)
+						{
+							results[i] = rate(puzzles.get(i));
+						}
+						return null;
+					}
+				}));
+			}
+			for(Future<Object> future : futures)
+			{
+				future.get();
+			}
+		}finally{
+			pool.shutdownNow();
+		}
+		ArrayList<Rating> ratings = new ArrayList<Rating>(results.length);
+		for(Rating r : results)
+		{
+			ratings.add(r);
+		}
+		return ratings;
+	}
+	
+	public static class Rating
+	{
+		public double score = 0.0;
+		public double effort = 0.0;
+		public double branching = 0.0;
+		public double guessing = 0.0;
+		public double openness = 0.0;
+		public boolean limitReached = false;
+		public Difficulty difficulty = null;
+		
+		@Override
+		public String toString()
+		{
+			return String.format("%-6s score %.2f (effort %.2f, branching %.2f, guessing %.2f, openness %.2f)%s",
+					this.difficulty.name(), this.score, this.effort, this.branching, this.guessing, this.openness, this.limitReached ? ", node limit reached" : "");
+		}
+	}
+	
+	/**
+	 * Rates every puzzle in the given files and reports the rating of each, or the spread and throughput for large files.
+	 * Paths starting with /data/ are read as resources, anything else from the file system.  With -calibrate, each file
+	 * is split into tiers by its own thirds instead of the default thresholds.
+	 * Usage: java main.core.DifficultyRater [-threads n] [-calibrate] /data/easy_puzzle.xml [...]
+	 */
+	public static void main(String[] args)
+	{
+		int threads = Runtime.getRuntime().availableProcessors();
+		boolean calibrate = false;
+		for(int a = 0; a < args.length; a++)
+		{
+			if(args[a].equals("-threads")){
+				threads = Integer.parseInt(args[++a]);
+				continue;
+			}else if(args[a].equals("-calibrate")){
+				calibrate = true;
+				continue;
+			}
+			String path = args[a];
+			XMLStreamParser parser = path.startsWith("/data/") ? XMLStreamParser.openResource(path) : XMLStreamParser.openFile(path);
+			ArrayList<PipePuzzleData> puzzles = new XMLStreamPuzzles(parser).read();
+			DifficultyRater rater = new DifficultyRater();
+			long start = System.nanoTime();
+			ArrayList<Rating> ratings = null;
+			try{
+				ratings = rater.rateAll(puzzles, threads);
+			}catch(Exception ex){
+				ex.printStackTrace();
+				System.exit(1);
+			}
+			long elapsed = System.nanoTime() - start;
+			if(calibrate){
+				rater.calibrate(ratings);
+				for(Rating rating : ratings)
+				{
+					rater.classify(rating);
+				}
+			}
+			int[] counts = new int[Difficulty.values().length];
+			for(int i = 0; i < ratings.size(); i++)
+			{
+				counts[ratings.get(i).difficulty.ordinal()]++;
+				if(ratings.size() <= 20){
+					System.out.println(path + " #" + (i + 1) + ": " + ratings.get(i));
+				}
+			}
+			System.out.println(String.format("%s: %d puzzles in %.1f ms (%.0f/s on %d threads), %d easy, %d medium, %d hard at %.2f/%.2f",
+					path, puzzles.size(), elapsed / 1.0E6, puzzles.size() / Math.max(1.0E-9, elapsed / 1.0E9), threads,
+					counts[Difficulty.EASY.ordinal()], counts[Difficulty.MEDIUM.ordinal()], counts[Difficulty.HARD.ordinal()],
+					rater.getMediumThreshold(), rater.getHardThreshold()));
+		}
+		return;
+	}
+}
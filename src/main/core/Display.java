@@ -5,10 +5,13 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import javax.swing.JPanel;
 
+import main.core.util.FrameJitter;
+
 @SuppressWarnings("serial")
 public class Display extends JPanel
 {
 	private Display.Mediator mMediator = null;
+	private FrameJitter mJitter = new FrameJitter();
 	
 	public Display(Display.Mediator mediator)
 	{
@@ -34,9 +37,15 @@ public class Display extends JPanel
 		
 		this.mMediator.render(g2d);
 		g2d.dispose();
+		this.mJitter.frame();
 		return;
 	}
 	
+	public FrameJitter getFrameJitter()
+	{
+		return this.mJitter;
+	}
+	
 	public interface Mediator
 	{
 		abstract void render(Graphics2D g2d);
@@ -2,6 +2,7 @@ package main.core;
 
 import java.awt.Color;
 import java.awt.Dimension;
+import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Rectangle;
@@ -11,40 +12,59 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.ResourceBundle;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.SwingUtilities;
 
 import main.core.PipePuzzle.ImageKey;
 import main.core.PipePuzzle.Orientation;
-import main.core.util.ImageLoader;
-import main.core.util.ImageUtils;
 import main.core.util.MathUtil;
 import main.core.util.Ticker;
 import main.core.util.TimeUtil;
-import main.core.util.XMLReader;
-import main.core.util.XMLUtil;
 
 public class Engine
 {
+	private static final long SOLVE_NODE_LIMIT = DifficultyRater.DEFAULT_NODE_LIMIT;
+	
 	private Engine.Mediator mMediator = null;
-	private PipePuzzle mPuzzle = null;
+	private volatile PipePuzzle mPuzzle = null;
+	private PipePuzzleData mPuzzleData = null;
 	private Rectangle mBounds = new Rectangle();
 	private int mTileWidth = 0;
 	private Difficulty mDifficulty = Difficulty.EASY;
 	private long mStart = 0L;
+	private boolean mFinished = false;
 	private HashMap<Difficulty, Integer> mCurrentPuzzleNumbers = new HashMap<Difficulty, Integer>();
-	private HashMap<Difficulty, String> mDataPaths = null;
-	private HashMap<Object, BufferedImage> mOriginals = new HashMap<Object, BufferedImage>();
-	private ArrayList<AnimatedAction> mAnimations = new ArrayList<AnimatedAction>();
+	private HashMap<Difficulty, Integer> mPuzzleCounts = new HashMap<Difficulty, Integer>();
+	private PuzzleCatalog mCatalog = null;
+	private ImageAssets mAssets = null;
+	private volatile ArrayList<AnimatedAction> mAnimations = new ArrayList<AnimatedAction>();
 	private ResourceBundle mMainResource = null;
+	private volatile boolean mRepaintAll = true;
+	private Rectangle mCursorRegion = null;
+	private Rectangle mAnimationRegion = null;
+	private FrameProfiler mProfiler = new FrameProfiler();
+	private ExecutorService mLoader = Executors.newSingleThreadExecutor(createWorkerThreadFactory("Puzzle loader"));
+	private ExecutorService mSolver = Executors.newSingleThreadExecutor(createWorkerThreadFactory("Puzzle solver"));
+	private AtomicInteger mLoadGeneration = new AtomicInteger();
+	private boolean mSolving = false;
 	
 	private GameState mShuffleState = new ShuffleAnimationState();
 	private GameState mNormalPlay = new NormalPlayState();
 	private GameState mSolutionState = new SolutionAnimationState();
-	private GameState mCurrentState = this.mShuffleState;
+	private GameState mLoadingState = new MessageState("LOADING_CAPTION");
+	private GameState mFailedState = new MessageState("LOAD_FAILED_CAPTION");
+	private volatile GameState mCurrentState = this.mLoadingState;
+	private GameState mResumeState = this.mShuffleState;
 	
 	public Engine(Engine.Mediator mediator, HashMap<Difficulty, String> dataPaths)
 	{
 		this.mMediator = mediator;
-		this.mDataPaths = dataPaths;
+		this.mCatalog = new PuzzleCatalog(dataPaths);
+		this.mAssets = ImageAssets.load(mediator.getConfig());
 		this.initialize();
 		return;
 	}
@@ -60,16 +80,116 @@ public class Engine
 	
 	public void update()
 	{
+		long start = this.mProfiler.start();
 		this.mCurrentState.update();
+		this.mProfiler.record(FrameProfiler.Phase.UPDATE, start);
 		return;
 	}
 	
 	public void render(Graphics2D g2d)
 	{
+		long start = this.mProfiler.start();
 		this.mCurrentState.render(g2d);
+		this.mProfiler.record(FrameProfiler.Phase.RENDER, start);
 		return;
 	}
 	
+	public FrameProfiler getProfiler()
+	{
+		return this.mProfiler;
+	}
+	
+	/**
+	 * Collects what has changed on the display since the last call: squares changed by the puzzle, the part dragged 
+	 * under the cursor where it was and where it is now, and the animated parts where they were and where they are now.
+	 * Loading a puzzle, resizing and changing state repaint the whole display.
+	 * @return Rectangle in display coordinates, or null if nothing needs repainting.
+	 */
+	public Rectangle takeDirtyRegion()
+	{
+		PipePuzzle puzzle = this.mPuzzle;
+		if(this.mRepaintAll || puzzle == null){
+			this.mRepaintAll = false;
+			if(puzzle != null){
+				puzzle.takeDirtyRegion();
+			}
+			Dimension size = this.mMediator.getGameBoardSize();
+			return size == null ? null : new Rectangle(0, 0, size.width, size.height);
+		}
+		Rectangle dirty = puzzle.takeDirtyRegion();
+		if(dirty != null){
+			dirty.translate(this.mBounds.x, this.mBounds.y);
+		}
+		Rectangle cursor = this.getCursorRegion(puzzle);
+		if(cursor == null ? this.mCursorRegion != null : !cursor.equals(this.mCursorRegion)){
+			dirty = union(union(dirty, this.mCursorRegion), cursor);
+			this.mCursorRegion = cursor;
+		}
+		Rectangle animation = this.getAnimationRegion();
+		if(animation != null || this.mAnimationRegion != null){
+			dirty = union(union(dirty, this.mAnimationRegion), animation);
+			this.mAnimationRegion = animation;
+		}
+		return dirty;
+	}
+	
+	/**
+	 * @return long 0 while loading, animating or dragging a part, otherwise the milliseconds until the clock in the 
+	 * status bar next changes, or Long.MAX_VALUE if nothing will change until the next input.
+	 */
+	public long getIdleMillis()
+	{
+		/* 
+		 * A load is published from the EDT without an input event, so nothing would wake the Ticker to draw it, and the 
+		 * shuffle and solution states only hand over to normal play from update().  Only normal play and a failed 
+		 * load can wait for input.
+		 */
+		if(this.mRepaintAll || (this.mCurrentState != this.mNormalPlay && this.mCurrentState != this.mFailedState)){
+			return 0L;
+		}
+		PipePuzzle puzzle = this.mPuzzle;
+		if(puzzle != null && puzzle.getSelectedPart() != null && this.mMediator.getMouseIsDragging()){
+			return 0L;
+		}
+		if(this.mCurrentState == this.mNormalPlay && this.mStart > 0L && !this.mFinished){
+			return 1000L - ((System.currentTimeMillis() - this.mStart) % 1000L);
+		}
+		return Long.MAX_VALUE;
+	}
+	
+	private Rectangle getCursorRegion(PipePuzzle puzzle)
+	{
+		PipeNode selected = puzzle.getSelectedPart();
+		if(this.mCurrentState != this.mNormalPlay || selected == null || !this.mMediator.getShowCursor() || !this.mMediator.getMouseIsDragging()){
+			return null;
+		}
+		BufferedImage image = puzzle.getPartImage(selected.getImageKey());
+		Point mouse = this.mMediator.getMousePosition();
+		return new Rectangle(mouse.x - this.mMediator.getXDiff(), mouse.y - this.mMediator.getYDiff(), image.getWidth(), image.getHeight());
+	}
+	
+	private Rectangle getAnimationRegion()
+	{
+		ArrayList<AnimatedAction> animations = this.mAnimations;
+		Rectangle region = null;
+		for(int i = animations.size() - 1; i >= 0; i--)
+		{
+			region = union(region, animations.get(i).getBounds());
+		}
+		return region;
+	}
+	
+	private static Rectangle union(Rectangle a, Rectangle b)
+	{
+		if(a == null){
+			return b == null ? null : new Rectangle(b);
+		}
+		if(b != null){
+			a.add(b);
+		}
+		return a;
+	}
+	
 	public String getTimeStatus(long millis)
 	{
 		StringBuilder caption = new StringBuilder();
@@ -79,6 +199,19 @@ public class Engine
 		return caption.toString();
 	}
 	
+	/**
+	 * @return String best time of the current puzzle, or a dash before it has one.
+	 */
+	public String getBestTimeStatus()
+	{
+		StringBuilder caption = new StringBuilder();
+		caption.append(this.mMainResource.getString("BEST_TIME_CAPTION"));
+		caption.append(" ");
+		long best = this.mPuzzleData == null ? 0L : this.mMediator.getBestTime(this.mDifficulty, this.mPuzzleData.dev_id);
+		caption.append(best <= 0L ? "-" : TimeUtil.printShortTimeDuration(best));
+		return caption.toString();
+	}
+	
 	public String getDifficultyStatus()
 	{
 		StringBuilder caption = new StringBuilder();
@@ -92,10 +225,19 @@ public class Engine
 	{
 		StringBuilder caption = new StringBuilder();
 		caption.append(this.mMainResource.getString("PUZZLE_NUMBER_CAPTION"));
-		caption.append(this.mCurrentPuzzleNumbers.get(this.mDifficulty) + 1);
+		caption.append(this.getPuzzleNumberText(this.mDifficulty));
 		return caption.toString();
 	}
 	
+	/**
+	 * @return String countable puzzle number, or a question mark for the last puzzle of a file not opened yet.
+	 */
+	private String getPuzzleNumberText(Difficulty dif)
+	{
+		int current = this.mCurrentPuzzleNumbers.get(dif);
+		return current < 0 ? "?" : String.valueOf(current + 1); // zero-based array index to countable number.
+	}
+	
 	public void renderCursor(Graphics2D g2d)
 	{
 		if(!this.mMediator.getShowCursor()){
@@ -104,13 +246,23 @@ public class Engine
 		
 		/* Draw the selected image under the cursor if there is one selected. */
 		if(this.mMediator.getMouseIsDragging() && this.mPuzzle.getSelectedPart() != null){
+			long start = this.mProfiler.start();
 			int x = this.mMediator.getMousePosition().x;
 			int y = this.mMediator.getMousePosition().y;
 			this.mPuzzle.renderMovingSelected(g2d, x - this.mMediator.getXDiff(), y - this.mMediator.getYDiff());
+			this.mProfiler.record(FrameProfiler.Phase.CURSOR, start);
 		}
 		return;
 	}
 	
+	private void renderPuzzleGrid(Graphics2D g2d)
+	{
+		long start = this.mProfiler.start();
+		this.mPuzzle.renderPuzzleGrid(g2d, this.mBounds);
+		this.mProfiler.record(FrameProfiler.Phase.GRID, start);
+		return;
+	}
+	
 	public void setDifficulty(Difficulty dif)
 	{
 		this.mDifficulty = dif;
@@ -122,32 +274,193 @@ public class Engine
 		return this.mDifficulty;
 	}
 	
+	/**
+	 * Starts loading a puzzle on the loader thread and shows the loading state until it's ready.  Parsing, resizing the 
+	 * images and shuffling all happen there, on a PipePuzzle nothing else can see yet, and the finished puzzle is 
+	 * swapped in on the EDT.  Only the latest request is published: one overtaken by another is skipped if it 
+	 * hasn't started and dropped if it has.  Called on the EDT.
+	 *
+	 * The EDT never touches the catalog, since opening a file the first time, or after it changes, indexes or parses 
+	 * all of it under the catalog's lock.  The puzzle number is wrapped against the last count seen, or not at all 
+	 * before the file has been opened, and the loader wraps it again against the real count: past the end goes to the 
+	 * first puzzle and below zero to the last.  The number and count it settles on are shown when the puzzle is 
+	 * published.
+	 */
 	public void loadNewPuzzle(Difficulty dif, int puzzleNum)
 	{
-		XMLReader reader = XMLUtil.getReaderResource(this.mDataPaths.get(dif), XMLTag.PUZZLES);
-		ArrayList<PipePuzzleData> data = new XMLReadPuzzles(reader).read();
-		puzzleNum = MathUtil.clamp(0, data.size() - 1, puzzleNum);
-		this.mPuzzle = new PipePuzzle(data.get(puzzleNum).size);
-		/* The Math.min of the display's width or height ensures that the game board will fit inside the display bounds. */
-		int sizeRef = Math.min(this.mMediator.getGameBoardSize().width, this.mMediator.getGameBoardSize().height);
-		double tileSize = sizeRef / (double)data.get(puzzleNum).size;
-		tileSize -= data.get(puzzleNum).size; /* gives it a little space from the edges of the display.  Looks better to me. */
-		this.loadBaseImages();
-		this.resetPuzzleImages(tileSize);
-		this.createStartsGoals(this.mPuzzle, data.get(puzzleNum));
-		this.mPuzzle.setSolution(data.get(puzzleNum).solution);
-		ArrayList<PipeNode> parts = this.createParts(data.get(puzzleNum));
-		this.mPuzzle.shuffleParts(parts);
-		this.setTileWidth((int)Math.round(tileSize));
+		final int generation = this.mLoadGeneration.incrementAndGet();
+		final Dimension board = this.mMediator.getGameBoardSize();
+		if(this.mCurrentState != this.mLoadingState){
+			this.mResumeState = this.mCurrentState;
+			this.mCurrentState = this.mLoadingState;
+		}
 		this.mStart = 0L;
+		this.mFinished = false;
 		this.displayDifficultyData(dif);
 		this.mMediator.displayDifficultyStatus(this.getDifficultyStatus());
 		this.mMediator.displayPuzzleNumberStatus(this.getPuzzleNumberStatus());
 		this.mMediator.displayTimeDuration(this.getTimeStatus(0L));
+		this.mRepaintAll = true;
+		
+		this.mLoader.execute(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				if(generation != mLoadGeneration.get()){
+					return;
+				}
+				LoadedPuzzle loaded = null;
+				try{
+					loaded = buildPuzzle(dif, puzzleNum, board);
+				}catch(Exception ex){
+					ex.printStackTrace();
+				}finally{
+					/* Published even if an Error ends the load, or the loading state would stay up for good. */
+					publishLater(loaded, generation);
+				}
+				return;
+			}
+		});
+		return;
+	}
+	
+	private void publishLater(final LoadedPuzzle loaded, final int generation)
+	{
+		SwingUtilities.invokeLater(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				publishPuzzle(loaded, generation);
+				return;
+			}
+		});
+		return;
+	}
+	
+	/**
+	 * Runs on the loader thread and touches nothing the EDT or the Ticker can see.
+	 */
+	private LoadedPuzzle buildPuzzle(Difficulty dif, int puzzleNum, Dimension board)
+	{
+		PuzzleSource source = this.mCatalog.getSource(dif);
+		int count = source.size();
+		if(count == 0){
+			System.err.println("No " + dif.name() + " puzzles to load.");
+			return null;
+		}
+		LoadedPuzzle loaded = new LoadedPuzzle();
+		loaded.difficulty = dif;
+		loaded.count = count;
+		loaded.index = puzzleNum >= count ? 0 : puzzleNum < 0 ? count - 1 : puzzleNum;
+		loaded.data = source.get(loaded.index);
+		loaded.board = board;
+		loaded.puzzle = new PipePuzzle(loaded.data.size);
+		loaded.tileSize = getTileSize(board, loaded.data.size);
+		this.resetPuzzleImages(loaded.puzzle, loaded.tileSize);
+		this.createStartsGoals(loaded.puzzle, loaded.data);
+		loaded.puzzle.setSolution(loaded.data.solution);
+		ArrayList<PipeNode> parts = this.createParts(loaded.puzzle, loaded.data);
+		loaded.puzzle.shuffleParts(parts);
+		return loaded;
+	}
+	
+	/**
+	 * Swaps in a puzzle from the loader thread, unless a later load has been requested since.  Called on the EDT.
+	 * @param loaded LoadedPuzzle or null if the load failed, which goes back to the puzzle that was showing, or shows 
+	 * that the load failed if there wasn't one.
+	 */
+	private void publishPuzzle(LoadedPuzzle loaded, int generation)
+	{
+		if(generation != this.mLoadGeneration.get()){
+			return;
+		}
+		if(loaded != null){
+			/* Replaced, not cleared, since the Ticker thread may be running through the old list. */
+			this.mAnimations = new ArrayList<AnimatedAction>();
+			this.mPuzzleData = loaded.data;
+			this.mPuzzle = loaded.puzzle;
+			this.mPuzzleCounts.put(loaded.difficulty, loaded.count);
+			this.mCurrentPuzzleNumbers.put(loaded.difficulty, loaded.index);
+			this.displayDifficultyData(loaded.difficulty);
+			this.mMediator.displayPuzzleNumberStatus(this.getPuzzleNumberStatus());
+			this.setTileWidth((int)Math.round(loaded.tileSize));
+			if(!loaded.board.equals(this.mMediator.getGameBoardSize())){
+				/* The display was resized while loading. */
+				this.resizePuzzle();
+			}
+			this.mMediator.displayBestTime(this.getBestTimeStatus());
+		}
+		this.mRepaintAll = true;
+		/* Last, so the Ticker thread keeps drawing the loading state until everything above is in place. */
+		if(loaded != null){
+			/* A new puzzle always starts from the shuffle, whatever the old one was doing. */
+			this.mCurrentState = this.mShuffleState;
+		}else if(this.mPuzzle == null){
+			/* Nothing to go back to, but another puzzle can still be chosen. */
+			this.mCurrentState = this.mFailedState;
+		}else{
+			this.mCurrentState = this.mResumeState;
+		}
+		return;
+	}
+	
+	public boolean isLoading()
+	{
+		return this.mCurrentState == this.mLoadingState;
+	}
+	
+	/**
+	 * @return boolean true only in normal play, not while loading, animating, or after a failed load with no puzzle 
+	 * to go back to.
+	 */
+	private boolean acceptsInput()
+	{
+		return this.mCurrentState == this.mNormalPlay;
+	}
+	
+	/**
+	 * Advances every animation and drops the finished ones.  Called from the states' update() on the Ticker thread.
+	 * @return boolean true once none are left.
+	 */
+	private boolean updateAnimations()
+	{
+		ArrayList<AnimatedAction> animations = this.mAnimations;
+		long start = this.mProfiler.start();
+		for(int i = animations.size() - 1; i >= 0; i--)
+		{
+			if(animations.get(i).readyForDisposal()){
+				animations.remove(i);
+				continue;
+			}
+			animations.get(i).update();
+		}
+		this.mProfiler.record(FrameProfiler.Phase.ANIMATION, start);
+		return animations.isEmpty();
+	}
+	
+	private void renderAnimations(Graphics2D g2d)
+	{
+		ArrayList<AnimatedAction> animations = this.mAnimations;
+		for(int i = animations.size() - 1; i >= 0; i--)
+		{
+			animations.get(i).render(g2d);
+		}
 		return;
 	}
 	
 	public void resizeUIPerformed()
+	{
+		if(this.isLoading()){
+			/* The load in progress checks the size when it's published. */
+			return;
+		}
+		this.resizePuzzle();
+		return;
+	}
+	
+	private void resizePuzzle()
 	{
 		if(this.mMediator.getGameBoardSize() == null){
 			return;
@@ -156,29 +469,40 @@ public class Engine
 			return;
 		}
 		
-		/* The Math.min of the display's width or height ensures that the game board will fit inside the display bounds. */
-		int sizeRef = Math.min(this.mMediator.getGameBoardSize().width, this.mMediator.getGameBoardSize().height);
-		double tileSize = sizeRef / (double)this.mPuzzle.getSize();
-		tileSize -= this.mPuzzle.getSize(); /* gives it a little space from the edges of the display.  Looks better to me. */
-		this.resetPuzzleImages(tileSize);
+		double tileSize = getTileSize(this.mMediator.getGameBoardSize(), this.mPuzzle.getSize());
+		this.resetPuzzleImages(this.mPuzzle, tileSize);
 		this.setTileWidth((int)Math.round(tileSize));
+		this.mRepaintAll = true;
 		return;
 	}
 	
-	private ArrayList<PipeNode> createParts(PipePuzzleData data)
+	private static double getTileSize(Dimension board, int size)
+	{
+		/* The Math.min of the display's width or height ensures that the game board will fit inside the display bounds. */
+		int sizeRef = Math.min(board.width, board.height);
+		double tileSize = sizeRef / (double)size;
+		tileSize -= size; /* gives it a little space from the edges of the display.  Looks better to me. */
+		return tileSize;
+	}
+	
+	private ArrayList<PipeNode> createParts(PipePuzzle puzzle, PipePuzzleData data)
 	{
+		if(data.solution.size() != data.elbows + data.pipes + data.tJunctions + data.crosses){
+			/* No hand-authored solution to build from; the solver fills in the SolutionData when it's needed. */
+			return this.createInventoryParts(puzzle, data);
+		}
 		ArrayList<PipeNode> parts = new ArrayList<PipeNode>();
 		try{
 			for(SolutionData s : data.solution)
 			{
 				if(s.type.equals(PipePuzzle.ImageKey.ELBOW)){
-					parts.add(this.createElbowPart(this.mPuzzle, s));
+					parts.add(this.createElbowPart(puzzle, s));
 				}else if(s.type.equals(PipePuzzle.ImageKey.PIPE)){
-					parts.add(this.createPipePart(this.mPuzzle, s));
+					parts.add(this.createPipePart(puzzle, s));
 				}else if(s.type.equals(PipePuzzle.ImageKey.T_JUNCTION)){
-					parts.add(this.createTJunctionPart(this.mPuzzle, s));
+					parts.add(this.createTJunctionPart(puzzle, s));
 				}else if(s.type.equals(PipePuzzle.ImageKey.CROSS)){
-					parts.add(this.createCrossPart(this.mPuzzle, s));
+					parts.add(this.createCrossPart(puzzle, s));
 				}
 			}
 		}catch(Exception ex){
@@ -187,51 +511,37 @@ public class Engine
 		return parts;
 	}
 	
-	private void loadBaseImages()
+	private ArrayList<PipeNode> createInventoryParts(PipePuzzle puzzle, PipePuzzleData data)
 	{
-		try{
-			this.mOriginals.clear();
-			BufferedImage image = ImageLoader.getImageFromResourcePath(Engine.class.getResource(this.mMediator.readImagePath(PipePuzzle.ImageKey.CROSS.getTag())));
-			this.mOriginals.put(PipePuzzle.ImageKey.CROSS, image);
-			image = ImageLoader.getImageFromResourcePath(Engine.class.getResource(this.mMediator.readImagePath(PipePuzzle.ImageKey.ELBOW.getTag())));
-			this.mOriginals.put(PipePuzzle.ImageKey.ELBOW, image);
-			image = ImageLoader.getImageFromResourcePath(Engine.class.getResource(this.mMediator.readImagePath(PipePuzzle.ImageKey.PIPE.getTag())));
-			this.mOriginals.put(PipePuzzle.ImageKey.PIPE, image);
-			image = ImageLoader.getImageFromResourcePath(Engine.class.getResource(this.mMediator.readImagePath(PipePuzzle.ImageKey.T_JUNCTION.getTag())));
-			this.mOriginals.put(PipePuzzle.ImageKey.T_JUNCTION, image);
-			image = ImageLoader.getImageFromResourcePath(Engine.class.getResource(this.mMediator.readImagePath(PipePuzzle.ImageKey.GREEN_GAUGE.getTag())));
-			this.mOriginals.put(PipePuzzle.ImageKey.GREEN_GAUGE, image);
-			image = ImageLoader.getImageFromResourcePath(Engine.class.getResource(this.mMediator.readImagePath(PipePuzzle.ImageKey.RED_GAUGE.getTag())));
-			this.mOriginals.put(PipePuzzle.ImageKey.RED_GAUGE, image);
-			image = ImageLoader.getImageFromResourcePath(Engine.class.getResource(this.mMediator.readImagePath(PipePuzzle.ImageKey.TILE.getTag())));
-			this.mOriginals.put(PipePuzzle.ImageKey.TILE, image);
-		}catch(Exception ex){
-			ex.printStackTrace();
-			System.exit(1);
+		ArrayList<PipeNode> parts = new ArrayList<PipeNode>();
+		for(int i = 0; i < data.elbows; i++)
+		{
+			parts.add(this.createElbowPart(puzzle, null));
 		}
-		return;
+		for(int i = 0; i < data.pipes; i++)
+		{
+			parts.add(this.createPipePart(puzzle, null));
+		}
+		for(int i = 0; i < data.tJunctions; i++)
+		{
+			parts.add(this.createTJunctionPart(puzzle, null));
+		}
+		for(int i = 0; i < data.crosses; i++)
+		{
+			parts.add(this.createCrossPart(puzzle, null));
+		}
+		return parts;
 	}
 	
-	private void resetPuzzleImages(double tileSize)
+	private void resetPuzzleImages(PipePuzzle puzzle, double tileSize)
 	{
 		try{
-			this.mPuzzle.clearPuzzleImages();
-			BufferedImage image = ImageUtils.resizeImage(this.mOriginals.get(PipePuzzle.ImageKey.CROSS), tileSize, tileSize);
-			this.mPuzzle.addPartImage(PipePuzzle.ImageKey.CROSS, image);
-			image = ImageUtils.resizeImage(this.mOriginals.get(PipePuzzle.ImageKey.ELBOW), tileSize, tileSize);
-			this.mPuzzle.addPartImage(PipePuzzle.ImageKey.ELBOW, image);
-			image = ImageUtils.resizeImage(this.mOriginals.get(PipePuzzle.ImageKey.PIPE), tileSize, tileSize);
-			this.mPuzzle.addPartImage(PipePuzzle.ImageKey.PIPE, image);
-			image = ImageUtils.resizeImage(this.mOriginals.get(PipePuzzle.ImageKey.T_JUNCTION), tileSize, tileSize);
-			this.mPuzzle.addPartImage(PipePuzzle.ImageKey.T_JUNCTION, image);
-			image = ImageUtils.resizeImage(this.mOriginals.get(PipePuzzle.ImageKey.GREEN_GAUGE), tileSize, tileSize);
-			this.mPuzzle.addPartImage(PipePuzzle.ImageKey.GREEN_GAUGE, image);
-			image = ImageUtils.resizeImage(this.mOriginals.get(PipePuzzle.ImageKey.RED_GAUGE), tileSize, tileSize);
-			this.mPuzzle.addPartImage(PipePuzzle.ImageKey.RED_GAUGE, image);
-			image = ImageUtils.resizeImage(this.mOriginals.get(PipePuzzle.ImageKey.TILE), tileSize, tileSize);
-			this.mPuzzle.addPartImage(PipePuzzle.ImageKey.TILE, image);
+			/* Swapped in whole: in active mode the Ticker thread may be drawing this puzzle while the EDT resizes it. */
+			puzzle.setPuzzleImages(this.mAssets.resizePuzzleImages(tileSize));
 		}catch(Exception ex){
+			/* The images are decoded once, at startup; without them there's nothing to play. */
 			ex.printStackTrace();
+			System.exit(1);
 		}
 		return;
 	}
@@ -285,6 +595,9 @@ public class Engine
 	
 	public void partSelectionRequested(Point screenPoint)
 	{
+		if(!this.acceptsInput()){
+			return;
+		}
 		if(screenPoint == null){
 			return;
 		}
@@ -304,6 +617,9 @@ public class Engine
 	
 	public void partRotateRequested(Point p)
 	{
+		if(!this.acceptsInput()){
+			return;
+		}
 		if(p == null){
 			return;
 		}
@@ -319,11 +635,15 @@ public class Engine
 			return;
 		}
 		this.mPuzzle.rotateSelectedPart();
+		this.checkFinished();
 		return;
 	}
 	
 	public void partMoveRequested(Point p)
 	{
+		if(!this.acceptsInput()){
+			return;
+		}
 		if(p == null){
 			return;
 		}
@@ -336,11 +656,32 @@ public class Engine
 			return;
 		}
 		this.mPuzzle.movePart(x, y);
+		this.checkFinished();
+		return;
+	}
+	
+	/**
+	 * Stops the clock and reports the time the first time the player lights every goal.  Solutions played back by
+	 * the solve command never pass through here, so they aren't timed.
+	 */
+	private void checkFinished()
+	{
+		if(this.mFinished || this.mStart <= 0L || !this.mPuzzle.isFinished()){
+			return;
+		}
+		this.mFinished = true;
+		long elapsed = System.currentTimeMillis() - this.mStart;
+		this.mMediator.displayTimeDuration(this.getTimeStatus(elapsed));
+		this.mMediator.puzzleFinished(this.mDifficulty, this.mPuzzleData.dev_id, elapsed);
+		this.mMediator.displayBestTime(this.getBestTimeStatus());
 		return;
 	}
 	
 	public void partUnselectionRequested()
 	{
+		if(!this.acceptsInput()){
+			return;
+		}
 		this.mPuzzle.unselectPart();
 		return;
 	}
@@ -366,39 +707,46 @@ public class Engine
 		return new Rectangle(this.mBounds);
 	}
 	
+	/**
+	 * Shows the puzzle number and the count last seen for the difficulty, or a question mark before its file has been 
+	 * opened.  Doesn't touch the catalog.
+	 */
 	public void displayDifficultyData(Difficulty dif)
 	{
-		XMLReader reader = XMLUtil.getReaderResource(this.mDataPaths.get(dif), XMLTag.PUZZLES);
-		ArrayList<PipePuzzleData> data = new XMLReadPuzzles(reader).read();
+		Integer count = this.mPuzzleCounts.get(dif);
 		StringBuilder text = new StringBuilder();
 		text.append("#");
-		text.append(String.valueOf(this.mCurrentPuzzleNumbers.get(dif) + 1)); // zero-based array index to countable number.
+		text.append(this.getPuzzleNumberText(dif));
 		text.append(" of ");
-		text.append(String.valueOf(data.size()));
+		text.append(count == null ? "?" : String.valueOf(count));
 		this.mMediator.displayDifficultyData(text.toString());
 		return;
 	}
 	
-	private ArrayList<PipePuzzleData> seekPuzzle()
+	/**
+	 * Wraps a puzzle number against the last count seen for the current difficulty.  Before the file has been opened 
+	 * the number goes to the loader as it is, and the loader wraps it.
+	 */
+	private int wrapPuzzleNumber(int current)
 	{
-		XMLReader reader = XMLUtil.getReaderResource(this.mDataPaths.get(this.mDifficulty), XMLTag.PUZZLES);
-		return new XMLReadPuzzles(reader).read();
+		Integer count = this.mPuzzleCounts.get(this.mDifficulty);
+		if(count == null || count == 0){
+			return current;
+		}
+		return current >= count ? 0 : current < 0 ? count - 1 : current;
 	}
 	
 	private void seekCurrentPuzzle()
 	{
-		ArrayList<PipePuzzleData> data = this.seekPuzzle();
-		int current = this.mCurrentPuzzleNumbers.get(this.mDifficulty);
-		current = current >= data.size() ? 0 : current < 0 ? data.size() - 1 : current;
+		int current = this.wrapPuzzleNumber(this.mCurrentPuzzleNumbers.get(this.mDifficulty));
+		this.mCurrentPuzzleNumbers.put(this.mDifficulty, current);
 		this.loadNewPuzzle(this.mDifficulty, this.mCurrentPuzzleNumbers.get(this.mDifficulty));
 		return;
 	}
 	
 	private void seekNextPuzzle()
 	{
-		ArrayList<PipePuzzleData> data = this.seekPuzzle();
-		int current = this.mCurrentPuzzleNumbers.get(this.mDifficulty) + 1;
-		current = current >= data.size() ? 0 : current < 0 ? data.size() - 1 : current;
+		int current = this.wrapPuzzleNumber(this.mCurrentPuzzleNumbers.get(this.mDifficulty) + 1);
 		this.mCurrentPuzzleNumbers.put(this.mDifficulty, current);
 		this.loadNewPuzzle(this.mDifficulty, this.mCurrentPuzzleNumbers.get(this.mDifficulty));
 		return;
@@ -406,9 +754,7 @@ public class Engine
 	
 	private void seekPreviousPuzzle()
 	{
-		ArrayList<PipePuzzleData> data = this.seekPuzzle();
-		int current = this.mCurrentPuzzleNumbers.get(this.mDifficulty) - 1;
-		current = current >= data.size() ? 0 : current < 0 ? data.size() - 1 : current;
+		int current = this.wrapPuzzleNumber(this.mCurrentPuzzleNumbers.get(this.mDifficulty) - 1);
 		this.mCurrentPuzzleNumbers.put(this.mDifficulty, current);
 		this.loadNewPuzzle(this.mDifficulty, this.mCurrentPuzzleNumbers.get(this.mDifficulty));
 		return;
@@ -423,8 +769,8 @@ public class Engine
 	
 	private void seekLastPuzzle()
 	{
-		ArrayList<PipePuzzleData> data = this.seekPuzzle();
-		this.mCurrentPuzzleNumbers.put(this.mDifficulty, data.size() - 1);
+		/* -1 is wrapped to the last puzzle, by the loader if the count isn't known yet. */
+		this.mCurrentPuzzleNumbers.put(this.mDifficulty, this.wrapPuzzleNumber(-1));
 		this.loadNewPuzzle(this.mDifficulty, this.mCurrentPuzzleNumbers.get(this.mDifficulty));
 		return;
 	}
@@ -453,58 +799,181 @@ public class Engine
 		return new Point(x, y); 
 	}
 	
+	/**
+	 * Plays the solution.  A hand-authored one that checks out plays at once; otherwise the PipeSolver runs on a 
+	 * solver thread of its own, so puzzle loads never wait behind it, within the node limit batches are verified with, 
+	 * and plays what it finds unless another puzzle has been requested since.  Called on the EDT.
+	 */
 	private void runSolution()
 	{
+		if(!this.acceptsInput() || this.mSolving){
+			return;
+		}
+		if(PipeSolver.isSolution(this.mPuzzleData, this.mPuzzle.getSolution())){
+			this.playSolution();
+			return;
+		}
+		final int generation = this.mLoadGeneration.get();
+		final PipePuzzleData data = this.mPuzzleData;
+		this.mSolving = true;
+		this.mSolver.execute(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				ArrayList<SolutionData> solution = null;
+				try{
+					PipeSolver solver = new PipeSolver(data);
+					solver.setNodeLimit(SOLVE_NODE_LIMIT);
+					solution = solver.solve();
+				}catch(Exception ex){
+					ex.printStackTrace();
+				}finally{
+					publishSolutionLater(solution, generation);
+				}
+				return;
+			}
+		});
+		return;
+	}
+	
+	private void publishSolutionLater(final ArrayList<SolutionData> solution, final int generation)
+	{
+		SwingUtilities.invokeLater(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				publishSolution(solution, generation);
+				return;
+			}
+		});
+		return;
+	}
+	
+	/**
+	 * Hands the solver's solution out to the parts by type and plays it, or says so in place of the best time if there 
+	 * isn't one; the next load puts the best time back.  Called on the EDT.
+	 * @param solution ArrayList of SolutionData, or null if none was found within the node limit.
+	 * @param generation int load generation the solve was started in.
+	 */
+	private void publishSolution(ArrayList<SolutionData> solution, int generation)
+	{
+		this.mSolving = false;
+		if(generation != this.mLoadGeneration.get() || !this.acceptsInput()){
+			return;
+		}
+		if(solution == null){
+			this.mMediator.displayBestTime(this.mMainResource.getString("NO_SOLUTION_CAPTION"));
+			return;
+		}
+		ArrayList<SolutionData> unassigned = new ArrayList<SolutionData>(solution);
+		Iterator<PipeNode> iterator = this.mPuzzle.getIterator();
+		while(iterator.hasNext())
+		{
+			PipeNode node = iterator.next();
+			for(int i = 0; i < unassigned.size(); i++)
+			{
+				if(unassigned.get(i).type.equals(node.getImageKey())){
+					node.setSolutionData(unassigned.remove(i));
+					break;
+				}
+			}
+		}
+		this.mPuzzle.setSolution(solution);
+		this.playSolution();
+		return;
+	}
+	
+	private void playSolution()
+	{
+		/* Stops the clock; a solution played back isn't the player's time. */
+		this.mFinished = true;
+		/* The animations are in place before the state changes, or its first update would find none and hand back. */
+		this.mSolutionState.reset();
 		this.mCurrentState = this.mSolutionState;
-		this.mCurrentState.reset();
+		this.mRepaintAll = true;
 		return;
 	}
 	
+	/**
+	 * Shown while a puzzle loads in the background, and after a load fails with no puzzle to go back to.  Draws no 
+	 * part of any puzzle, so the old board can't be played and the new one can't be seen half built.
+	 */
+	private class MessageState implements GameState
+	{
+		private String mCaptionKey = null;
+		
+		public MessageState(String captionKey)
+		{
+			this.mCaptionKey = captionKey;
+			return;
+		}
+		
+		@Override
+		public void reset()
+		{
+			return;
+		}
+		
+		@Override
+		public void update()
+		{
+			return;
+		}
+		
+		@Override
+		public void render(Graphics2D g2d)
+		{
+			Dimension size = mMediator.getGameBoardSize();
+			if(size == null){
+				return;
+			}
+			g2d.setPaint(new Color(0, 0, 0, 255));
+			g2d.fillRect(0, 0, size.width, size.height);
+			String caption = mMainResource.getString(this.mCaptionKey);
+			FontMetrics metrics = g2d.getFontMetrics();
+			g2d.setPaint(Color.LIGHT_GRAY);
+			g2d.drawString(caption, (size.width - metrics.stringWidth(caption)) / 2, (size.height + metrics.getAscent()) / 2);
+			return;
+		}
+	}
+	
 	private class ShuffleAnimationState implements GameState
 	{
 		@Override
 		public void reset()
 		{
+			ArrayList<AnimatedAction> animations = new ArrayList<AnimatedAction>();
 			Iterator<PipeNode> iterator = mPuzzle.getIterator();
 			while(iterator.hasNext())
 			{
 				PipeNode node = iterator.next();
-				AnimatedAction action = new AnimatedAction(createAnimatedActionMediator(node), node.getImageKey());
+				AnimatedAction action = new AnimatedAction(createAnimatedActionMediator(mPuzzle, node), node.getImageKey());
 				Point start = getRandomEdgeCoordinate();
 				action.setX(start.x);
 				action.setY(start.y);
 				Point dest = mPuzzle.gridToScreen(mBounds, node.getGridX(), node.getGridY());
 				action.setBehavior(new MovementBehavior(createMovementBehavior(action), 1.0, 5.0, dest.x, dest.y, Math.PI * node.getRotation()));
-				mAnimations.add(action);
+				animations.add(action);
 			}
+			mAnimations = animations;
 			return;
 		}
 		
 		@Override
 		public void update()
 		{
-			for(int i = mAnimations.size() - 1; i >= 0; i--)
-			{
-				if(mAnimations.get(i).readyForDisposal()){
-					
-					mAnimations.remove(i);
-					if(mAnimations.isEmpty()){
-						mPuzzle.connectAllParts();
-					}
-					continue;
-				}
-				mAnimations.get(i).update();
-			}
-			
-			if(mAnimations.isEmpty()){
+			if(updateAnimations()){
 				/* 
 				 * What if this shuffling randomly places a part, or two, in their correctly connected position to begin with?
-				 * The connectPart() method must be called on all parts after shuffling, or else the PipeNodePath.find() method 
-				 * will later miss the parts that started off connected after shuffling. 
+				 * The connectAllParts() method must be called after shuffling so every part occupies the grid, or else the 
+				 * PipeNodePath.find() method will later miss the parts that started off connected after shuffling. 
 				 */
 				mPuzzle.connectAllParts();
+				mCurrentState = mNormalPlay;
+				mRepaintAll = true;
 			}
-			
 			return;
 		}
 		
@@ -516,11 +985,8 @@ public class Engine
 			}
 			g2d.setPaint(new Color(0, 0, 0, 255));
 			g2d.fillRect(0, 0, mMediator.getGameBoardSize().width, mMediator.getGameBoardSize().height);
-			mPuzzle.renderPuzzleGrid(g2d, mBounds);
-			for(int i = mAnimations.size() - 1; i >= 0; i--)
-			{
-				mAnimations.get(i).render(g2d);
-			}
+			renderPuzzleGrid(g2d);
+			renderAnimations(g2d);
 			return;
 		}
 	}
@@ -536,7 +1002,7 @@ public class Engine
 		@Override
 		public void update()
 		{
-			if(mStart > 0L){
+			if(mStart > 0L && !mFinished){
 				mMediator.displayTimeDuration(getTimeStatus(System.currentTimeMillis() - mStart));
 			}
 			return;
@@ -550,9 +1016,11 @@ public class Engine
 			}
 			g2d.setPaint(new Color(0, 0, 0, 255));
 			g2d.fillRect(0, 0, mMediator.getGameBoardSize().width, mMediator.getGameBoardSize().height);
-			mPuzzle.renderPuzzleGrid(g2d, mBounds);
+			renderPuzzleGrid(g2d);
 			boolean except = (mPuzzle.getSelectedPart() != null) && mMediator.getMouseIsDragging();
+			long start = mProfiler.start();
 			mPuzzle.renderParts(g2d, mBounds, except);
+			mProfiler.record(FrameProfiler.Phase.PARTS, start);
 			renderCursor(g2d);
 			return;
 		}
@@ -560,29 +1028,42 @@ public class Engine
 	
 	private class SolutionAnimationState implements GameState
 	{
+		/**
+		 * Lifts every part off the board and sends each to its place in the solution.  With the board empty, no part
+		 * is drawn twice and no part lands on one that hasn't moved yet.
+		 */
 		@Override
 		public void reset()
 		{
-			mPuzzle.disconnectAllParts();
+			ArrayList<AnimatedAction> animations = new ArrayList<AnimatedAction>();
+			mPuzzle.unselectPart();
+			mPuzzle.clearGrid();
 			Iterator<PipeNode> iterator = mPuzzle.getIterator();
 			while(iterator.hasNext())
 			{
 				PipeNode node = iterator.next();
-				AnimatedAction action = new AnimatedAction(createAnimatedActionMediator(node), node.getImageKey());
+				AnimatedAction action = new AnimatedAction(createAnimatedActionMediator(mPuzzle, node), node.getImageKey());
 				Point start = mPuzzle.gridToScreen(mBounds, node.getGridX(), node.getGridY());
 				action.setX(start.x);
 				action.setY(start.y);
 				Point dest = mPuzzle.gridToScreen(mBounds, node.getSolutionData().x, node.getSolutionData().y);
 				action.setBehavior(new MovementBehavior(createMovementBehavior(action), 1.0, 5.0, dest.x, dest.y, Math.PI * node.getSolutionData().angle));
 				
-				mAnimations.add(action);
+				animations.add(action);
 			}
+			mAnimations = animations;
 			return;
 		}
 		
 		@Override
 		public void update()
 		{
+			if(updateAnimations()){
+				/* Every part is in place; the unchecked moves left the goal lights for this. */
+				mPuzzle.checkFinished();
+				mCurrentState = mNormalPlay;
+				mRepaintAll = true;
+			}
 			return;
 		}
 		
@@ -594,13 +1075,21 @@ public class Engine
 			}
 			g2d.setPaint(new Color(0, 0, 0, 255));
 			g2d.fillRect(0, 0, mMediator.getGameBoardSize().width, mMediator.getGameBoardSize().height);
-			mPuzzle.renderPuzzleGrid(g2d, mBounds);
-			
+			renderPuzzleGrid(g2d);
+			/* The parts that have arrived, then those still on their way. */
+			long start = mProfiler.start();
+			mPuzzle.renderParts(g2d, mBounds, false);
+			mProfiler.record(FrameProfiler.Phase.PARTS, start);
+			renderAnimations(g2d);
 			return;
 		}
 	}
 	
-	private AnimatedAction.Mediator createAnimatedActionMediator(PipeNode node)
+	/**
+	 * @param puzzle PipePuzzle the part belongs to, rather than whichever is current when the action completes, so an 
+	 * action that outlives its puzzle can't move parts on the next one.
+	 */
+	private AnimatedAction.Mediator createAnimatedActionMediator(final PipePuzzle puzzle, final PipeNode node)
 	{
 		return new AnimatedAction.Mediator()
 		{
@@ -608,21 +1097,27 @@ public class Engine
 			public void movePart()
 			{
 				//mPuzzle.selectPart(node.getGridX(), node.getGridY());
-				mPuzzle.selectPart(node);
-				mPuzzle.rotateSelectedPart(node.getSolutionData().angle);
-				mPuzzle.unselectPart();
+				puzzle.selectPart(node);
+				puzzle.rotateSelectedPart(node.getSolutionData().angle);
+				puzzle.unselectPart();
 				//mPuzzle.selectPart(node.getGridX(), node.getGridY());
-				mPuzzle.selectPart(node);
+				puzzle.selectPart(node);
 				//mPuzzle.movePart(node.getSolutionData().x, node.getSolutionData().y);
-				mPuzzle.movePartUnchecked(node.getSolutionData().x, node.getSolutionData().y);
-				mPuzzle.unselectPart();
+				puzzle.movePartUnchecked(node.getSolutionData().x, node.getSolutionData().y);
+				puzzle.unselectPart();
 				return;
 			}
 			
 			@Override
 			public BufferedImage getImage(Object key)
 			{
-				return mPuzzle.getPartImage(key);
+				return puzzle.getPartImage(key);
+			}
+			
+			@Override
+			public BufferedImage getImage(Object key, int quarterTurns)
+			{
+				return puzzle.getPartImage(key, quarterTurns);
 			}
 		};
 	}
@@ -792,11 +1287,39 @@ public class Engine
 		};
 	}
 	
+	private static ThreadFactory createWorkerThreadFactory(final String name)
+	{
+		return new ThreadFactory()
+		{
+			@Override
+			public Thread newThread(Runnable r)
+			{
+				Thread thread = new Thread(r, name);
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+	}
+	
+	/**
+	 * Everything a load produces, handed from the loader thread to the EDT in one piece.
+	 */
+	private static class LoadedPuzzle
+	{
+		public Difficulty difficulty = null;
+		public int index = 0;
+		public int count = 0;
+		public PipePuzzleData data = null;
+		public PipePuzzle puzzle = null;
+		public Dimension board = null;
+		public double tileSize = 0.0;
+	}
+	
 	public interface Mediator
 	{
 		abstract ResourceBundle getAppResource();
 		abstract ResourceBundle getMainResource();
-		abstract String readImagePath(String xmlTag);
+		abstract Config getConfig();
 		abstract Dimension getGameBoardSize();
 		abstract boolean getShowCursor();
 		abstract Point getMousePosition();
@@ -807,6 +1330,9 @@ public class Engine
 		abstract void displayDifficultyStatus(String caption);
 		abstract void displayTimeDuration(String caption);
 		abstract void displayPuzzleNumberStatus(String caption);
+		abstract void displayBestTime(String caption);
+		abstract long getBestTime(Difficulty dif, int devID);
+		abstract void puzzleFinished(Difficulty dif, int devID, long millis);
 		abstract void beginAppShutdown();
 	}
 }
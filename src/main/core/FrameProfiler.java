@@ -0,0 +1,187 @@
+package main.core;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import main.core.util.LatencyHistogram;
+import main.core.util.Ticker;
+
+/**
+ * Times each phase of a frame into a LatencyHistogram of its own and publishes them over JMX, so where the time goes
+ * on a machine that stutters can be read in jconsole without attaching a profiler.
+ *
+ * A phase is timed by taking start() before it and passing that to record() after it, which costs two calls to
+ * System.nanoTime() and allocates nothing.  Phases nest: RENDER holds GRID, PARTS and CURSOR, and UPDATE holds
+ * ANIMATION.
+ *
+ * A frame is slow when its render took longer than one period of the Ticker.  Updates the Ticker dropped after falling
+ * too far behind are read from the Ticker.
+ *
+ * MBeans, after register():
+ *   main.core:type=FrameProfiler                      frames, slow frames, dropped updates and reset()
+ *   main.core:type=FrameProfiler,phase=<phase name>   count, p50, p99 and max in milliseconds, and reset()
+ *
+ * @version 1.0 2026-10-17
+ */
+public class FrameProfiler implements FrameProfilerMBean
+{
+	private static final String DOMAIN = "main.core";
+	private static final long DEFAULT_BUDGET = 1000000000L / 60L; // Nanoseconds.
+	
+	public enum Phase
+	{
+		UPDATE("Update"),
+		ANIMATION("Animation"),
+		RENDER("Render"),
+		GRID("Grid"),
+		PARTS("Parts"),
+		CURSOR("Cursor");
+		
+		private String mName = "";
+		
+		private Phase(String name)
+		{
+			this.mName = name;
+			return;
+		}
+		
+		public String getName()
+		{
+			return this.mName;
+		}
+	}
+	
+	private LatencyHistogram[] mHistograms = new LatencyHistogram[Phase.values().length];
+	private AtomicLong mSlowFrames = new AtomicLong();
+	private volatile long mBudget = DEFAULT_BUDGET;
+	private volatile Ticker mTicker = null;
+	private volatile long mDroppedBase = 0L;
+	
+	public FrameProfiler()
+	{
+		for(int i = 0; i < this.mHistograms.length; i++)
+		{
+			this.mHistograms[i] = new LatencyHistogram();
+		}
+		return;
+	}
+	
+	public long start()
+	{
+		return System.nanoTime();
+	}
+	
+	/**
+	 * @param phase Phase that just ended.
+	 * @param start long the value start() returned before it began.
+	 */
+	public void record(Phase phase, long start)
+	{
+		long elapsed = System.nanoTime() - start;
+		this.mHistograms[phase.ordinal()].record(elapsed);
+		if(phase == Phase.RENDER && elapsed > this.mBudget){
+			this.mSlowFrames.incrementAndGet();
+		}
+		return;
+	}
+	
+	public LatencyHistogram getHistogram(Phase phase)
+	{
+		return this.mHistograms[phase.ordinal()];
+	}
+	
+	/**
+	 * Reads dropped updates from the ticker and takes its update period as the frame budget.
+	 */
+	public void attach(Ticker ticker, double updateHertz)
+	{
+		this.mTicker = ticker;
+		this.mBudget = Math.round(1.0E9 / updateHertz);
+		this.mDroppedBase = ticker.getSkippedUpdates();
+		return;
+	}
+	
+	/**
+	 * Registers this and a histogram per phase with the platform MBean server.  Failing to is reported and otherwise
+	 * ignored; the game doesn't need it.
+	 */
+	public void register()
+	{
+		try{
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(DOMAIN + ":type=FrameProfiler");
+			if(!server.isRegistered(name)){
+				server.registerMBean(this, name);
+			}
+			for(Phase phase : Phase.values())
+			{
+				name = new ObjectName(DOMAIN + ":type=FrameProfiler,phase=" + phase.getName());
+				if(!server.isRegistered(name)){
+					server.registerMBean(this.getHistogram(phase), name);
+				}
+			}
+		}catch(Exception ex){
+			ex.printStackTrace();
+		}
+		return;
+	}
+	
+	@Override
+	public long getFrames()
+	{
+		return this.getHistogram(Phase.RENDER).getCount();
+	}
+	
+	@Override
+	public long getSlowFrames()
+	{
+		return this.mSlowFrames.get();
+	}
+	
+	@Override
+	public long getDroppedUpdates()
+	{
+		Ticker ticker = this.mTicker;
+		return ticker == null ? 0L : ticker.getSkippedUpdates() - this.mDroppedBase;
+	}
+	
+	@Override
+	public double getFrameBudgetMillis()
+	{
+		return this.mBudget / 1.0E6;
+	}
+	
+	/**
+	 * Clears every phase and both frame counts.
+	 */
+	@Override
+	public void reset()
+	{
+		for(LatencyHistogram histogram : this.mHistograms)
+		{
+			histogram.reset();
+		}
+		this.mSlowFrames.set(0L);
+		Ticker ticker = this.mTicker;
+		if(ticker != null){
+			this.mDroppedBase = ticker.getSkippedUpdates();
+		}
+		return;
+	}
+	
+	public String report()
+	{
+		StringBuilder report = new StringBuilder();
+		for(Phase phase : Phase.values())
+		{
+			LatencyHistogram histogram = this.getHistogram(phase);
+			report.append(String.format("%-10s %8d  p50 %8.3f ms  p99 %8.3f ms  max %8.3f ms%n", phase.getName(), histogram.getCount(),
+					histogram.getP50Millis(), histogram.getP99Millis(), histogram.getMaxMillis()));
+		}
+		report.append(String.format("%d frames, %d slow, %d updates dropped", this.getFrames(), this.getSlowFrames(), this.getDroppedUpdates()));
+		return report.toString();
+	}
+}
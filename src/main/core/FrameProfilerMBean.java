@@ -0,0 +1,15 @@
+package main.core;
+
+/**
+ * Management interface of the FrameProfiler.  The times of each phase are separate MBeans under the same type.
+ *
+ * @version 1.0 2026-10-17
+ */
+public interface FrameProfilerMBean
+{
+	abstract long getFrames();
+	abstract long getSlowFrames();
+	abstract long getDroppedUpdates();
+	abstract double getFrameBudgetMillis();
+	abstract void reset();
+}
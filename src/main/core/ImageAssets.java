@@ -0,0 +1,117 @@
+package main.core;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import main.core.util.ImageLoader;
+import main.core.util.ImageUtils;
+
+/**
+ * Every image named under the images element of config.xml, each decoded once and kept for the life of the process.
+ *
+ * Decoding starts on a small pool of threads as soon as the assets are created, one image per task, so it overlaps
+ * with building the GUI.  Anything that asks for an original before it's ready waits for just that one.  Sizing the
+ * set for a puzzle resizes the originals in parallel on the same pool, so switching puzzles decodes nothing.
+ *
+ * @version 1.0 2026-10-17
+ */
+public class ImageAssets
+{
+	private static final int MAX_THREADS = 4;
+	
+	private ExecutorService mPool = null;
+	private Map<String, Future<BufferedImage>> mOriginals = null;
+	
+	/**
+	 * @param paths Map of resource paths by the tag that names them under the images element.
+	 */
+	public ImageAssets(Map<String, String> paths)
+	{
+		int threads = Math.max(1, Math.min(MAX_THREADS, Math.min(paths.size(), Runtime.getRuntime().availableProcessors())));
+		this.mPool = Executors.newFixedThreadPool(threads, createThreadFactory());
+		HashMap<String, Future<BufferedImage>> originals = new HashMap<String, Future<BufferedImage>>();
+		for(Map.Entry<String, String> entry : paths.entrySet())
+		{
+			final String path = entry.getValue();
+			originals.put(entry.getKey(), this.mPool.submit(new Callable<BufferedImage>()
+			{
+				@Override
+				public BufferedImage call() throws Exception
+				{
+					return ImageLoader.getImageFromResourcePath(ImageAssets.class.getResource(path));
+				}
+			}));
+		}
+		this.mOriginals = Collections.unmodifiableMap(originals);
+		return;
+	}
+	
+	public static ImageAssets load(Config config)
+	{
+		return new ImageAssets(config.getImagePaths());
+	}
+	
+	/**
+	 * Waits for the image to finish decoding if it hasn't.
+	 * @param xmlTag String tag of the image under the images element, such as XMLTag.CROSS.
+	 * @return BufferedImage the original, shared; don't draw on it.
+	 * @throws Exception if the config doesn't name the image or it couldn't be decoded.
+	 */
+	public BufferedImage getOriginal(String xmlTag) throws Exception
+	{
+		Future<BufferedImage> original = this.mOriginals.get(xmlTag);
+		if(original == null){
+			throw new Exception("No image named " + xmlTag + " in config.xml.");
+		}
+		return original.get();
+	}
+	
+	/**
+	 * Resizes the originals of the puzzle images to one square size, each on a thread of the pool.
+	 * @return HashMap of new images by PipePuzzle.ImageKey.
+	 */
+	public HashMap<Object, BufferedImage> resizePuzzleImages(final double tileSize) throws Exception
+	{
+		ArrayList<Future<BufferedImage>> resized = new ArrayList<Future<BufferedImage>>();
+		for(PipePuzzle.ImageKey key : PipePuzzle.ImageKey.values())
+		{
+			final BufferedImage original = this.getOriginal(key.getTag());
+			resized.add(this.mPool.submit(new Callable<BufferedImage>()
+			{
+				@Override
+				public BufferedImage call() throws Exception
+				{
+					return ImageUtils.resizeImage(original, tileSize, tileSize);
+				}
+			}));
+		}
+		HashMap<Object, BufferedImage> images = new HashMap<Object, BufferedImage>();
+		for(PipePuzzle.ImageKey key : PipePuzzle.ImageKey.values())
+		{
+			images.put(key, resized.get(key.ordinal()).get());
+		}
+		return images;
+	}
+	
+	private static ThreadFactory createThreadFactory()
+	{
+		return new ThreadFactory()
+		{
+			@Override
+			public Thread newThread(Runnable r)
+			{
+				Thread thread = new Thread(r, "Image assets");
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+	}
+}
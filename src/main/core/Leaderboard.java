@@ -0,0 +1,130 @@
+package main.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.TreeSet;
+
+/**
+ * The fastest times for every puzzle, kept per Difficulty and dev_id.
+ *
+ * Each puzzle keeps at most its capacity of times in a sorted set, so adding a time is O(log n) in the times kept,
+ * and its best time is held in a field beside the set so the status bar can read it in O(1) on every puzzle load.
+ * A time the puzzle already holds is ignored; replaying the same records more than once therefore changes nothing.
+ *
+ * All methods are synchronized, so a loader thread can fill the board while the EDT reads from it.
+ *
+ * @version 1.0 2026-10-17
+ */
+public class Leaderboard
+{
+	public static final int DEFAULT_CAPACITY = 10;
+	
+	private int mCapacity = DEFAULT_CAPACITY;
+	private EnumMap<Difficulty, HashMap<Integer, Board>> mBoards = new EnumMap<Difficulty, HashMap<Integer, Board>>(Difficulty.class);
+	private int mSize = 0;
+	
+	public Leaderboard()
+	{
+		this(DEFAULT_CAPACITY);
+		return;
+	}
+	
+	/**
+	 * @param capacity int most times kept for each puzzle.
+	 */
+	public Leaderboard(int capacity)
+	{
+		this.mCapacity = Math.max(1, capacity);
+		for(Difficulty dif : Difficulty.values())
+		{
+			this.mBoards.put(dif, new HashMap<Integer, Board>());
+		}
+		return;
+	}
+	
+	/**
+	 * @param dif Difficulty
+	 * @param devID int
+	 * @param millis long finishing time in milliseconds.
+	 * @return boolean true if the time made the puzzle's top times.
+	 */
+	public synchronized boolean add(Difficulty dif, int devID, long millis)
+	{
+		if(dif == null || millis <= 0L){
+			return false;
+		}
+		Board board = this.mBoards.get(dif).get(devID);
+		if(board == null){
+			board = new Board();
+			this.mBoards.get(dif).put(devID, board);
+		}
+		int before = board.times.size();
+		boolean added = board.add(millis, this.mCapacity);
+		this.mSize += board.times.size() - before;
+		return added;
+	}
+	
+	/**
+	 * @param dif Difficulty
+	 * @param devID int
+	 * @return long best time in milliseconds, or 0 if the puzzle has none.
+	 */
+	public synchronized long getBest(Difficulty dif, int devID)
+	{
+		Board board = this.mBoards.get(dif).get(devID);
+		return board == null ? 0L : board.best;
+	}
+	
+	/**
+	 * @param dif Difficulty
+	 * @param devID int
+	 * @return ArrayList of the puzzle's times in milliseconds, fastest first.
+	 */
+	public synchronized ArrayList<Long> getTimes(Difficulty dif, int devID)
+	{
+		Board board = this.mBoards.get(dif).get(devID);
+		return board == null ? new ArrayList<Long>() : new ArrayList<Long>(board.times);
+	}
+	
+	/**
+	 * @param dif Difficulty
+	 * @return ArrayList of the dev_ids with at least one time, in ascending order.
+	 */
+	public synchronized ArrayList<Integer> getDevIDs(Difficulty dif)
+	{
+		ArrayList<Integer> ids = new ArrayList<Integer>(this.mBoards.get(dif).keySet());
+		Collections.sort(ids);
+		return ids;
+	}
+	
+	/**
+	 * @return int number of times held across every puzzle.
+	 */
+	public synchronized int size()
+	{
+		return this.mSize;
+	}
+	
+	private static class Board
+	{
+		public TreeSet<Long> times = new TreeSet<Long>();
+		public long best = 0L;
+		
+		public boolean add(long millis, int capacity)
+		{
+			if(this.times.size() >= capacity && millis >= this.times.last()){
+				return false;
+			}
+			if(!this.times.add(millis)){
+				return false;
+			}
+			if(this.times.size() > capacity){
+				this.times.pollLast();
+			}
+			this.best = this.times.first();
+			return true;
+		}
+	}
+}
@@ -32,6 +32,8 @@ import javax.swing.JMenuItem;
 import javax.swing.JPanel;
 import javax.swing.JToolBar;
 
+import main.core.util.FrameJitter;
+
 @SuppressWarnings("serial")
 public class MainGUI extends JFrame
 {
@@ -42,6 +44,7 @@ public class MainGUI extends JFrame
 	private JLabel mIDDisplay = null;
 	private JLabel mBestTimeDisplay = null;
 	private Display mDisplay = null;
+	private ActiveDisplay mActiveDisplay = null;
 	private StatusBar mStatusBar = null;
 	private boolean mShowCursor = true;
 	private Point mMousePosition = new Point();
@@ -63,6 +66,46 @@ public class MainGUI extends JFrame
 		return;
 	}
 	
+	/**
+	 * @param region Rectangle of the display to repaint, in display coordinates.
+	 */
+	public void repaintDisplay(Rectangle region)
+	{
+		if(this.mDisplay == null){
+			return;
+		}
+		this.mDisplay.repaint(region);
+		return;
+	}
+	
+	/**
+	 * Draws and shows a frame on the active rendering canvas.  Called from the Ticker thread.
+	 */
+	public void renderActiveDisplay()
+	{
+		if(this.mActiveDisplay == null){
+			return;
+		}
+		this.mActiveDisplay.renderFrame();
+		return;
+	}
+	
+	public boolean isActiveRendering()
+	{
+		return this.mActiveDisplay != null;
+	}
+	
+	/**
+	 * @return FrameJitter of whichever surface the board is drawn on.
+	 */
+	public FrameJitter getFrameJitter()
+	{
+		if(this.mActiveDisplay != null){
+			return this.mActiveDisplay.getFrameJitter();
+		}
+		return this.mDisplay == null ? null : this.mDisplay.getFrameJitter();
+	}
+	
 	public void setMainMenu(MainMenu menu)
 	{
 		this.mMainMenu = menu;
@@ -82,6 +125,12 @@ public class MainGUI extends JFrame
 		return;
 	}
 	
+	public void setActiveDisplay(ActiveDisplay display)
+	{
+		this.mActiveDisplay = display;
+		return;
+	}
+	
 	public void setIDLabel(JLabel idLabel)
 	{
 		this.mIDDisplay = idLabel;
@@ -118,6 +167,12 @@ public class MainGUI extends JFrame
 		return;
 	}
 	
+	public void displayBestTime(String caption)
+	{
+		this.mBestTimeDisplay.setText(caption);
+		return;
+	}
+	
 	public void setMousePosition(int x, int y)
 	{
 		this.mMousePosition.x = x;
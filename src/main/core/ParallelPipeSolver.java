@@ -0,0 +1,342 @@
+package main.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import main.core.util.XMLStreamParser;
+
+/**
+ * Runs the PipeSolver search on a ForkJoinPool.
+ *
+ * The top of the search tree is split into tasks: each task replays the moves that lead to its branch, places any
+ * forced parts, and forks one subtask per candidate at the next real choice.  Below the split depth a task searches
+ * its branch sequentially.  Idle workers steal the waiting branches, so an uneven tree still keeps every core busy.
+ *
+ * Each worker thread owns one PipeSolver, so the search itself shares nothing.  The only shared state is a solution
+ * counter and a stop flag: the first solution (or the limit in all-solutions mode) raises the flag and every worker
+ * unwinds at its next node.  Solutions travel back up the task tree as each task's result and are merged as the
+ * subtasks are joined, so collecting them needs no lock.
+ *
+ * @version 1.0 2026-10-17
+ */
+public class ParallelPipeSolver
+{
+	/* Aim for about this many branches per worker so stealing can even out branches of very different sizes. */
+	private static final int TASKS_PER_WORKER = 8;
+	private static final int MAX_SPLIT_DEPTH = 12;
+	
+	private PipePuzzleData mData = null;
+	private int mParallelism = 0;
+	private ConcurrentHashMap<Thread, Worker> mWorkers = new ConcurrentHashMap<Thread, Worker>();
+	private AtomicInteger mFound = new AtomicInteger();
+	private AtomicBoolean mCancelled = new AtomicBoolean();
+	private int mSplitDepth = 0;
+	private int mSolutionLimit = 1;
+	private long mElapsed = 0L;
+	
+	public ParallelPipeSolver(PipePuzzleData data)
+	{
+		this(data, Runtime.getRuntime().availableProcessors());
+		return;
+	}
+	
+	/**
+	 * @param data PipePuzzleData to solve.
+	 * @param parallelism int number of worker threads.
+	 */
+	public ParallelPipeSolver(PipePuzzleData data, int parallelism)
+	{
+		this.mData = data;
+		this.mParallelism = Math.max(1, parallelism);
+		return;
+	}
+	
+	/**
+	 * @return ArrayList of SolutionData describing the first solution found by any worker, or null if there is none.
+	 */
+	public ArrayList<SolutionData> solve()
+	{
+		ArrayList<ArrayList<SolutionData>> results = this.solveAll(1);
+		return results.isEmpty() ? null : results.get(0);
+	}
+	
+	/**
+	 * @param limit int maximum number of solutions to collect.
+	 * @return ArrayList of distinct solutions, each one a list of SolutionData.
+	 */
+	public ArrayList<ArrayList<SolutionData>> solveAll(int limit)
+	{
+		long start = System.nanoTime();
+		this.mWorkers.clear();
+		this.mFound.set(0);
+		this.mCancelled.set(false);
+		this.mSolutionLimit = limit;
+		this.mSplitDepth = this.getSplitDepth();
+		ArrayList<ArrayList<SolutionData>> results = new ArrayList<ArrayList<SolutionData>>();
+		ForkJoinPool pool = new ForkJoinPool(this.mParallelism);
+		try{
+			results = pool.invoke(new BranchTask(new int[0], 0));
+		}catch(Exception ex){
+			ex.printStackTrace();
+		}finally{
+			pool.shutdown();
+		}
+		while(results.size() > limit)
+		{
+			/* Workers that found a solution in the same instant may overshoot the limit. */
+			results.remove(results.size() - 1);
+		}
+		this.mElapsed = System.nanoTime() - start;
+		return results;
+	}
+	
+	/**
+	 * Every real choice multiplies the number of branches by two or three, so log2 of the wanted task count is enough.
+	 */
+	private int getSplitDepth()
+	{
+		int tasks = this.mParallelism * TASKS_PER_WORKER;
+		int depth = 32 - Integer.numberOfLeadingZeros(tasks - 1);
+		return this.mParallelism == 1 ? 0 : Math.min(depth, MAX_SPLIT_DEPTH);
+	}
+	
+	private Worker getWorker()
+	{
+		Thread thread = Thread.currentThread();
+		Worker worker = this.mWorkers.get(thread);
+		if(worker == null){
+			worker = new Worker(thread.getName());
+			this.mWorkers.put(thread, worker);
+		}
+		return worker;
+	}
+	
+	/**
+	 * @return Collection of the statistics kept by each worker thread during the last solve.
+	 */
+	public Collection<Worker> getWorkers()
+	{
+		return this.mWorkers.values();
+	}
+	
+	public long getNodes()
+	{
+		long nodes = 0L;
+		for(Worker w : this.mWorkers.values())
+		{
+			nodes += w.getNodes();
+		}
+		return nodes;
+	}
+	
+	public long getElapsedNanos()
+	{
+		return this.mElapsed;
+	}
+	
+	public double getNodesPerSecond()
+	{
+		return this.mElapsed <= 0L ? 0.0 : this.getNodes() / (this.mElapsed / 1.0E9);
+	}
+	
+	public String getReport()
+	{
+		StringBuilder b = new StringBuilder();
+		b.append(String.format("%d workers, split depth %d, %d nodes, %.3f ms, %.0f nodes/s",
+				this.mParallelism, this.mSplitDepth, this.getNodes(), this.mElapsed / 1.0E6, this.getNodesPerSecond()));
+		for(Worker w : this.mWorkers.values())
+		{
+			b.append(System.lineSeparator());
+			b.append("    ");
+			b.append(w.toString());
+		}
+		return b.toString();
+	}
+	
+	/**
+	 * Statistics for one worker thread, written only by that thread and read once the pool has finished.
+	 */
+	public class Worker
+	{
+		private String mName = null;
+		private PipeSolver mSolver = null;
+		private int mTasks = 0;
+		private long mBusy = 0L;
+		
+		private Worker(String name)
+		{
+			this.mName = name;
+			this.mSolver = new PipeSolver(mData);
+			this.mSolver.resetStatistics();
+			this.mSolver.share(mSolutionLimit, mFound, mCancelled);
+			return;
+		}
+		
+		public String getName()
+		{
+			return this.mName;
+		}
+		
+		public int getTasks()
+		{
+			return this.mTasks;
+		}
+		
+		public long getNodes()
+		{
+			return this.mSolver.getNodes();
+		}
+		
+		public long getBacktracks()
+		{
+			return this.mSolver.getBacktracks();
+		}
+		
+		public long getForced()
+		{
+			return this.mSolver.getForced();
+		}
+		
+		public long getBusyNanos()
+		{
+			return this.mBusy;
+		}
+		
+		@Override
+		public String toString()
+		{
+			return String.format("%s: %d tasks, %d nodes, %d backtracks, %d forced, busy %.3f ms",
+					this.mName, this.mTasks, this.getNodes(), this.getBacktracks(), this.getForced(), this.mBusy / 1.0E6);
+		}
+	}
+	
+	private class BranchTask extends RecursiveTask<ArrayList<ArrayList<SolutionData>>>
+	{
+		private static final long serialVersionUID = 1L;
+		
+		private int[] mMoves = null;
+		private int mDepth = 0;
+		
+		/**
+		 * @param moves int[] moves leading from the empty board to this branch.
+		 * @param depth int number of real choices among those moves.
+		 */
+		public BranchTask(int[] moves, int depth)
+		{
+			this.mMoves = moves;
+			this.mDepth = depth;
+			return;
+		}
+		
+		@Override
+		protected ArrayList<ArrayList<SolutionData>> compute()
+		{
+			if(mCancelled.get()){
+				return new ArrayList<ArrayList<SolutionData>>();
+			}
+			Worker worker = getWorker();
+			long start = System.nanoTime();
+			worker.mTasks++;
+			PipeSolver solver = worker.mSolver;
+			if(!solver.initialize()){
+				return new ArrayList<ArrayList<SolutionData>>();
+			}
+			for(int i = 0; i < this.mMoves.length; i++)
+			{
+				/* Only this task's own choice, the last move, is new work.  The rest were counted by the parent task. */
+				if(i == this.mMoves.length - 1){
+					solver.apply(this.mMoves[i]);
+				}else{
+					solver.replay(this.mMoves[i]);
+				}
+			}
+			if(this.mDepth >= mSplitDepth){
+				ArrayList<ArrayList<SolutionData>> results = solver.searchBranch();
+				worker.mBusy += System.nanoTime() - start;
+				return results;
+			}
+			
+			/* Forced parts are placed here rather than forked, so every fork is a real choice. */
+			int[] moves = this.mMoves;
+			int[] choices = null;
+			while(choices == null)
+			{
+				int cell = solver.selectCell();
+				if(cell < 0){
+					ArrayList<ArrayList<SolutionData>> results = new ArrayList<ArrayList<SolutionData>>();
+					if(solver.checkSolution()){
+						results = solver.takeSolutions();
+						if(mFound.incrementAndGet() >= mSolutionLimit){
+							mCancelled.set(true);
+						}
+					}
+					worker.mBusy += System.nanoTime() - start;
+					return results;
+				}
+				int[] candidates = solver.getMoves(cell);
+				if(candidates.length == 1){
+					solver.apply(candidates[0]);
+					moves = append(moves, candidates[0]);
+				}else{
+					choices = candidates;
+				}
+			}
+			worker.mBusy += System.nanoTime() - start;
+			
+			ArrayList<BranchTask> tasks = new ArrayList<BranchTask>(choices.length);
+			for(int choice : choices)
+			{
+				tasks.add(new BranchTask(append(moves, choice), this.mDepth + 1));
+			}
+			ArrayList<ArrayList<SolutionData>> results = new ArrayList<ArrayList<SolutionData>>();
+			for(BranchTask task : invokeAll(tasks))
+			{
+				results.addAll(task.join());
+			}
+			return results;
+		}
+		
+		private int[] append(int[] moves, int move)
+		{
+			int[] result = new int[moves.length + 1];
+			System.arraycopy(moves, 0, result, 0, moves.length);
+			result[moves.length] = move;
+			return result;
+		}
+	}
+	
+	/**
+	 * Solves every puzzle in the given data files with the sequential and the parallel solver and compares them.
+	 * Usage: java main.core.ParallelPipeSolver [-threads n] /data/hard_puzzle.xml [...]
+	 */
+	public static void main(String[] args)
+	{
+		int threads = Runtime.getRuntime().availableProcessors();
+		for(int a = 0; a < args.length; a++)
+		{
+			if(args[a].equals("-threads")){
+				threads = Integer.parseInt(args[++a]);
+				continue;
+			}
+			ArrayList<PipePuzzleData> puzzles = new XMLStreamPuzzles(XMLStreamParser.openResource(args[a])).read();
+			for(int i = 0; i < puzzles.size(); i++)
+			{
+				PipeSolver sequential = new PipeSolver(puzzles.get(i));
+				sequential.solve();
+				ParallelPipeSolver parallel = new ParallelPipeSolver(puzzles.get(i), threads);
+				ArrayList<SolutionData> solution = parallel.solve();
+				boolean valid = PipeSolver.isSolution(puzzles.get(i), solution);
+				System.out.println(args[a] + " #" + (i + 1) + ": " + (valid ? "solved" : "no solution")
+						+ String.format(", sequential %.3f ms, speedup %.2fx", sequential.getElapsedNanos() / 1.0E6,
+								sequential.getElapsedNanos() / (double)Math.max(1L, parallel.getElapsedNanos())));
+				System.out.println("  " + parallel.getReport());
+			}
+		}
+		return;
+	}
+}
@@ -1,6 +0,0 @@
-package main.core;
-
-public class PipeCap extends PipeNode
-{
-
-}
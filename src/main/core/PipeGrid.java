@@ -0,0 +1,259 @@
+package main.core;
+
+import java.util.Arrays;
+
+/**
+ * Packed bitboard representation of a puzzle grid.
+ *
+ * Each cell is a single int holding the part type (bits 0-2), the quarter-turn rotation index (bits 3-4) and a
+ * stationary flag (bit 5) for starts and goals.  Cells are indexed row by row: index = x + (y * size).
+ *
+ * Connectivity is never stored.  Every part type has a 4-bit port mask (north, east, south, west) which is rotated
+ * along with the part, and two neighboring cells are linked when both of their facing ports are open.
+ *
+ * @version 1.0 2026-10-17
+ */
+public class PipeGrid
+{
+	public static final int EMPTY = 0;
+	public static final int ELBOW = 1;
+	public static final int PIPE = 2;
+	public static final int T_JUNCTION = 3;
+	public static final int CROSS = 4;
+	public static final int GAUGE = 5;
+	
+	public static final int NORTH = 0;
+	public static final int EAST = 1;
+	public static final int SOUTH = 2;
+	public static final int WEST = 3;
+	
+	public static final int PORT_NORTH = 1 << NORTH;
+	public static final int PORT_EAST = 1 << EAST;
+	public static final int PORT_SOUTH = 1 << SOUTH;
+	public static final int PORT_WEST = 1 << WEST;
+	
+	private static final int TYPE_MASK = 0x7;
+	private static final int ROTATION_SHIFT = 3;
+	private static final int ROTATION_MASK = 0x3 << ROTATION_SHIFT;
+	private static final int STATIONARY_FLAG = 1 << 5;
+	private static final int PORT_KEY_MASK = TYPE_MASK | ROTATION_MASK;
+	
+	/* Open ports of each part type at rotation index zero.  These match the original images. */
+	private static final int[] BASE_PORTS = new int[]{
+		0, // EMPTY
+		PORT_EAST | PORT_SOUTH, // ELBOW
+		PORT_EAST | PORT_WEST, // PIPE
+		PORT_NORTH | PORT_EAST | PORT_SOUTH, // T_JUNCTION
+		PORT_NORTH | PORT_EAST | PORT_SOUTH | PORT_WEST, // CROSS
+		PORT_EAST | PORT_WEST // GAUGE
+	};
+	
+	/* Port masks for every type and rotation, indexed by the low five bits of a cell. */
+	private static final int[] PORTS = new int[PORT_KEY_MASK + 1];
+	
+	static
+	{
+		for(int type = 0; type < BASE_PORTS.length; type++)
+		{
+			for(int rotation = 0; rotation < 4; rotation++)
+			{
+				PORTS[encode(type, rotation, false)] = rotatePorts(BASE_PORTS[type], rotation);
+			}
+		}
+	}
+	
+	private int mSize = 0;
+	private int[] mCells = null;
+	
+	public PipeGrid(int size)
+	{
+		this.mSize = size;
+		this.mCells = new int[size * size];
+		return;
+	}
+	
+	public static int encode(int type, int rotation, boolean stationary)
+	{
+		int cell = (type & TYPE_MASK) | ((Math.floorMod(rotation, 4) << ROTATION_SHIFT) & ROTATION_MASK);
+		return stationary ? cell | STATIONARY_FLAG : cell;
+	}
+	
+	/**
+	 * Rotating a part to the left by one index turns each port counter-clockwise, so the port facing
+	 * direction d afterward is the one that faced direction d + 1 before.
+	 * @param ports int 4-bit port mask.
+	 * @param rotation int number of quarter turns to the left.
+	 * @return int rotated 4-bit port mask.
+	 */
+	public static int rotatePorts(int ports, int rotation)
+	{
+		rotation = Math.floorMod(rotation, 4);
+		return ((ports >>> rotation) | (ports << (4 - rotation))) & 0xF;
+	}
+	
+	public static int opposite(int direction)
+	{
+		return (direction + 2) & 0x3;
+	}
+	
+	public static int getPortsFor(int type, int rotation)
+	{
+		return PORTS[encode(type, rotation, false)];
+	}
+	
+	public int getSize()
+	{
+		return this.mSize;
+	}
+	
+	public int getCellCount()
+	{
+		return this.mCells.length;
+	}
+	
+	public int index(int x, int y)
+	{
+		return x + (y * this.mSize);
+	}
+	
+	public int getX(int index)
+	{
+		return index % this.mSize;
+	}
+	
+	public int getY(int index)
+	{
+		return index / this.mSize;
+	}
+	
+	public boolean contains(int x, int y)
+	{
+		return x >= 0 && y >= 0 && x < this.mSize && y < this.mSize;
+	}
+	
+	public void set(int index, int type, int rotation, boolean stationary)
+	{
+		this.mCells[index] = encode(type, rotation, stationary);
+		return;
+	}
+	
+	public void setCell(int index, int cell)
+	{
+		this.mCells[index] = cell;
+		return;
+	}
+	
+	public int getCell(int index)
+	{
+		return this.mCells[index];
+	}
+	
+	public void clear(int index)
+	{
+		this.mCells[index] = EMPTY;
+		return;
+	}
+	
+	public void clearAll()
+	{
+		Arrays.fill(this.mCells, EMPTY);
+		return;
+	}
+	
+	public boolean isEmpty(int index)
+	{
+		return (this.mCells[index] & TYPE_MASK) == EMPTY;
+	}
+	
+	public int getType(int index)
+	{
+		return this.mCells[index] & TYPE_MASK;
+	}
+	
+	public int getRotation(int index)
+	{
+		return (this.mCells[index] & ROTATION_MASK) >>> ROTATION_SHIFT;
+	}
+	
+	public void setRotation(int index, int rotation)
+	{
+		this.mCells[index] = (this.mCells[index] & ~ROTATION_MASK) | ((Math.floorMod(rotation, 4) << ROTATION_SHIFT) & ROTATION_MASK);
+		return;
+	}
+	
+	public boolean isStationary(int index)
+	{
+		return (this.mCells[index] & STATIONARY_FLAG) != 0;
+	}
+	
+	public int getPorts(int index)
+	{
+		return PORTS[this.mCells[index] & PORT_KEY_MASK];
+	}
+	
+	public void move(int from, int to)
+	{
+		if(from == to){
+			return;
+		}
+		this.mCells[to] = this.mCells[from];
+		this.mCells[from] = EMPTY;
+		return;
+	}
+	
+	/**
+	 * @param index int cell index.
+	 * @param direction int one of NORTH, EAST, SOUTH or WEST.
+	 * @return int index of the neighboring cell, or -1 if it lies outside the grid.
+	 */
+	public int getNeighbor(int index, int direction)
+	{
+		switch(direction)
+		{
+			case NORTH:
+				return index >= this.mSize ? index - this.mSize : -1;
+			case EAST:
+				return (index % this.mSize) < this.mSize - 1 ? index + 1 : -1;
+			case SOUTH:
+				return index + this.mSize < this.mCells.length ? index + this.mSize : -1;
+			case WEST:
+				return (index % this.mSize) > 0 ? index - 1 : -1;
+			default:
+				return -1;
+		}
+	}
+	
+	/**
+	 * Two neighboring cells are linked when both of their facing ports are open.
+	 * @param index int cell index.
+	 * @param direction int one of NORTH, EAST, SOUTH or WEST.
+	 * @return boolean true if the cell is linked to its neighbor in the specified direction.
+	 */
+	public boolean isLinked(int index, int direction)
+	{
+		if((this.getPorts(index) & (1 << direction)) == 0){
+			return false;
+		}
+		int neighbor = this.getNeighbor(index, direction);
+		if(neighbor < 0){
+			return false;
+		}
+		return (this.getPorts(neighbor) & (1 << opposite(direction))) != 0;
+	}
+	
+	/**
+	 * @param index int cell index.
+	 * @return int 4-bit mask of the directions in which the cell is linked to a neighbor.
+	 */
+	public int getLinks(int index)
+	{
+		int links = 0;
+		for(int direction = NORTH; direction <= WEST; direction++)
+		{
+			if(this.isLinked(index, direction)){
+				links |= 1 << direction;
+			}
+		}
+		return links;
+	}
+}
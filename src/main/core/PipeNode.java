@@ -2,12 +2,9 @@ package main.core;
 
 public class PipeNode
 {
-	private double[] DIR = new double[]{0.0, Math.PI * 0.5, Math.PI, Math.PI * 1.5};
+	private static final double[] DIR = new double[]{0.0, Math.PI * 0.5, Math.PI, Math.PI * 1.5};
 	
-	public PipeNode north = null;
-	public PipeNode east = null;
-	public PipeNode south = null;
-	public PipeNode west = null;
+	private int mType = PipeGrid.EMPTY;
 	private Object mImageKey = null;
 	private int mGridX = 0;
 	private int mGridY = 0;
@@ -19,16 +16,22 @@ public class PipeNode
 		return;
 	}
 	
-	public PipeNode(PipeNode north, PipeNode east, PipeNode south, PipeNode west, Object imageKey)
+	/**
+	 * @param type int one of the PipeGrid part types, which determines the part's open ports.
+	 * @param imageKey Object key of the image used to draw the part.
+	 */
+	public PipeNode(int type, Object imageKey)
 	{
-		this.north = north;
-		this.east = east;
-		this.south = south;
-		this.west = west;
+		this.mType = type;
 		this.mImageKey = imageKey;
 		return;
 	}
 	
+	public int getType()
+	{
+		return this.mType;
+	}
+	
 	public void setGridX(int x)
 	{
 		this.mGridX = x;
@@ -57,11 +60,6 @@ public class PipeNode
 		 * Plus one, because radians turns counter-clockwise, and the DIR array goes from left to right.
 		 */
 		this.mRotationIndex = Math.floorMod(this.mRotationIndex + 1, 4);
-		PipeNode temp = this.north;
-		this.north = this.east;
-		this.east = this.south;
-		this.south = this.west;
-		this.west = temp;
 		return;
 	}
 	
@@ -71,11 +69,6 @@ public class PipeNode
 		 * Minus one, because radians turns counter-clockwise, and the DIR array goes from left to right.
 		 */
 		this.mRotationIndex = Math.floorMod(this.mRotationIndex - 1, 4);
-		PipeNode temp = this.north;
-		this.north = this.west;
-		this.west = this.south;
-		this.south = this.east;
-		this.east = temp;
 		return;
 	}
 	
@@ -85,6 +78,19 @@ public class PipeNode
 		return;
 	}
 	
+	public int getRotationIndex()
+	{
+		return this.mRotationIndex;
+	}
+	
+	/**
+	 * @return int 4-bit mask of the part's open ports at its current rotation.
+	 */
+	public int getPorts()
+	{
+		return PipeGrid.getPortsFor(this.mType, this.mRotationIndex);
+	}
+	
 	public void setRotation(double factor)
 	{
 		this.mRotationIndex = this.getIndexForAngle(factor);
@@ -1,80 +1,161 @@
 package main.core;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 
 /**
- * Utility class used to trace a spanning tree of PipeNodes starting from a specified root.
- * 
+ * Traces the spanning tree of linked grid cells starting from a specified root.
+ *
+ * Version 1.1 walks the packed PipeGrid by cell index instead of following PipeNode references, which also stops
+ * unrelated parts from colliding on hashCode().
+ *
+ * Version 1.2 holds no static state.  Each instance owns an explicit work stack and a long[] visited bitmap indexed by
+ * cell, both reused from call to call, so a long serpentine path can't overflow the call stack and a traversal allocates
+ * nothing once the buffers have grown to the board size.  An instance must not be shared between threads while in use;
+ * give each thread its own, or use the static find() which keeps one per thread.
+ *
  * @author John McCullock
- * @version 1.0 2019-02-11
+ * @version 1.2 2026-10-17
  */
 public class PipeNodePath
 {
-	private static LinkedHashMap<Integer, PipeNode> mPath = null;
+	private static final ThreadLocal<PipeNodePath> mLocal = new ThreadLocal<PipeNodePath>()
+	{
+		@Override
+		protected PipeNodePath initialValue()
+		{
+			return new PipeNodePath();
+		}
+	};
+	
+	private int[] mStack = new int[0];
+	private int[] mOrder = new int[0];
+	private long[] mVisited = new long[0];
+	private int mCount = 0;
+	
+	public PipeNodePath()
+	{
+		return;
+	}
 	
-	public static ArrayList<PipeNode> find(PipeNode start)
+	/**
+	 * Convenience method using a traversal engine owned by the calling thread.
+	 * @param grid PipeGrid to trace.
+	 * @param start int cell index of the root.
+	 * @return ArrayList of cell indices linked to the root, in the order they were found.
+	 */
+	public static ArrayList<Integer> find(PipeGrid grid, int start)
 	{
-		mPath = new LinkedHashMap<Integer, PipeNode>();
-		mPath.put(start.hashCode(), start);
-		addChild(start);
-		ArrayList<PipeNode> results = new ArrayList<PipeNode>();
-		for(PipeNode node : mPath.values())
+		return mLocal.get().collect(grid, start);
+	}
+	
+	/**
+	 * @param grid PipeGrid to trace.
+	 * @param start int cell index of the root.
+	 * @return ArrayList of cell indices linked to the root, in the order they were found.
+	 */
+	public ArrayList<Integer> collect(PipeGrid grid, int start)
+	{
+		int count = this.run(grid, start, null);
+		ArrayList<Integer> results = new ArrayList<Integer>(count);
+		for(int i = 0; i < count; i++)
 		{
-			results.add(node);
+			results.add(this.mOrder[i]);
 		}
 		return results;
 	}
 	
-	private static void addChild(PipeNode current)
+	/**
+	 * Allocation-free form of collect().
+	 * @param grid PipeGrid to trace.
+	 * @param start int cell index of the root.
+	 * @param results int[] receiving the cell indices in the order they were found.  Must hold at least grid.getCellCount() entries.
+	 * @return int number of cells written into results.
+	 */
+	public int trace(PipeGrid grid, int start, int[] results)
 	{
-		if(current.north != null && !(current.north instanceof PipeCap)){
-			addNorthChild(current); // north
-		}
-		if(current.east != null && !(current.east instanceof PipeCap)){
-			addEastChild(current); // east
-		}
-		if(current.south != null && !(current.south instanceof PipeCap)){
-			addSouthChild(current); // south
-		}
-		if(current.west != null && !(current.west instanceof PipeCap)){
-			addWestChild(current); // west
-		}
-		return;
+		int count = this.run(grid, start, null);
+		System.arraycopy(this.mOrder, 0, results, 0, count);
+		return count;
 	}
 	
-	private static void addNorthChild(PipeNode current)
+	/**
+	 * Calls the visitor once for every cell linked to the root, starting with the root itself.
+	 * @param grid PipeGrid to trace.
+	 * @param start int cell index of the root.
+	 * @param visitor PipeNodePath.Visitor which may return false to end the traversal early.
+	 * @return int number of cells visited.
+	 */
+	public int traverse(PipeGrid grid, int start, PipeNodePath.Visitor visitor)
 	{
-		if(!mPath.containsKey(current.north.hashCode())){
-			mPath.put(current.north.hashCode(), current.north);
-			addChild(current.north);
+		return this.run(grid, start, visitor);
+	}
+	
+	private int run(PipeGrid grid, int start, PipeNodePath.Visitor visitor)
+	{
+		this.ensureCapacity(grid.getCellCount());
+		this.mCount = 0;
+		int top = 0;
+		this.mStack[top++] = start;
+		this.markVisited(start);
+		while(top > 0)
+		{
+			int current = this.mStack[--top];
+			this.mOrder[this.mCount++] = current;
+			if(visitor != null && !visitor.visit(current)){
+				break;
+			}
+			for(int direction = PipeGrid.WEST; direction >= PipeGrid.NORTH; direction--)
+			{
+				/* Pushed in reverse so neighbors come off the stack in north, east, south, west order. */
+				if(!grid.isLinked(current, direction)){
+					continue;
+				}
+				int child = grid.getNeighbor(current, direction);
+				if(!this.isVisited(child)){
+					this.markVisited(child);
+					this.mStack[top++] = child;
+				}
+			}
 		}
-		return;
+		this.clearVisited(top);
+		return this.mCount;
 	}
 	
-	private static void addEastChild(PipeNode current)
+	private void ensureCapacity(int cells)
 	{
-		if(!mPath.containsKey(current.east.hashCode())){
-			mPath.put(current.east.hashCode(), current.east);
-			addChild(current.east);
+		if(this.mStack.length >= cells){
+			return;
 		}
+		this.mStack = new int[cells];
+		this.mOrder = new int[cells];
+		this.mVisited = new long[(cells + 63) >>> 6];
 		return;
 	}
 	
-	private static void addSouthChild(PipeNode current)
+	private boolean isVisited(int index)
 	{
-		if(!mPath.containsKey(current.south.hashCode())){
-			mPath.put(current.south.hashCode(), current.south);
-			addChild(current.south);
-		}
+		return (this.mVisited[index >>> 6] & (1L << index)) != 0L;
+	}
+	
+	private void markVisited(int index)
+	{
+		this.mVisited[index >>> 6] |= 1L << index;
 		return;
 	}
 	
-	private static void addWestChild(PipeNode current)
+	/**
+	 * Only the words touched by this traversal are cleared, so the cost follows the path length rather than the board size.
+	 * @param pending int number of cells still on the stack if the traversal ended early.
+	 */
+	private void clearVisited(int pending)
 	{
-		if(!mPath.containsKey(current.west.hashCode())){
-			mPath.put(current.west.hashCode(), current.west);
-			addChild(current.west);
+		for(int i = 0; i < this.mCount; i++)
+		{
+			this.mVisited[this.mOrder[i] >>> 6] = 0L;
+		}
+		for(int i = 0; i < pending; i++)
+		{
+			this.mVisited[this.mStack[i] >>> 6] = 0L;
 		}
 		return;
 	}
@@ -83,13 +164,21 @@ public class PipeNodePath
 	public String toString()
 	{
 		StringBuilder b = new StringBuilder();
-		for(PipeNode node : mPath.values())
+		for(int i = 0; i < this.mCount; i++)
 		{
-			b.append(node);
+			b.append(this.mOrder[i]);
 			b.append(" >> ");
 		}
 		
 		return b.toString();
 	}
+	
+	public interface Visitor
+	{
+		/**
+		 * @param index int cell index being visited.
+		 * @return boolean false to stop the traversal.
+		 */
+		abstract boolean visit(int index);
+	}
 }
-
@@ -1,19 +1,22 @@
 package main.core;
 
+import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
 import java.awt.Point;
 import java.awt.Rectangle;
-import java.awt.geom.AffineTransform;
+import java.awt.Transparency;
 import java.awt.image.BufferedImage;
 
 import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.TreeSet;
 
-import main.core.util.DisjointSet;
+import main.core.util.ImageUtils;
 import main.core.util.MathUtil;
 
 public class PipePuzzle
@@ -70,9 +73,14 @@ public class PipePuzzle
 	};
 	
 	private int mGridSize = 0;
-	private PipeNode[][] mGrid = null;
+	private PipeGrid mGrid = null;
+	private PipeNode[] mNodes = null;
+	private ConnectivityTracker mTracker = null;
 	private PipeNode mSelected = null;
-	private HashMap<Object, BufferedImage> mTemplates = new HashMap<Object, BufferedImage>();
+	private volatile HashMap<Object, BufferedImage> mTemplates = new HashMap<Object, BufferedImage>();
+	private volatile HashMap<Object, BufferedImage[]> mSprites = new HashMap<Object, BufferedImage[]>();
+	private volatile BufferedImage mBackground = null;
+	private Rectangle mDirty = null;
 	private ArrayList<PipeNode> mPipeList = new ArrayList<PipeNode>();
 	private ArrayList<PipeNode> mStarts = new ArrayList<PipeNode>();
 	private ArrayList<PipeNode> mGoals = new ArrayList<PipeNode>();
@@ -81,40 +89,99 @@ public class PipePuzzle
 	public PipePuzzle(int gridSize)
 	{
 		this.mGridSize = gridSize;
-		this.mGrid = new PipeNode[gridSize][gridSize];
+		this.mGrid = new PipeGrid(gridSize);
+		this.mNodes = new PipeNode[gridSize * gridSize];
+		this.mTracker = new ConnectivityTracker(this.mGrid);
 		return;
 	}
 	
+	/**
+	 * Draws the tile grid with the starts and goals on it, as one image.  The image is built on the first call after 
+	 * the part images are replaced, a start or goal is added, or a goal light changes, and is only copied otherwise.
+	 * @param g2d Graphics2D
+	 * @param bounds Rectangle of the board on screen.
+	 */
 	public void renderPuzzleGrid(Graphics2D g2d, Rectangle bounds)
 	{
+		BufferedImage background = this.mBackground;
+		/* Also rebuilt if it was built from the images setPuzzleImages() has just replaced. */
+		if(background == null || background.getWidth() != Math.max(1, this.mTemplates.get(ImageKey.TILE).getWidth() * this.mGridSize)){
+			background = this.createBackground();
+			this.mBackground = background;
+		}
+		g2d.drawImage(background, bounds.x, bounds.y, null);
+		return;
+	}
+	
+	private BufferedImage createBackground()
+	{
+		BufferedImage tile = this.mTemplates.get(ImageKey.TILE);
+		int width = Math.max(1, tile.getWidth() * this.mGridSize);
+		int height = Math.max(1, tile.getHeight() * this.mGridSize);
+		BufferedImage background = null;
+		if(GraphicsEnvironment.isHeadless()){
+			background = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		}else{
+			background = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration().createCompatibleImage(width, height, Transparency.OPAQUE);
+		}
+		Graphics2D g2d = background.createGraphics();
+		g2d.setPaint(Color.BLACK);
+		g2d.fillRect(0, 0, width, height);
 		for(int i = 0; i < this.mGridSize; i++)
 		{
 			for(int j = 0; j < this.mGridSize; j++)
 			{
-				g2d.drawImage(this.mTemplates.get(ImageKey.TILE), bounds.x + (this.mTemplates.get(ImageKey.TILE).getWidth() * j), bounds.y + (this.mTemplates.get(ImageKey.TILE).getWidth() * i), null);
+				g2d.drawImage(tile, tile.getWidth() * j, tile.getHeight() * i, null);
 			}
 		}
-		return;
+		Rectangle origin = new Rectangle(0, 0, width, height);
+		for(PipeNode start : this.mStarts)
+		{
+			Point screen = this.gridToScreen(origin, start.getGridX(), start.getGridY());
+			g2d.drawImage(this.getPartImage(start.getImageKey(), start.getRotationIndex()), screen.x, screen.y, null);
+		}
+		for(PipeNode goal : this.mGoals)
+		{
+			Point screen = this.gridToScreen(origin, goal.getGridX(), goal.getGridY());
+			g2d.drawImage(this.getPartImage(goal.getImageKey(), goal.getRotationIndex()), screen.x, screen.y, null);
+		}
+		g2d.dispose();
+		return background;
 	}
 	
+	/**
+	 * Draws the parts that can be moved.  The starts and goals are part of the grid drawn by renderPuzzleGrid().
+	 */
 	public void renderParts(Graphics2D g2d, Rectangle bounds, boolean exceptSelected)
 	{
-		AffineTransform original = g2d.getTransform();
-		for(int y = 0; y < this.mGridSize; y++)
+		/* Only the squares under the clip, which is the repainted region when Swing paints part of the display. */
+		int minX = 0;
+		int minY = 0;
+		int maxX = this.mGridSize - 1;
+		int maxY = this.mGridSize - 1;
+		Rectangle clip = g2d.getClipBounds();
+		if(clip != null){
+			int width = this.mTemplates.get(ImageKey.TILE).getWidth();
+			int height = this.mTemplates.get(ImageKey.TILE).getHeight();
+			minX = Math.max(minX, Math.floorDiv(clip.x - bounds.x, width));
+			minY = Math.max(minY, Math.floorDiv(clip.y - bounds.y, height));
+			maxX = Math.min(maxX, Math.floorDiv(clip.x + clip.width - 1 - bounds.x, width));
+			maxY = Math.min(maxY, Math.floorDiv(clip.y + clip.height - 1 - bounds.y, height));
+		}
+		for(int y = minY; y <= maxY; y++)
 		{
-			for(int x = 0; x < this.mGridSize; x++)
+			for(int x = minX; x <= maxX; x++)
 			{
-				PipeNode part = this.mGrid[x][y];
-				if(part == null){
+				int index = this.mGrid.index(x, y);
+				PipeNode part = this.mNodes[index];
+				if(part == null || this.mGrid.isStationary(index)){
 					continue;
 				}
 				if(exceptSelected && part == this.mSelected){
 					continue;
 				}
 				Point screen = this.gridToScreen(bounds, x, y);
-				g2d.rotate(-part.getRotation(), screen.x + (this.mTemplates.get(part.getImageKey()).getWidth() / 2.0), screen.y + (this.mTemplates.get(part.getImageKey()).getHeight() / 2.0));
-				g2d.drawImage(this.mTemplates.get(part.getImageKey()), screen.x, screen.y, null);
-				g2d.setTransform(original);
+				g2d.drawImage(this.getPartImage(part.getImageKey(), part.getRotationIndex()), screen.x, screen.y, null);
 			}
 		}
 		return;
@@ -136,22 +203,21 @@ public class PipePuzzle
 	
 	public void renderMovingSelected(Graphics2D g2d, int x, int y)
 	{
-		AffineTransform original = g2d.getTransform();
-		g2d.rotate(-this.mSelected.getRotation(), x + (this.mTemplates.get(this.mSelected.getImageKey()).getWidth() / 2.0), y + (this.mTemplates.get(this.mSelected.getImageKey()).getHeight() / 2.0));
-		g2d.drawImage(this.mTemplates.get(this.mSelected.getImageKey()), x, y, null);
-		g2d.setTransform(original);
+		g2d.drawImage(this.getPartImage(this.mSelected.getImageKey(), this.mSelected.getRotationIndex()), x, y, null);
 		return;
 	}
 	
 	public void addStart(PipeNode start)
 	{
 		this.mStarts.add(start);
+		this.mBackground = null;
 		return;
 	}
 	
 	public void addGoal(PipeNode goal)
 	{
 		this.mGoals.add(goal);
+		this.mBackground = null;
 		return;
 	}
 	
@@ -171,7 +237,9 @@ public class PipePuzzle
 		if(!this.notStationaryPart(x, y)){
 			return;
 		}
-		this.mSelected = this.mGrid[x][y];
+		this.unselectPart();
+		this.mSelected = this.mNodes[this.mGrid.index(x, y)];
+		this.addDirtyCell(x, y);
 		//System.out.println("part selected at " + x + ", " + y);
 		//System.out.println("north=" + this.mSelected.north + ", east=" + this.mSelected.east + ", south=" + this.mSelected.south + ", west=" + this.mSelected.west);
 		return;
@@ -179,12 +247,19 @@ public class PipePuzzle
 	
 	public void selectPart(PipeNode node)
 	{
+		this.unselectPart();
 		this.mSelected = node;
+		if(node != null){
+			this.addDirtyCell(node.getGridX(), node.getGridY());
+		}
 		return;
 	}
 	
 	public void unselectPart()
 	{
+		if(this.mSelected != null){
+			this.addDirtyCell(this.mSelected.getGridX(), this.mSelected.getGridY());
+		}
 		this.mSelected = null;
 		return;
 	}
@@ -202,12 +277,10 @@ public class PipePuzzle
 		if(!this.targetIsEmpty(gridX, gridY)){
 			return;
 		}
-		this.disconnectPart(this.mSelected.getGridX(), this.mSelected.getGridY());
-		this.mGrid[this.mSelected.getGridX()][this.mSelected.getGridY()] = null;
+		this.removePart(this.mSelected);
 		this.mSelected.setGridX(gridX);
 		this.mSelected.setGridY(gridY);
-		this.mGrid[gridX][gridY] = this.mSelected;
-		this.connectPart(gridX, gridY);
+		this.placePart(this.mSelected, false);
 		//ArrayList<PipeNode> path = this.getPath();
 		this.checkFinished();
 		return;
@@ -216,15 +289,15 @@ public class PipePuzzle
 	public void movePartUnchecked(int gridX, int gridY)
 	{
 		/*
-		 * All parts need to be disconnected for unchecked moves and rotations.
+		 * Unchecked moves and rotations leave the goal lights alone until the next checked change.
 		 */
 		if(this.mSelected == null){
 			return;
 		}
-		this.mGrid[this.mSelected.getGridX()][this.mSelected.getGridY()] = null;
+		this.removePart(this.mSelected);
 		this.mSelected.setGridX(gridX);
 		this.mSelected.setGridY(gridY);
-		this.mGrid[gridX][gridY] = this.mSelected;
+		this.placePart(this.mSelected, false);
 		return;
 	}
 	
@@ -233,9 +306,8 @@ public class PipePuzzle
 		if(this.mSelected == null){
 			return;
 		}
-		this.disconnectPart(this.mSelected.getGridX(), this.mSelected.getGridY());
 		this.mSelected.rotateLeft();
-		this.connectPart(this.mSelected.getGridX(), this.mSelected.getGridY());
+		this.syncRotation(this.mSelected);
 		//ArrayList<PipeNode> path = this.getPath();
 		this.checkFinished();
 		return;
@@ -246,101 +318,58 @@ public class PipePuzzle
 		if(this.mSelected == null){
 			return;
 		}
-		this.disconnectPart(this.mSelected.getGridX(), this.mSelected.getGridY());
 		this.mSelected.setRotation(factor);
-		this.connectPart(this.mSelected.getGridX(), this.mSelected.getGridY());
+		this.syncRotation(this.mSelected);
 		this.checkFinished();
 		return;
 	}
 	
-	private void disconnectPart(int x, int y)
+	/**
+	 * Writes a part into the packed grid at its current grid coordinates.  Links to its neighbors follow from the port masks.
+	 */
+	private void placePart(PipeNode node, boolean stationary)
 	{
-		if(this.mGrid[x][y].north != null && !(this.mGrid[x][y].north instanceof PipeCap)){
-			this.mGrid[x][y].north = null;
-		}
-		if(this.mGrid[x][y].east != null && !(this.mGrid[x][y].east instanceof PipeCap)){
-			this.mGrid[x][y].east = null;
-		}
-		if(this.mGrid[x][y].south != null && !(this.mGrid[x][y].south instanceof PipeCap)){
-			this.mGrid[x][y].south = null;
-		}
-		if(this.mGrid[x][y].west != null && !(this.mGrid[x][y].west instanceof PipeCap)){
-			this.mGrid[x][y].west = null;
-		}
-		//System.out.println("[x][y] north=" + this.mGrid[x][y].north + " east=" + this.mGrid[x][y].east + " south=" + this.mGrid[x][y].south + " west=" + this.mGrid[x][y].west);
-		if(y > 0 && this.mGrid[x][y - 1] != null){
-			if(this.mGrid[x][y - 1].south != null && !(this.mGrid[x][y - 1].south instanceof PipeCap)){
-				this.mGrid[x][y - 1].south = null;
-			}
-		}
-		if(x < this.mGridSize - 1 && this.mGrid[x + 1][y] != null){
-			if(this.mGrid[x + 1][y].west != null && !(this.mGrid[x + 1][y].west instanceof PipeCap)){
-				this.mGrid[x + 1][y].west = null;
-			}
-		}
-		if(y < this.mGridSize - 1 && this.mGrid[x][y + 1] != null){
-			if(this.mGrid[x][y + 1].north != null && !(this.mGrid[x][y + 1].north instanceof PipeCap)){
-				this.mGrid[x][y + 1].north = null;
-			}
-		}
-		if(x > 0 && this.mGrid[x - 1][y] != null){
-			if(this.mGrid[x - 1][y].east != null && !(this.mGrid[x - 1][y].east instanceof PipeCap)){
-				this.mGrid[x - 1][y].east = null;
-			}
-		}
+		int index = this.mGrid.index(node.getGridX(), node.getGridY());
+		this.mGrid.set(index, node.getType(), node.getRotationIndex(), stationary);
+		this.mNodes[index] = node;
+		this.mTracker.cellChanged(index);
+		this.addDirtyCell(node.getGridX(), node.getGridY());
 		return;
 	}
 	
-	private void connectPart(int x, int y)
+	private void removePart(PipeNode node)
 	{
-		if(this.mGrid[x][y].north == null || !(this.mGrid[x][y].north instanceof PipeCap)){
-			if(y > 0 && this.mGrid[x][y - 1] != null && (this.mGrid[x][y - 1].south == null || !(this.mGrid[x][y - 1].south instanceof PipeCap))){
-				this.mGrid[x][y].north = this.mGrid[x][y - 1];
-				this.mGrid[x][y - 1].south = this.mGrid[x][y];
-			}
-		}
-		if(this.mGrid[x][y].east == null || !(this.mGrid[x][y].east instanceof PipeCap)){
-			if(x < this.mGridSize - 1 && this.mGrid[x + 1][y] != null && (this.mGrid[x + 1][y].west == null || !(this.mGrid[x + 1][y].west instanceof PipeCap))){
-				this.mGrid[x][y].east = this.mGrid[x + 1][y];
-				this.mGrid[x + 1][y].west = this.mGrid[x][y];
-			}
-		}
-		if(this.mGrid[x][y].south == null || !(this.mGrid[x][y].south instanceof PipeCap)){
-			if(y < this.mGridSize - 1 && this.mGrid[x][y + 1] != null && (this.mGrid[x][y + 1].north == null || !(this.mGrid[x][y + 1].north instanceof PipeCap))){
-				this.mGrid[x][y].south = this.mGrid[x][y + 1];
-				this.mGrid[x][y + 1].north = this.mGrid[x][y];
-			}
+		int index = this.mGrid.index(node.getGridX(), node.getGridY());
+		if(this.mNodes[index] != node){
+			return;
 		}
-		if(this.mGrid[x][y].west == null || !(this.mGrid[x][y].west instanceof PipeCap)){
-			if(x > 0 && this.mGrid[x - 1][y] != null && (this.mGrid[x - 1][y].east == null || !(this.mGrid[x - 1][y].east instanceof PipeCap))){
-				this.mGrid[x][y].west = this.mGrid[x - 1][y];
-				this.mGrid[x - 1][y].east = this.mGrid[x][y];
-			}
+		this.mGrid.clear(index);
+		this.mNodes[index] = null;
+		this.mTracker.cellChanged(index);
+		this.addDirtyCell(node.getGridX(), node.getGridY());
+		return;
+	}
+	
+	private void syncRotation(PipeNode node)
+	{
+		int index = this.mGrid.index(node.getGridX(), node.getGridY());
+		if(this.mNodes[index] != node){
+			return;
 		}
-		//System.out.println("[x][y] north=" + this.mGrid[x][y].north + " east=" + this.mGrid[x][y].east + " south=" + this.mGrid[x][y].south + " west=" + this.mGrid[x][y].west);
+		this.mGrid.setRotation(index, node.getRotationIndex());
+		this.mTracker.cellChanged(index);
+		this.addDirtyCell(node.getGridX(), node.getGridY());
 		return;
 	}
 	
 	public boolean targetIsEmpty(int x, int y)
 	{
-		return this.mGrid[x][y] == null;
+		return this.mGrid.isEmpty(this.mGrid.index(x, y));
 	}
 	
 	public boolean notStationaryPart(int x, int y)
 	{
-		for(PipeNode s : this.mStarts)
-		{
-			if(s.getGridX() == x && s.getGridY() == y){
-				return false;
-			}
-		}
-		for(PipeNode g : this.mGoals)
-		{
-			if(g.getGridX() == x && g.getGridY() == y){
-				return false;
-			}
-		}
-		return true;
+		return !this.mGrid.isStationary(this.mGrid.index(x, y));
 	}
 	
 	public void shuffleParts(ArrayList<PipeNode> parts)
@@ -350,11 +379,11 @@ public class PipePuzzle
 		/* Start by placing the starts and goals in position.  These won't be randomized */
 		for(int i = 0; i < this.mStarts.size(); i++)
 		{
-			this.mGrid[this.mStarts.get(i).getGridX()][this.mStarts.get(i).getGridY()] = this.mStarts.get(i);
+			this.placePart(this.mStarts.get(i), true);
 		}
 		for(int i = 0; i < this.mGoals.size(); i++)
 		{
-			this.mGrid[this.mGoals.get(i).getGridX()][this.mGoals.get(i).getGridY()] = this.mGoals.get(i);
+			this.placePart(this.mGoals.get(i), true);
 		}
 		
 		/* Make a list of all unoccupied grid squares */
@@ -394,24 +423,20 @@ public class PipePuzzle
 		return;
 	}
 	
+	/**
+	 * Places every part that isn't already on the grid at its current grid coordinates.  There are no references to 
+	 * connect; neighboring parts are linked by their port masks as soon as they occupy the grid.
+	 */
 	public void connectAllParts()
 	{
 		Iterator<PipeNode> iterator = this.mPipeList.iterator();
 		while(iterator.hasNext())
 		{
 			PipeNode node = iterator.next();
-			this.connectPart(node.getGridX(), node.getGridY());
-		}
-		return;
-	}
-	
-	public void disconnectAllParts()
-	{
-		Iterator<PipeNode> iterator = this.mPipeList.iterator();
-		while(iterator.hasNext())
-		{
-			PipeNode node = iterator.next();
-			this.disconnectPart(node.getGridX(), node.getGridY());
+			int index = this.mGrid.index(node.getGridX(), node.getGridY());
+			if(this.mNodes[index] == null){
+				this.placePart(node, false);
+			}
 		}
 		return;
 	}
@@ -421,44 +446,41 @@ public class PipePuzzle
 		Iterator<PipeNode> iterator = this.mPipeList.iterator();
 		while(iterator.hasNext())
 		{
-			PipeNode node = iterator.next();
-			this.mGrid[node.getGridX()][node.getGridY()] = null;
+			this.removePart(iterator.next());
 		}
 		return;
 	}
 	
 	public PipeNode createElbowPart(Object key)
 	{
-		PipeNode n = new PipeNode(new PipeCap(), null, null, new PipeCap(), key);
+		PipeNode n = new PipeNode(PipeGrid.ELBOW, key);
 		return n;
 	}
 	
 	public PipeNode createPipePart(Object key)
 	{
-		PipeNode n = new PipeNode(new PipeCap(), null, new PipeCap(), null, key);
+		PipeNode n = new PipeNode(PipeGrid.PIPE, key);
 		return n;
 	}
 	
 	public PipeNode createTJunctionPart(Object key)
 	{
-		PipeNode n = new PipeNode(null, null, null, new PipeCap(), key);
+		PipeNode n = new PipeNode(PipeGrid.T_JUNCTION, key);
 		return n;
 	}
 	
 	public PipeNode createCrossPart(Object key)
 	{
-		PipeNode n = new PipeNode(null, null, null, null, key);
+		PipeNode n = new PipeNode(PipeGrid.CROSS, key);
 		return n;
 	}
 	
 	public PipeNode createStartPart(Object key, Orientation orientation)
 	{
-		PipeNode node = null;
+		PipeNode node = new PipeNode(PipeGrid.GAUGE, key);
 		if(orientation.equals(Orientation.HORIZONTAL)){
-			node = new PipeNode(new PipeCap(), null, new PipeCap(), null, key);
 			node.setRotationIndex(0); // Zero or two is a horizontal angle.
 		}else{
-			node = new PipeNode(null, new PipeCap(), null, new PipeCap(), key);
 			node.setRotationIndex(1); // One or three is a vertical angle.
 		}
 		return node;
@@ -474,15 +496,53 @@ public class PipePuzzle
 		return this.mGridSize;
 	}
 	
+	public PipeGrid getGrid()
+	{
+		return this.mGrid;
+	}
+	
+	/**
+	 * Replaces every part image at once.  The new maps are filled before they're swapped in, so a render on another 
+	 * thread sees the old images or the new ones, never an empty or half-filled set as with clearPuzzleImages() and 
+	 * addPartImage().
+	 * @param images HashMap of images already sized to the tile width, keyed by ImageKey.
+	 */
+	public void setPuzzleImages(HashMap<Object, BufferedImage> images)
+	{
+		HashMap<Object, BufferedImage> templates = new HashMap<Object, BufferedImage>();
+		HashMap<Object, BufferedImage[]> sprites = new HashMap<Object, BufferedImage[]>();
+		for(Object key : images.keySet())
+		{
+			BufferedImage[] turns = ImageUtils.quarterTurns(images.get(key));
+			sprites.put(key, turns);
+			templates.put(key, turns[0]);
+		}
+		/* Sprites first: a render that reads the new templates then reads the new sprites too. */
+		this.mSprites = sprites;
+		this.mTemplates = templates;
+		this.mBackground = null;
+		return;
+	}
+	
 	public void clearPuzzleImages()
 	{
 		this.mTemplates.clear();
+		this.mSprites.clear();
+		this.mBackground = null;
 		return;
 	}
 	
+	/**
+	 * Keeps the image and its four quarter-turn rotations, so parts are drawn at any rotation with a plain drawImage.
+	 * @param key Object
+	 * @param image BufferedImage already sized to the tile width.
+	 */
 	public void addPartImage(Object key, BufferedImage image)
 	{
-		this.mTemplates.put(key, image);
+		BufferedImage[] sprites = ImageUtils.quarterTurns(image);
+		this.mSprites.put(key, sprites);
+		this.mTemplates.put(key, sprites[0]);
+		this.mBackground = null;
 		return;
 	}
 	
@@ -491,42 +551,114 @@ public class PipePuzzle
 		return this.mTemplates.get(key);
 	}
 	
+	/**
+	 * @param key Object
+	 * @param rotationIndex int quarter turns, as PipeNode.getRotationIndex().
+	 * @return BufferedImage the part's image already turned by the rotation.
+	 */
+	public BufferedImage getPartImage(Object key, int rotationIndex)
+	{
+		return this.mSprites.get(key)[Math.floorMod(rotationIndex, 4)];
+	}
+	
+	/**
+	 * Adds to the region that has to be repainted.
+	 * @param region Rectangle in pixels from the top left corner of the board.
+	 */
+	public synchronized void addDirtyRegion(Rectangle region)
+	{
+		if(this.mDirty == null){
+			this.mDirty = new Rectangle(region);
+		}else{
+			this.mDirty.add(region);
+		}
+		return;
+	}
+	
+	private void addDirtyCell(int gridX, int gridY)
+	{
+		BufferedImage tile = this.mTemplates.get(ImageKey.TILE);
+		if(tile == null){
+			return;
+		}
+		this.addDirtyRegion(new Rectangle(gridX * tile.getWidth(), gridY * tile.getHeight(), tile.getWidth(), tile.getHeight()));
+		return;
+	}
+	
+	/**
+	 * Hands over the squares changed by selecting, moving and rotating parts and by goal lights changing, and starts a 
+	 * new empty region.
+	 * @return Rectangle bounding every change since the last call, in pixels from the top left corner of the board, or 
+	 * null if nothing changed.
+	 */
+	public synchronized Rectangle takeDirtyRegion()
+	{
+		Rectangle dirty = this.mDirty;
+		this.mDirty = null;
+		return dirty;
+	}
+	
 	public Iterator<PipeNode> getIterator()
 	{
 		return this.mPipeList.iterator();
 	}
 	
+	/**
+	 * Lights every goal that shares a component with one of the starts.  Components are kept current by the 
+	 * ConnectivityTracker as parts are placed, moved and rotated, so nothing is traced here.
+	 */
 	public void checkFinished()
 	{
+		Object[] lights = this.getGoalLights();
 		this.clearAllGoalLights();
 		for(PipeNode start : this.mStarts)
 		{
-			ArrayList<PipeNode> path = PipeNodePath.find(start);
-			DisjointSet<PipeNode> dj = new DisjointSet<PipeNode>();
-			dj.createSet(start);
-			Iterator<PipeNode> iterator = this.getIterator();
-			while(iterator.hasNext())
-			{
-				dj.createSet(iterator.next());
-			}
-			for(PipeNode goal : this.mGoals)
-			{
-				dj.createSet(goal);
-			}
-			for(int i = 0; i < path.size() - 1; i++)
+			this.updateGoalLights(this.mGrid.index(start.getGridX(), start.getGridY()));
+		}
+		if(!Arrays.equals(lights, this.getGoalLights())){
+			this.mBackground = null;
+			for(int i = 0; i < lights.length; i++)
 			{
-				dj.union(path.get(i), path.get(i + 1));
+				if(lights[i] != this.mGoals.get(i).getImageKey()){
+					this.addDirtyCell(this.mGoals.get(i).getGridX(), this.mGoals.get(i).getGridY());
+				}
 			}
-			this.updateGoalLights(start, dj);
 		}
 		return;
 	}
 	
-	private void updateGoalLights(PipeNode start, DisjointSet<PipeNode> dj)
+	private Object[] getGoalLights()
 	{
+		Object[] lights = new Object[this.mGoals.size()];
+		for(int i = 0; i < lights.length; i++)
+		{
+			lights[i] = this.mGoals.get(i).getImageKey();
+		}
+		return lights;
+	}
+	
+	/**
+	 * @return boolean true once every goal is lit, as of the last checked change.
+	 */
+	public boolean isFinished()
+	{
+		if(this.mGoals.isEmpty()){
+			return false;
+		}
 		for(PipeNode goal : this.mGoals)
 		{
-			if(dj.findSet(goal) == start){
+			if(goal.getImageKey() != ImageKey.GREEN_GAUGE){
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private void updateGoalLights(int startIndex)
+	{
+		for(PipeNode goal : this.mGoals)
+		{
+			if(this.mTracker.isConnected(startIndex, this.mGrid.index(goal.getGridX(), goal.getGridY()))){
 				goal.setImageKey(ImageKey.GREEN_GAUGE);
 			}
 		}
@@ -544,6 +676,11 @@ public class PipePuzzle
 	
 	public ArrayList<PipeNode> getPath(PipeNode start)
 	{
-		return PipeNodePath.find(start);
+		ArrayList<PipeNode> results = new ArrayList<PipeNode>();
+		for(Integer index : PipeNodePath.find(this.mGrid, this.mGrid.index(start.getGridX(), start.getGridY())))
+		{
+			results.add(this.mNodes[index]);
+		}
+		return results;
 	}
 }
@@ -0,0 +1,685 @@
+package main.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import main.core.util.XMLStreamParser;
+
+/**
+ * Searches for part placements and rotations that connect every start to every goal of a PipePuzzleData, using only
+ * the grid size, the starts and goals and the parts inventory.  A hand-authored solution isn't needed.
+ *
+ * A solution uses every part in the inventory, leaves no open port unmatched (gauges may face off the board) and lights
+ * every goal.  The search grows the network outward from the ports of the starts and goals.  Each placed part adds the
+ * ports it opens to the cells it faces as requirements and the ports it closes as prohibitions, so the candidates of a
+ * cell are the part/rotation pairs whose port mask satisfies both.  The next cell to fill is always the open cell with
+ * the fewest candidates, which places every forced part before any guess is made.
+ *
+ * The package-private methods let ParallelPipeSolver replay a prefix of moves and search the rest of one branch, with
+ * a shared flag that stops every worker once enough solutions have been found.
+ *
+ * @version 1.0 2026-10-17
+ */
+public class PipeSolver
+{
+	private static final int[] PART_TYPES = new int[]{PipeGrid.ELBOW, PipeGrid.PIPE, PipeGrid.T_JUNCTION, PipeGrid.CROSS};
+	private static final int TYPE_COUNT = PipeGrid.GAUGE + 1;
+	
+	/* Rotations of each type with distinct port masks.  A pipe looks the same at 0 and 2, a cross at all four. */
+	private static final int[][] ROTATIONS = new int[TYPE_COUNT][];
+	
+	static
+	{
+		for(int type = 0; type < TYPE_COUNT; type++)
+		{
+			int[] found = new int[4];
+			int count = 0;
+			for(int rotation = 0; rotation < 4; rotation++)
+			{
+				boolean duplicate = false;
+				for(int i = 0; i < count; i++)
+				{
+					if(PipeGrid.getPortsFor(type, found[i]) == PipeGrid.getPortsFor(type, rotation)){
+						duplicate = true;
+					}
+				}
+				if(!duplicate){
+					found[count++] = rotation;
+				}
+			}
+			ROTATIONS[type] = Arrays.copyOf(found, count);
+		}
+	}
+	
+	private PipePuzzleData mData = null;
+	private PipeGrid mGrid = null;
+	private PipeNodePath mPath = new PipeNodePath();
+	private int[] mRequired = null;
+	private int[] mForbidden = null;
+	private int[] mInventory = new int[TYPE_COUNT];
+	private int[] mStarts = null;
+	private int[] mGoals = null;
+	private int mOpenCells = 0;
+	private int mOpenPorts = 0;
+	private int mPartsLeft = 0;
+	private int mPortsLeft = 0;
+	private int mSolutionLimit = 1;
+	private long mNodeLimit = Long.MAX_VALUE;
+	private boolean mLimitReached = false;
+	private ArrayList<ArrayList<SolutionData>> mSolutions = new ArrayList<ArrayList<SolutionData>>();
+	private AtomicInteger mSharedCount = null;
+	private AtomicBoolean mCancelled = null;
+	
+	private long mNodes = 0L;
+	private long mBacktracks = 0L;
+	private long mForced = 0L;
+	private long mBranchPoints = 0L;
+	private long mBranchTotal = 0L;
+	private long mElapsed = 0L;
+	
+	public PipeSolver(PipePuzzleData data)
+	{
+		this.mData = data;
+		return;
+	}
+	
+	/**
+	 * @return ArrayList of SolutionData describing the first solution found, or null if the puzzle can't be solved.
+	 */
+	public ArrayList<SolutionData> solve()
+	{
+		ArrayList<ArrayList<SolutionData>> results = this.solveAll(1);
+		return results.isEmpty() ? null : results.get(0);
+	}
+	
+	/**
+	 * @param limit int maximum number of solutions to collect.
+	 * @return ArrayList of distinct solutions, each one a list of SolutionData.
+	 */
+	public ArrayList<ArrayList<SolutionData>> solveAll(int limit)
+	{
+		long start = System.nanoTime();
+		this.mSolutionLimit = limit;
+		this.mSolutions.clear();
+		this.resetStatistics();
+		if(this.initialize()){
+			this.search();
+		}
+		this.mElapsed = System.nanoTime() - start;
+		return new ArrayList<ArrayList<SolutionData>>(this.mSolutions);
+	}
+	
+	void resetStatistics()
+	{
+		this.mNodes = 0L;
+		this.mBacktracks = 0L;
+		this.mForced = 0L;
+		this.mBranchPoints = 0L;
+		this.mBranchTotal = 0L;
+		this.mElapsed = 0L;
+		this.mLimitReached = false;
+		return;
+	}
+	
+	/**
+	 * Caps the work a single solve may do.  A search that reaches the cap stops early and reports isLimitReached().
+	 * @param limit long maximum number of nodes.
+	 */
+	public void setNodeLimit(long limit)
+	{
+		this.mNodeLimit = limit;
+		return;
+	}
+	
+	/**
+	 * @return boolean true if the last solve stopped at the node limit, so finding fewer solutions than asked for
+	 * doesn't prove there are no more.
+	 */
+	public boolean isLimitReached()
+	{
+		return this.mLimitReached;
+	}
+	
+	/**
+	 * Lets several solvers work on branches of the same puzzle.  Each solution found is counted in the shared total, and
+	 * the flag is raised once the total reaches the limit so that every solver sharing it unwinds.
+	 * @param limit int total number of solutions wanted across all solvers.
+	 * @param count AtomicInteger shared solution count.
+	 * @param cancelled AtomicBoolean shared stop flag.
+	 */
+	void share(int limit, AtomicInteger count, AtomicBoolean cancelled)
+	{
+		this.mSolutionLimit = limit;
+		this.mSharedCount = count;
+		this.mCancelled = cancelled;
+		return;
+	}
+	
+	/**
+	 * Searches every completion of the current board, after initialize() and any apply() calls.
+	 * @return ArrayList of the solutions this solver found.  The solver's own list is emptied.
+	 */
+	ArrayList<ArrayList<SolutionData>> searchBranch()
+	{
+		this.search();
+		return this.takeSolutions();
+	}
+	
+	ArrayList<ArrayList<SolutionData>> takeSolutions()
+	{
+		ArrayList<ArrayList<SolutionData>> results = new ArrayList<ArrayList<SolutionData>>(this.mSolutions);
+		this.mSolutions.clear();
+		return results;
+	}
+	
+	/**
+	 * Places a part as a move of the search, counting it as a node.
+	 * @param move int cell, type and rotation packed by encodeMove().
+	 */
+	void apply(int move)
+	{
+		this.mNodes++;
+		this.replay(move);
+		return;
+	}
+	
+	/**
+	 * Places a part that an earlier search step already counted.
+	 * @param move int cell, type and rotation packed by encodeMove().
+	 */
+	void replay(int move)
+	{
+		this.place(move >>> 5, (move >>> 2) & 0x7, move & 0x3);
+		return;
+	}
+	
+	static int encodeMove(int index, int type, int rotation)
+	{
+		return (index << 5) | (type << 2) | rotation;
+	}
+	
+	/**
+	 * @return int the open cell with the fewest candidates, or -1 if the board is complete or can't be completed.
+	 */
+	int selectCell()
+	{
+		if(this.mOpenCells == 0){
+			return -1;
+		}
+		
+		/* Every open cell needs a part of its own, and every open port must be met by one of the remaining ports. */
+		if(this.mOpenCells > this.mPartsLeft || this.mOpenPorts > this.mPortsLeft){
+			return -1;
+		}
+		
+		int cell = -1;
+		int best = Integer.MAX_VALUE;
+		for(int index = 0; index < this.mRequired.length; index++)
+		{
+			if(this.mRequired[index] == 0 || !this.mGrid.isEmpty(index)){
+				continue;
+			}
+			int count = this.countCandidates(index, best);
+			if(count < best){
+				best = count;
+				cell = index;
+				if(count <= 1){
+					break;
+				}
+			}
+		}
+		if(best == 0){
+			return -1;
+		}
+		if(best == 1){
+			this.mForced++;
+		}else{
+			this.mBranchPoints++;
+			this.mBranchTotal += best;
+		}
+		return cell;
+	}
+	
+	/**
+	 * @param index int cell.
+	 * @return int[] every move that fits the cell, packed by encodeMove().
+	 */
+	int[] getMoves(int index)
+	{
+		int[] moves = new int[16];
+		int count = 0;
+		for(int type : PART_TYPES)
+		{
+			if(this.mInventory[type] <= 0){
+				continue;
+			}
+			for(int rotation : ROTATIONS[type])
+			{
+				if(this.fits(index, type, rotation)){
+					moves[count++] = encodeMove(index, type, rotation);
+				}
+			}
+		}
+		return Arrays.copyOf(moves, count);
+	}
+	
+	/**
+	 * Records the board as a solution if it is one.
+	 * @return boolean true if the board is a solution.
+	 */
+	boolean checkSolution()
+	{
+		if(this.mOpenCells != 0 || this.mPartsLeft != 0 || !this.goalsLit()){
+			return false;
+		}
+		this.mSolutions.add(this.createSolution());
+		return true;
+	}
+	
+	/**
+	 * Places a list of parts on an empty board and checks it the same way the game lights its goals.
+	 * @param data PipePuzzleData supplying the grid, starts and goals.
+	 * @param solution List of SolutionData to check.
+	 * @return boolean true if every goal is connected to a start.
+	 */
+	public static boolean isSolution(PipePuzzleData data, List<SolutionData> solution)
+	{
+		if(solution == null || solution.isEmpty()){
+			return false;
+		}
+		PipeGrid grid = new PipeGrid(data.size);
+		placeGauges(grid, data);
+		for(SolutionData s : solution)
+		{
+			int type = getTypeForKey(s.type);
+			if(type == PipeGrid.EMPTY || !grid.contains(s.x, s.y) || !grid.isEmpty(grid.index(s.x, s.y))){
+				return false;
+			}
+			PipeNode node = new PipeNode(type, s.type);
+			node.setRotation(s.angle);
+			grid.set(grid.index(s.x, s.y), type, node.getRotationIndex(), false);
+		}
+		ConnectivityTracker tracker = new ConnectivityTracker(grid);
+		for(PipePuzzleData.StartGoal g : data.goals)
+		{
+			boolean lit = false;
+			for(PipePuzzleData.StartGoal s : data.starts)
+			{
+				lit |= tracker.isConnected(grid.index(s.x, s.y), grid.index(g.x, g.y));
+			}
+			if(!lit){
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	public static int getTypeForKey(Object key)
+	{
+		if(PipePuzzle.ImageKey.ELBOW.equals(key)){
+			return PipeGrid.ELBOW;
+		}else if(PipePuzzle.ImageKey.PIPE.equals(key)){
+			return PipeGrid.PIPE;
+		}else if(PipePuzzle.ImageKey.T_JUNCTION.equals(key)){
+			return PipeGrid.T_JUNCTION;
+		}else if(PipePuzzle.ImageKey.CROSS.equals(key)){
+			return PipeGrid.CROSS;
+		}
+		return PipeGrid.EMPTY;
+	}
+	
+	public static PipePuzzle.ImageKey getKeyForType(int type)
+	{
+		switch(type)
+		{
+			case PipeGrid.ELBOW:
+				return PipePuzzle.ImageKey.ELBOW;
+			case PipeGrid.PIPE:
+				return PipePuzzle.ImageKey.PIPE;
+			case PipeGrid.T_JUNCTION:
+				return PipePuzzle.ImageKey.T_JUNCTION;
+			case PipeGrid.CROSS:
+				return PipePuzzle.ImageKey.CROSS;
+			default:
+				return null;
+		}
+	}
+	
+	private static void placeGauges(PipeGrid grid, PipePuzzleData data)
+	{
+		for(PipePuzzleData.StartGoal s : data.starts)
+		{
+			grid.set(grid.index(s.x, s.y), PipeGrid.GAUGE, getGaugeRotation(s), true);
+		}
+		for(PipePuzzleData.StartGoal g : data.goals)
+		{
+			grid.set(grid.index(g.x, g.y), PipeGrid.GAUGE, getGaugeRotation(g), true);
+		}
+		return;
+	}
+	
+	private static int getGaugeRotation(PipePuzzleData.StartGoal gauge)
+	{
+		return PipePuzzle.Orientation.VERTICAL.equals(gauge.orientation) ? 1 : 0;
+	}
+	
+	boolean initialize()
+	{
+		int size = this.mData.size;
+		this.mGrid = new PipeGrid(size);
+		this.mRequired = new int[size * size];
+		this.mForbidden = new int[size * size];
+		this.mOpenCells = 0;
+		this.mOpenPorts = 0;
+		
+		/* Ports may never face off the board. */
+		for(int index = 0; index < this.mForbidden.length; index++)
+		{
+			for(int direction = PipeGrid.NORTH; direction <= PipeGrid.WEST; direction++)
+			{
+				if(this.mGrid.getNeighbor(index, direction) < 0){
+					this.mForbidden[index] |= 1 << direction;
+				}
+			}
+		}
+		
+		placeGauges(this.mGrid, this.mData);
+		this.mStarts = new int[this.mData.starts.size()];
+		for(int i = 0; i < this.mStarts.length; i++)
+		{
+			this.mStarts[i] = this.mGrid.index(this.mData.starts.get(i).x, this.mData.starts.get(i).y);
+		}
+		this.mGoals = new int[this.mData.goals.size()];
+		for(int i = 0; i < this.mGoals.length; i++)
+		{
+			this.mGoals[i] = this.mGrid.index(this.mData.goals.get(i).x, this.mData.goals.get(i).y);
+		}
+		for(int index : this.mStarts)
+		{
+			this.constrainNeighbors(index, true);
+		}
+		for(int index : this.mGoals)
+		{
+			this.constrainNeighbors(index, true);
+		}
+		
+		Arrays.fill(this.mInventory, 0);
+		this.mInventory[PipeGrid.ELBOW] = this.mData.elbows;
+		this.mInventory[PipeGrid.PIPE] = this.mData.pipes;
+		this.mInventory[PipeGrid.T_JUNCTION] = this.mData.tJunctions;
+		this.mInventory[PipeGrid.CROSS] = this.mData.crosses;
+		this.mPartsLeft = 0;
+		this.mPortsLeft = 0;
+		for(int type : PART_TYPES)
+		{
+			this.mPartsLeft += this.mInventory[type];
+			this.mPortsLeft += this.mInventory[type] * Integer.bitCount(PipeGrid.getPortsFor(type, 0));
+		}
+		return this.mStarts.length > 0 && this.mGoals.length > 0;
+	}
+	
+	/**
+	 * Pushes the ports of an occupied cell onto its undecided neighbors: an open port requires the facing port, a closed
+	 * port prohibits it.
+	 * @param index int occupied cell.
+	 * @param add boolean true when the cell was just occupied, false when it's being vacated.
+	 */
+	private void constrainNeighbors(int index, boolean add)
+	{
+		int ports = this.mGrid.getPorts(index);
+		for(int direction = PipeGrid.NORTH; direction <= PipeGrid.WEST; direction++)
+		{
+			int neighbor = this.mGrid.getNeighbor(index, direction);
+			if(neighbor < 0 || !this.mGrid.isEmpty(neighbor)){
+				continue;
+			}
+			int facing = 1 << PipeGrid.opposite(direction);
+			if((ports & (1 << direction)) != 0){
+				boolean wasOpen = this.mRequired[neighbor] != 0;
+				this.mRequired[neighbor] = add ? this.mRequired[neighbor] | facing : this.mRequired[neighbor] & ~facing;
+				boolean isOpen = this.mRequired[neighbor] != 0;
+				this.mOpenCells += (isOpen ? 1 : 0) - (wasOpen ? 1 : 0);
+				this.mOpenPorts += add ? 1 : -1;
+			}else{
+				this.mForbidden[neighbor] = add ? this.mForbidden[neighbor] | facing : this.mForbidden[neighbor] & ~facing;
+			}
+		}
+		return;
+	}
+	
+	/**
+	 * @return boolean true once the search should stop, either because enough solutions were found here or because
+	 * another solver sharing the stop flag raised it.
+	 */
+	private boolean search()
+	{
+		if(this.mCancelled != null && this.mCancelled.get()){
+			return true;
+		}
+		if(this.mNodes >= this.mNodeLimit){
+			this.mLimitReached = true;
+			return true;
+		}
+		if(this.mOpenCells == 0){
+			if(this.checkSolution()){
+				return this.solutionFound();
+			}
+			return false;
+		}
+		
+		int cell = this.selectCell();
+		if(cell < 0){
+			return false;
+		}
+		
+		for(int type : PART_TYPES)
+		{
+			if(this.mInventory[type] <= 0){
+				continue;
+			}
+			for(int rotation : ROTATIONS[type])
+			{
+				if(!this.fits(cell, type, rotation)){
+					continue;
+				}
+				this.mNodes++;
+				this.place(cell, type, rotation);
+				boolean done = this.search();
+				this.remove(cell, type);
+				if(done){
+					return true;
+				}
+				this.mBacktracks++;
+			}
+		}
+		return false;
+	}
+	
+	private int countCandidates(int index, int limit)
+	{
+		int count = 0;
+		for(int type : PART_TYPES)
+		{
+			if(this.mInventory[type] <= 0){
+				continue;
+			}
+			for(int rotation : ROTATIONS[type])
+			{
+				if(this.fits(index, type, rotation)){
+					count++;
+					if(count >= limit){
+						return count;
+					}
+				}
+			}
+		}
+		return count;
+	}
+	
+	private boolean fits(int index, int type, int rotation)
+	{
+		int ports = PipeGrid.getPortsFor(type, rotation);
+		return (ports & this.mRequired[index]) == this.mRequired[index] && (ports & this.mForbidden[index]) == 0;
+	}
+	
+	private boolean solutionFound()
+	{
+		if(this.mSharedCount == null){
+			return this.mSolutions.size() >= this.mSolutionLimit;
+		}
+		if(this.mSharedCount.incrementAndGet() >= this.mSolutionLimit){
+			this.mCancelled.set(true);
+			return true;
+		}
+		return false;
+	}
+	
+	private void place(int index, int type, int rotation)
+	{
+		if(this.mRequired[index] != 0){
+			this.mOpenCells--;
+			this.mOpenPorts -= Integer.bitCount(this.mRequired[index]);
+		}
+		this.mGrid.set(index, type, rotation, false);
+		this.mInventory[type]--;
+		this.mPartsLeft--;
+		this.mPortsLeft -= Integer.bitCount(PipeGrid.getPortsFor(type, 0));
+		this.constrainNeighbors(index, true);
+		return;
+	}
+	
+	private void remove(int index, int type)
+	{
+		this.constrainNeighbors(index, false);
+		this.mGrid.clear(index);
+		this.mInventory[type]++;
+		this.mPartsLeft++;
+		this.mPortsLeft += Integer.bitCount(PipeGrid.getPortsFor(type, 0));
+		if(this.mRequired[index] != 0){
+			this.mOpenCells++;
+			this.mOpenPorts += Integer.bitCount(this.mRequired[index]);
+		}
+		return;
+	}
+	
+	private boolean goalsLit()
+	{
+		final boolean[] lit = new boolean[1];
+		PipeNodePath.Visitor visitor = new PipeNodePath.Visitor()
+		{
+			@Override
+			public boolean visit(int index)
+			{
+				for(int start : mStarts)
+				{
+					if(index == start){
+						lit[0] = true;
+					}
+				}
+				return !lit[0];
+			}
+		};
+		for(int goal : this.mGoals)
+		{
+			lit[0] = false;
+			this.mPath.traverse(this.mGrid, goal, visitor);
+			if(!lit[0]){
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private ArrayList<SolutionData> createSolution()
+	{
+		ArrayList<SolutionData> solution = new ArrayList<SolutionData>();
+		for(int index = 0; index < this.mGrid.getCellCount(); index++)
+		{
+			int type = this.mGrid.getType(index);
+			if(type == PipeGrid.EMPTY || type == PipeGrid.GAUGE){
+				continue;
+			}
+			SolutionData s = new SolutionData();
+			s.type = getKeyForType(type);
+			s.x = this.mGrid.getX(index);
+			s.y = this.mGrid.getY(index);
+			s.angle = this.mGrid.getRotation(index) * 0.5;
+			solution.add(s);
+		}
+		return solution;
+	}
+	
+	public long getNodes()
+	{
+		return this.mNodes;
+	}
+	
+	public long getBacktracks()
+	{
+		return this.mBacktracks;
+	}
+	
+	/**
+	 * @return long number of placements made without a choice, because the most constrained cell had one candidate.
+	 */
+	public long getForced()
+	{
+		return this.mForced;
+	}
+	
+	/**
+	 * @return double average number of candidates at the cells where a choice had to be made.
+	 */
+	public double getBranchingFactor()
+	{
+		return this.mBranchPoints == 0L ? 1.0 : this.mBranchTotal / (double)this.mBranchPoints;
+	}
+	
+	long getBranchPoints()
+	{
+		return this.mBranchPoints;
+	}
+	
+	long getBranchTotal()
+	{
+		return this.mBranchTotal;
+	}
+	
+	public long getElapsedNanos()
+	{
+		return this.mElapsed;
+	}
+	
+	public double getNodesPerSecond()
+	{
+		return this.mElapsed <= 0L ? 0.0 : this.mNodes / (this.mElapsed / 1.0E9);
+	}
+	
+	public String getReport()
+	{
+		return String.format("%d nodes, %d backtracks, %d forced, branching %.2f, %.3f ms, %.0f nodes/s",
+				this.mNodes, this.mBacktracks, this.mForced, this.getBranchingFactor(), this.mElapsed / 1.0E6, this.getNodesPerSecond());
+	}
+	
+	/**
+	 * Solves every puzzle in the given data files and reports the search statistics.
+	 * Usage: java main.core.PipeSolver /data/easy_puzzle.xml [...]
+	 */
+	public static void main(String[] args)
+	{
+		for(String path : args)
+		{
+			ArrayList<PipePuzzleData> puzzles = new XMLStreamPuzzles(XMLStreamParser.openResource(path)).read();
+			for(int i = 0; i < puzzles.size(); i++)
+			{
+				PipeSolver solver = new PipeSolver(puzzles.get(i));
+				ArrayList<SolutionData> solution = solver.solve();
+				System.out.println(path + " #" + (i + 1) + ": " + (solution == null ? "no solution" : "solved") + ", " + solver.getReport());
+			}
+		}
+		return;
+	}
+}
@@ -0,0 +1,405 @@
+package main.core;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.TreeMap;
+
+import main.core.util.Pipeline;
+
+/**
+ * Command-line tool that produces puzzle files in bulk.
+ *
+ * Puzzles flow through five stages joined by bounded queues: generate, verify that the solver can solve them from the
+ * parts inventory alone, check whether the solution is unique, rate the difficulty, and write them out.  Each stage
+ * has its own threads, and the bounded queues hold the earlier stages back whenever a later one falls behind, so memory
+ * use doesn't grow with the size of the run.  Output goes to one file per difficulty in the layout XMLStreamPuzzles
+ * reads, and a table of per-stage throughput is printed at the end.
+ *
+ * Every puzzle is generated from a Random seeded with the seed plus its ticket number, and the serialize stage writes
+ * them in ticket order whatever order the threads finish them in, so the same seed always gives the same files.  For
+ * that, a puzzle turned down by a stage is marked with the reason and carried through to the serialize stage rather
+ * than dropped, and the reasons are counted at the end.  A generated puzzle always has a solution, so one the solver
+ * can't verify within the node limit is counted as over the limit, not as a failure.
+ *
+ * The default difficulty thresholds suit the bundled puzzles, not a batch of one grid size, so the first puzzles of
+ * the batch are held back as a sample and the rater is calibrated on them before anything is written.  The thresholds
+ * used are printed at the end.  -calibrate 0 keeps the defaults.
+ *
+ * Usage: java main.core.PuzzleBatch [-count n] [-size n] [-starts n] [-goals n] [-threads n] [-capacity n]
+ *                                    [-nodes n] [-unique] [-seed n] [-calibrate n] [-out directory]
+ *
+ * @version 1.0 2026-10-17
+ */
+public class PuzzleBatch
+{
+	private int mCount = 1000;
+	private int mSize = 8;
+	private int mMaxStarts = 2;
+	private int mMaxGoals = 3;
+	private int mThreads = Runtime.getRuntime().availableProcessors();
+	private int mCapacity = 64;
+	private long mNodeLimit = 200000L;
+	private boolean mUniqueOnly = false;
+	private long mSeed = System.nanoTime();
+	private String mOutput = "batch";
+	private int mCalibration = 300;
+	private DifficultyRater mRater = null;
+	private ArrayList<Job> mSample = new ArrayList<Job>();
+	private EnumMap<Difficulty, XMLWritePuzzles> mWriters = new EnumMap<Difficulty, XMLWritePuzzles>(Difficulty.class);
+	private EnumMap<Rejection, Integer> mRejections = new EnumMap<Rejection, Integer>(Rejection.class);
+	private TreeMap<Integer, Job> mPending = new TreeMap<Integer, Job>();
+	private int mNextTicket = 0;
+	
+	private enum Rejection
+	{
+		INVALID("generated solution doesn't light every goal"),
+		UNSOLVABLE("no solution from the parts inventory"),
+		NODE_LIMIT("over the node limit, solvable but not verified"),
+		NOT_UNIQUE("more than one solution"),
+		ERROR("failed with an exception");
+		
+		private String mCaption = "";
+		
+		private Rejection(String caption)
+		{
+			this.mCaption = caption;
+			return;
+		}
+		
+		public String getCaption()
+		{
+			return this.mCaption;
+		}
+	}
+	
+	public PuzzleBatch(String[] args)
+	{
+		for(int i = 0; i < args.length; i++)
+		{
+			if(args[i].equals("-count")){
+				this.mCount = Integer.parseInt(args[++i]);
+			}else if(args[i].equals("-size")){
+				this.mSize = Integer.parseInt(args[++i]);
+			}else if(args[i].equals("-starts")){
+				this.mMaxStarts = Integer.parseInt(args[++i]);
+			}else if(args[i].equals("-goals")){
+				this.mMaxGoals = Integer.parseInt(args[++i]);
+			}else if(args[i].equals("-threads")){
+				this.mThreads = Integer.parseInt(args[++i]);
+			}else if(args[i].equals("-capacity")){
+				this.mCapacity = Integer.parseInt(args[++i]);
+			}else if(args[i].equals("-nodes")){
+				this.mNodeLimit = Long.parseLong(args[++i]);
+			}else if(args[i].equals("-unique")){
+				this.mUniqueOnly = true;
+			}else if(args[i].equals("-seed")){
+				this.mSeed = Long.parseLong(args[++i]);
+			}else if(args[i].equals("-calibrate")){
+				this.mCalibration = Integer.parseInt(args[++i]);
+			}else if(args[i].equals("-out")){
+				this.mOutput = args[++i];
+			}else{
+				throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+		this.mRater = new DifficultyRater(this.mNodeLimit);
+		return;
+	}
+	
+	public void run()
+	{
+		new File(this.mOutput).mkdirs();
+		Pipeline pipeline = new Pipeline(this.mCapacity);
+		pipeline.addStage("generate", this.mThreads, this.createGenerateStep());
+		pipeline.addStage("verify", this.mThreads, guard(this.createVerifyStep()));
+		pipeline.addStage("uniqueness", this.mThreads, guard(this.createUniquenessStep()));
+		pipeline.addStage("rate", this.mThreads, guard(this.createRateStep()));
+		/* Files are written in order by a single thread. */
+		pipeline.addStage("serialize", 1, this.createSerializeStep());
+		pipeline.run(this.createSource());
+		this.flushPending();
+		this.closeWriters();
+		
+		System.out.println(pipeline.getReport());
+		System.out.println(String.format("%d puzzles requested in %.1f ms", this.mCount, pipeline.getElapsedNanos() / 1.0E6));
+		System.out.println(String.format("Difficulty thresholds %.2f and %.2f", this.mRater.getMediumThreshold(), this.mRater.getHardThreshold()));
+		for(Difficulty difficulty : this.mWriters.keySet())
+		{
+			System.out.println(String.format("%-8s %8d puzzles", difficulty.name(), this.mWriters.get(difficulty).getCount()));
+		}
+		for(Rejection rejection : this.mRejections.keySet())
+		{
+			System.out.println(String.format("%-8s %8d %s", "skipped", this.mRejections.get(rejection), rejection.getCaption()));
+		}
+		return;
+	}
+	
+	private Iterator<Integer> createSource()
+	{
+		return new Iterator<Integer>()
+		{
+			private int mNext = 0;
+			
+			@Override
+			public boolean hasNext()
+			{
+				return this.mNext < mCount;
+			}
+			
+			@Override
+			public Integer next()
+			{
+				return this.mNext++;
+			}
+		};
+	}
+	
+	private Pipeline.Step<Integer, Job> createGenerateStep()
+	{
+		return new Pipeline.Step<Integer, Job>()
+		{
+			@Override
+			public Job process(Integer ticket)
+			{
+				try{
+					/* Everything about the puzzle comes from its own Random, so it doesn't matter which thread makes it. */
+					Random random = new Random(mSeed + ticket);
+					int starts = 1 + random.nextInt(Math.min(mMaxStarts, mSize));
+					int goals = 1 + random.nextInt(Math.min(mMaxGoals, mSize));
+					return new Job(ticket, new PuzzleGenerator(random).generate(mSize, starts, goals));
+				}catch(Exception ex){
+					ex.printStackTrace();
+					Job job = new Job(ticket, null);
+					job.rejection = Rejection.ERROR;
+					return job;
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Turns an exception thrown by the step into an ERROR rejection, so the job still reaches the serialize stage.  A 
+	 * ticket that never arrived there would hold back every ticket after it until the end of the run.
+	 */
+	private static Pipeline.Step<Job, Job> guard(final Pipeline.Step<Job, Job> step)
+	{
+		return new Pipeline.Step<Job, Job>()
+		{
+			@Override
+			public Job process(Job job)
+			{
+				if(job.rejection != null){
+					return job;
+				}
+				try{
+					return step.process(job);
+				}catch(Exception ex){
+					ex.printStackTrace();
+					job.solver = null;
+					job.rejection = Rejection.ERROR;
+					return job;
+				}
+			}
+		};
+	}
+	
+	/**
+	 * The generated solution must light every goal, and the solver must find a solution of its own from the parts
+	 * inventory within the node limit.
+	 */
+	private Pipeline.Step<Job, Job> createVerifyStep()
+	{
+		return new Pipeline.Step<Job, Job>()
+		{
+			@Override
+			public Job process(Job job)
+			{
+				if(!PipeSolver.isSolution(job.data, job.data.solution)){
+					job.rejection = Rejection.INVALID;
+					return job;
+				}
+				PipeSolver solver = new PipeSolver(job.data);
+				solver.setNodeLimit(mNodeLimit);
+				if(solver.solve() == null){
+					job.rejection = solver.isLimitReached() ? Rejection.NODE_LIMIT : Rejection.UNSOLVABLE;
+					return job;
+				}
+				job.solver = solver;
+				return job;
+			}
+		};
+	}
+	
+	private Pipeline.Step<Job, Job> createUniquenessStep()
+	{
+		return new Pipeline.Step<Job, Job>()
+		{
+			@Override
+			public Job process(Job job)
+			{
+				PipeSolver solver = new PipeSolver(job.data);
+				solver.setNodeLimit(mNodeLimit);
+				job.unique = solver.solveAll(2).size() == 1 && !solver.isLimitReached();
+				if(mUniqueOnly && !job.unique){
+					job.rejection = Rejection.NOT_UNIQUE;
+				}
+				return job;
+			}
+		};
+	}
+	
+	/**
+	 * Rates from the statistics of the solve already run by the verify stage, so nothing is solved twice.  The tier is
+	 * set again when the puzzle is written, against the calibrated thresholds.
+	 */
+	private Pipeline.Step<Job, Job> createRateStep()
+	{
+		return new Pipeline.Step<Job, Job>()
+		{
+			@Override
+			public Job process(Job job)
+			{
+				job.rating = mRater.rate(job.data, job.solver);
+				job.solver = null;
+				return job;
+			}
+		};
+	}
+	
+	private Pipeline.Step<Job, Job> createSerializeStep()
+	{
+		return new Pipeline.Step<Job, Job>()
+		{
+			@Override
+			public Job process(Job job)
+			{
+				/* Held until every earlier ticket has been written.  write() doesn't throw, so the next ticket always moves on. */
+				mPending.put(job.ticket, job);
+				while(!mPending.isEmpty() && mPending.firstKey() == mNextTicket)
+				{
+					write(mPending.remove(mNextTicket));
+					mNextTicket++;
+				}
+				return job;
+			}
+		};
+	}
+	
+	/**
+	 * Writes whatever is still held after the run: tickets after one a worker lost to an Error, and the calibration
+	 * sample if the batch was smaller than it.
+	 */
+	private void flushPending()
+	{
+		while(!this.mPending.isEmpty())
+		{
+			this.write(this.mPending.remove(this.mPending.firstKey()));
+		}
+		this.writeSample();
+		return;
+	}
+	
+	/**
+	 * Called in ticket order.  Until the sample is full, accepted puzzles are only collected.  A puzzle that can't be 
+	 * written is counted as an ERROR rather than thrown, so it can't hold back the tickets after it.
+	 */
+	private void write(Job job)
+	{
+		if(job.rejection != null){
+			this.countRejection(job.rejection);
+			return;
+		}
+		if(this.mSample != null){
+			this.mSample.add(job);
+			if(this.mSample.size() >= this.mCalibration){
+				this.writeSample();
+			}
+			return;
+		}
+		try{
+			XMLWritePuzzles writer = this.mWriters.get(this.mRater.classify(job.rating));
+			if(writer == null){
+				String name = job.rating.difficulty.name().toLowerCase() + "_puzzle.xml";
+				writer = new XMLWritePuzzles(new File(this.mOutput, name).getPath());
+				this.mWriters.put(job.rating.difficulty, writer);
+			}
+			job.data.dev_id = writer.getCount() + 1;
+			writer.write(job.data);
+		}catch(Exception ex){
+			ex.printStackTrace();
+			this.countRejection(Rejection.ERROR);
+		}
+		return;
+	}
+	
+	private void countRejection(Rejection rejection)
+	{
+		Integer count = this.mRejections.get(rejection);
+		this.mRejections.put(rejection, count == null ? 1 : count + 1);
+		return;
+	}
+	
+	/**
+	 * Calibrates the rater on the sample, then writes the sample and everything after it directly.
+	 */
+	private void writeSample()
+	{
+		if(this.mSample == null){
+			return;
+		}
+		ArrayList<Job> sample = this.mSample;
+		this.mSample = null;
+		if(this.mCalibration > 0){
+			ArrayList<DifficultyRater.Rating> ratings = new ArrayList<DifficultyRater.Rating>(sample.size());
+			for(Job job : sample)
+			{
+				ratings.add(job.rating);
+			}
+			this.mRater.calibrate(ratings);
+		}
+		for(Job job : sample)
+		{
+			this.write(job);
+		}
+		return;
+	}
+	
+	private void closeWriters()
+	{
+		for(XMLWritePuzzles writer : this.mWriters.values())
+		{
+			try{
+				writer.close();
+			}catch(Exception ex){
+				ex.printStackTrace();
+			}
+		}
+		return;
+	}
+	
+	private static class Job
+	{
+		public int ticket = 0;
+		public PipePuzzleData data = null;
+		public PipeSolver solver = null;
+		public boolean unique = false;
+		public DifficultyRater.Rating rating = null;
+		public Rejection rejection = null;
+		
+		public Job(int ticket, PipePuzzleData data)
+		{
+			this.ticket = ticket;
+			this.data = data;
+			return;
+		}
+	}
+	
+	public static void main(String[] args)
+	{
+		new PuzzleBatch(args).run();
+		return;
+	}
+}
@@ -0,0 +1,167 @@
+package main.core;
+
+import java.io.File;
+import java.net.URL;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+
+import main.core.util.XMLStreamParser;
+
+/**
+ * The puzzle file of each Difficulty, opened the first time the difficulty is asked for.
+ *
+ * A path may name a puzzle file or a PuzzlePack.  A puzzle file on the file system is read through the pack converted
+ * from it, if there is one next to it that is at least as new, and otherwise through its PuzzleIndex, so only the
+ * puzzle being loaded is read and decoded.  Puzzle files that are only reachable as resources, such as inside a jar,
+ * are parsed in full once and kept.
+ *
+ * Before a source is used, it is asked whether its file has changed since it was opened; a pack is also asked about
+ * the puzzle file it was converted from.  If either has, the file is opened again, so editing a puzzle file while the
+ * game is running still shows up, but moving between puzzles costs a file check or two and the read of one puzzle
+ * instead of a full parse.
+ *
+ * @version 1.2 2026-10-17
+ *
+ * Version 1.1 Reads puzzles through a PuzzleSource per file instead of keeping every parsed puzzle.
+ * Version 1.2 Prefers a PuzzlePack over the puzzle file it was converted from.
+ */
+public class PuzzleCatalog
+{
+	private HashMap<Difficulty, String> mPaths = null;
+	private EnumMap<Difficulty, PuzzleSource> mSources = new EnumMap<Difficulty, PuzzleSource>(Difficulty.class);
+	private int mLoads = 0;
+	
+	/**
+	 * @param paths HashMap of resource paths to the puzzle file of each difficulty.
+	 */
+	public PuzzleCatalog(HashMap<Difficulty, String> paths)
+	{
+		this.mPaths = paths;
+		return;
+	}
+	
+	/**
+	 * @param dif Difficulty
+	 * @return PuzzleSource of the difficulty's file, opened again if the file has changed.
+	 */
+	public synchronized PuzzleSource getSource(Difficulty dif)
+	{
+		PuzzleSource source = this.mSources.get(dif);
+		if(source == null || source.isStale()){
+			source = this.load(dif);
+			this.mSources.put(dif, source);
+		}
+		return source;
+	}
+	
+	/**
+	 * @param dif Difficulty
+	 * @param index int zero-based puzzle number, clamped to the puzzles available.
+	 * @return PipePuzzleData, or null if the difficulty has no puzzles.
+	 */
+	public PipePuzzleData get(Difficulty dif, int index)
+	{
+		PuzzleSource source = this.getSource(dif);
+		if(source.size() == 0){
+			return null;
+		}
+		return source.get(Math.max(0, Math.min(source.size() - 1, index)));
+	}
+	
+	public int size(Difficulty dif)
+	{
+		return this.getSource(dif).size();
+	}
+	
+	/**
+	 * Drops the open source so the next request opens the file again.
+	 * @param dif Difficulty
+	 */
+	public synchronized void invalidate(Difficulty dif)
+	{
+		this.mSources.remove(dif);
+		return;
+	}
+	
+	public synchronized void invalidateAll()
+	{
+		this.mSources.clear();
+		return;
+	}
+	
+	/**
+	 * @return int number of times a puzzle file has been opened.
+	 */
+	public synchronized int getLoadCount()
+	{
+		return this.mLoads;
+	}
+	
+	private PuzzleSource load(Difficulty dif)
+	{
+		this.mLoads++;
+		String path = this.mPaths.get(dif);
+		URL url = path == null ? null : PuzzleCatalog.class.getResource(path);
+		if(url == null){
+			return new ListSource(Collections.<PipePuzzleData>emptyList());
+		}
+		if(url.getProtocol().equals("file")){
+			try{
+				File file = new File(url.toURI());
+				File packFile = path.endsWith(PuzzlePack.EXTENSION) ? file : PuzzlePack.getPackFile(file);
+				if(packFile.isFile() && packFile.lastModified() >= file.lastModified()){
+					PuzzlePack pack = packFile.equals(file) ? PuzzlePack.open(packFile) : PuzzlePack.open(packFile, file);
+					if(pack != null){
+						return pack;
+					}
+				}
+				PuzzleIndex index = PuzzleIndex.open(file);
+				if(index != null){
+					return index;
+				}
+			}catch(Exception ex){
+				ex.printStackTrace();
+			}
+		}
+		if(path.endsWith(PuzzlePack.EXTENSION)){
+			PuzzlePack pack = PuzzlePack.read(PuzzleCatalog.class.getResourceAsStream(path));
+			return pack == null ? new ListSource(Collections.<PipePuzzleData>emptyList()) : pack;
+		}
+		XMLStreamParser parser = XMLStreamParser.openResource(path);
+		return new ListSource(parser == null ? Collections.<PipePuzzleData>emptyList() : new XMLStreamPuzzles(parser).read());
+	}
+	
+	/**
+	 * A fully parsed file that can't change.
+	 */
+	private static class ListSource implements PuzzleSource
+	{
+		private List<PipePuzzleData> mPuzzles = null;
+		
+		public ListSource(List<PipePuzzleData> puzzles)
+		{
+			this.mPuzzles = puzzles;
+			return;
+		}
+		
+		@Override
+		public int size()
+		{
+			return this.mPuzzles.size();
+		}
+		
+		@Override
+		public PipePuzzleData get(int ordinal)
+		{
+			return this.mPuzzles.get(ordinal);
+		}
+		
+		@Override
+		public boolean isStale()
+		{
+			return false;
+		}
+	}
+}
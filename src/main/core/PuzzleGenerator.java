@@ -0,0 +1,361 @@
+package main.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds random puzzles of any size, with a complete solution, so that boards can be made on demand instead of
+ * being written by hand.
+ *
+ * A uniform random spanning tree is grown over every cell that isn't a start or goal (Wilson's algorithm: loop-erased
+ * random walks joined onto the tree).  Branches that don't lead to a start or goal are then pruned back, which leaves
+ * the smallest subtree joining them all.  Each cell of that subtree becomes the part whose ports match its links, and
+ * the parts inventory is counted from those parts.
+ *
+ * Starts and goals must sit on the edge of the board, facing inward, so that exactly one of their ports has a cell
+ * to link to.  An instance isn't safe to share between threads; give each thread its own.
+ *
+ * @version 1.0 2026-10-17
+ */
+public class PuzzleGenerator
+{
+	private static final int NONE = -1;
+	
+	private Random mRandom = null;
+	private PipeGrid mGrid = null;
+	private int[] mNext = new int[0];
+	private int[] mLinks = new int[0];
+	private int[] mDegree = new int[0];
+	private int[] mOrder = new int[0];
+	private int[] mQueue = new int[0];
+	private boolean[] mInTree = new boolean[0];
+	private boolean[] mBlocked = new boolean[0];
+	private boolean[] mTerminal = new boolean[0];
+	
+	public PuzzleGenerator()
+	{
+		this(new Random());
+		return;
+	}
+	
+	public PuzzleGenerator(Random random)
+	{
+		this.mRandom = random;
+		return;
+	}
+	
+	/**
+	 * Places the starts in distinct rows of the west column and the goals in distinct rows of the east column.
+	 * @param size int grid size, at least 3.
+	 * @param starts int number of starts, from 1 to size.
+	 * @param goals int number of goals, from 1 to size.
+	 * @return PipePuzzleData with its parts counts and solution filled in.
+	 */
+	public PipePuzzleData generate(int size, int starts, int goals)
+	{
+		if(size < 3 || starts < 1 || goals < 1 || starts > size || goals > size){
+			throw new IllegalArgumentException("Can't place " + starts + " starts and " + goals + " goals on a " + size + "x" + size + " grid.");
+		}
+		return this.generate(size, this.createGauges(0, size, starts), this.createGauges(size - 1, size, goals));
+	}
+	
+	/**
+	 * @param size int grid size.
+	 * @param starts List of starts to connect.
+	 * @param goals List of goals to connect.
+	 * @return PipePuzzleData with its parts counts and solution filled in.
+	 */
+	public PipePuzzleData generate(int size, List<PipePuzzleData.StartGoal> starts, List<PipePuzzleData.StartGoal> goals)
+	{
+		PipePuzzleData data = new PipePuzzleData();
+		data.size = size;
+		data.starts.addAll(starts);
+		data.goals.addAll(goals);
+		this.prepare(data);
+		this.growTree();
+		this.prune();
+		this.createSolution(data);
+		return data;
+	}
+	
+	private ArrayList<PipePuzzleData.StartGoal> createGauges(int x, int size, int count)
+	{
+		int[] rows = new int[size];
+		for(int i = 0; i < size; i++)
+		{
+			rows[i] = i;
+		}
+		ArrayList<PipePuzzleData.StartGoal> results = new ArrayList<PipePuzzleData.StartGoal>();
+		for(int i = 0; i < count; i++)
+		{
+			int pick = i + this.mRandom.nextInt(size - i);
+			int row = rows[pick];
+			rows[pick] = rows[i];
+			rows[i] = row;
+			PipePuzzleData.StartGoal gauge = new PipePuzzleData.StartGoal();
+			gauge.x = x;
+			gauge.y = row;
+			gauge.orientation = PipePuzzle.Orientation.HORIZONTAL;
+			results.add(gauge);
+		}
+		return results;
+	}
+	
+	private void prepare(PipePuzzleData data)
+	{
+		int cells = data.size * data.size;
+		this.mGrid = new PipeGrid(data.size);
+		if(this.mNext.length < cells){
+			this.mNext = new int[cells];
+			this.mLinks = new int[cells];
+			this.mDegree = new int[cells];
+			this.mOrder = new int[cells];
+			this.mQueue = new int[cells];
+			this.mInTree = new boolean[cells];
+			this.mBlocked = new boolean[cells];
+			this.mTerminal = new boolean[cells];
+		}
+		for(int index = 0; index < cells; index++)
+		{
+			this.mNext[index] = NONE;
+			this.mLinks[index] = 0;
+			this.mDegree[index] = 0;
+			this.mInTree[index] = false;
+			this.mBlocked[index] = false;
+			this.mTerminal[index] = false;
+		}
+		
+		ArrayList<PipePuzzleData.StartGoal> gauges = new ArrayList<PipePuzzleData.StartGoal>(data.starts);
+		gauges.addAll(data.goals);
+		for(PipePuzzleData.StartGoal gauge : gauges)
+		{
+			int index = this.mGrid.index(gauge.x, gauge.y);
+			if(this.mBlocked[index]){
+				throw new IllegalArgumentException("More than one start or goal at " + gauge.x + ", " + gauge.y + ".");
+			}
+			this.mBlocked[index] = true;
+			int rotation = PipePuzzle.Orientation.VERTICAL.equals(gauge.orientation) ? 1 : 0;
+			this.mGrid.set(index, PipeGrid.GAUGE, rotation, true);
+		}
+		
+		/* Each gauge feeds exactly one cell, which the network has to reach. */
+		for(PipePuzzleData.StartGoal gauge : gauges)
+		{
+			int index = this.mGrid.index(gauge.x, gauge.y);
+			int fed = NONE;
+			for(int direction = PipeGrid.NORTH; direction <= PipeGrid.WEST; direction++)
+			{
+				int neighbor = this.mGrid.getNeighbor(index, direction);
+				if((this.mGrid.getPorts(index) & (1 << direction)) == 0 || neighbor < 0){
+					continue;
+				}
+				if(fed != NONE || this.mBlocked[neighbor]){
+					throw new IllegalArgumentException("The start or goal at " + gauge.x + ", " + gauge.y + " must face one free cell from the edge.");
+				}
+				fed = neighbor;
+				this.mLinks[neighbor] |= 1 << PipeGrid.opposite(direction);
+			}
+			if(fed == NONE){
+				throw new IllegalArgumentException("The start or goal at " + gauge.x + ", " + gauge.y + " faces off the board.");
+			}
+			this.mTerminal[fed] = true;
+		}
+		return;
+	}
+	
+	/**
+	 * Wilson's algorithm.  Every walk starts from a cell not yet in the tree and wanders until it hits the tree;
+	 * mNext remembers only the last exit from each cell, which erases any loops the walk made.
+	 */
+	private void growTree()
+	{
+		int count = 0;
+		for(int index = 0; index < this.mGrid.getCellCount(); index++)
+		{
+			if(!this.mBlocked[index]){
+				this.mOrder[count++] = index;
+			}
+		}
+		for(int i = count - 1; i > 0; i--)
+		{
+			int pick = this.mRandom.nextInt(i + 1);
+			int swap = this.mOrder[pick];
+			this.mOrder[pick] = this.mOrder[i];
+			this.mOrder[i] = swap;
+		}
+		this.mInTree[this.mOrder[0]] = true;
+		
+		for(int i = 1; i < count; i++)
+		{
+			int current = this.mOrder[i];
+			while(!this.mInTree[current])
+			{
+				int direction = this.randomDirection(current);
+				this.mNext[current] = direction;
+				current = this.mGrid.getNeighbor(current, direction);
+			}
+			current = this.mOrder[i];
+			while(!this.mInTree[current])
+			{
+				this.mInTree[current] = true;
+				int direction = this.mNext[current];
+				int neighbor = this.mGrid.getNeighbor(current, direction);
+				this.link(current, neighbor, direction);
+				current = neighbor;
+			}
+		}
+		return;
+	}
+	
+	private int randomDirection(int index)
+	{
+		while(true)
+		{
+			int direction = this.mRandom.nextInt(4);
+			int neighbor = this.mGrid.getNeighbor(index, direction);
+			if(neighbor >= 0 && !this.mBlocked[neighbor]){
+				return direction;
+			}
+		}
+	}
+	
+	private void link(int index, int neighbor, int direction)
+	{
+		this.mLinks[index] |= 1 << direction;
+		this.mLinks[neighbor] |= 1 << PipeGrid.opposite(direction);
+		this.mDegree[index]++;
+		this.mDegree[neighbor]++;
+		return;
+	}
+	
+	/**
+	 * Strips every branch whose tip isn't fed by a start or goal, one leaf at a time.
+	 */
+	private void prune()
+	{
+		int head = 0;
+		int tail = 0;
+		for(int index = 0; index < this.mGrid.getCellCount(); index++)
+		{
+			if(!this.mBlocked[index] && !this.mTerminal[index] && this.mDegree[index] <= 1){
+				this.mQueue[tail++] = index;
+			}
+		}
+		while(head < tail)
+		{
+			int leaf = this.mQueue[head++];
+			for(int direction = PipeGrid.NORTH; direction <= PipeGrid.WEST; direction++)
+			{
+				if((this.mLinks[leaf] & (1 << direction)) == 0){
+					continue;
+				}
+				int neighbor = this.mGrid.getNeighbor(leaf, direction);
+				this.mLinks[neighbor] &= ~(1 << PipeGrid.opposite(direction));
+				this.mDegree[neighbor]--;
+				if(!this.mTerminal[neighbor] && this.mDegree[neighbor] == 1){
+					this.mQueue[tail++] = neighbor;
+				}
+			}
+			this.mLinks[leaf] = 0;
+			this.mDegree[leaf] = 0;
+		}
+		return;
+	}
+	
+	private void createSolution(PipePuzzleData data)
+	{
+		data.elbows = 0;
+		data.pipes = 0;
+		data.tJunctions = 0;
+		data.crosses = 0;
+		data.solution.clear();
+		for(int index = 0; index < this.mGrid.getCellCount(); index++)
+		{
+			int links = this.mLinks[index];
+			if(this.mBlocked[index] || links == 0){
+				continue;
+			}
+			int type = getTypeForPorts(links);
+			SolutionData s = new SolutionData();
+			s.type = PipeSolver.getKeyForType(type);
+			s.x = this.mGrid.getX(index);
+			s.y = this.mGrid.getY(index);
+			s.angle = getRotationForPorts(type, links) * 0.5;
+			data.solution.add(s);
+			if(type == PipeGrid.ELBOW){
+				data.elbows++;
+			}else if(type == PipeGrid.PIPE){
+				data.pipes++;
+			}else if(type == PipeGrid.T_JUNCTION){
+				data.tJunctions++;
+			}else{
+				data.crosses++;
+			}
+		}
+		return;
+	}
+	
+	private static int getTypeForPorts(int ports)
+	{
+		switch(Integer.bitCount(ports))
+		{
+			case 2:
+				return ports == (PipeGrid.PORT_EAST | PipeGrid.PORT_WEST) || ports == (PipeGrid.PORT_NORTH | PipeGrid.PORT_SOUTH) ? PipeGrid.PIPE : PipeGrid.ELBOW;
+			case 3:
+				return PipeGrid.T_JUNCTION;
+			case 4:
+				return PipeGrid.CROSS;
+			default:
+				/* Pruning leaves every kept cell with at least two links, so this means the gauges were placed wrongly. */
+				throw new IllegalStateException("No part has the ports " + ports + ".");
+		}
+	}
+	
+	private static int getRotationForPorts(int type, int ports)
+	{
+		for(int rotation = 0; rotation < 4; rotation++)
+		{
+			if(PipeGrid.getPortsFor(type, rotation) == ports){
+				return rotation;
+			}
+		}
+		return 0;
+	}
+	
+	/**
+	 * Times the generator and checks every board it makes with the solver.
+	 * Usage: java main.core.PuzzleGenerator [size] [count] [starts] [goals]
+	 */
+	public static void main(String[] args)
+	{
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+		int count = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		int starts = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+		int goals = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+		PuzzleGenerator generator = new PuzzleGenerator(new Random(1L));
+		
+		/* One untimed pass so the JIT has compiled the generator before anything is measured. */
+		for(int i = 0; i < count; i++)
+		{
+			generator.generate(size, starts, goals);
+		}
+		
+		long start = System.nanoTime();
+		long parts = 0L;
+		for(int i = 0; i < count; i++)
+		{
+			parts += generator.generate(size, starts, goals).solution.size();
+		}
+		long elapsed = System.nanoTime() - start;
+		int valid = 0;
+		for(int i = 0; i < Math.min(count, 100); i++)
+		{
+			PipePuzzleData data = generator.generate(size, starts, goals);
+			valid += PipeSolver.isSolution(data, data.solution) ? 1 : 0;
+		}
+		System.out.println(String.format("%d puzzles of %dx%d in %.1f ms, %.3f ms each, %.1f parts on average, %d of %d checked solutions valid",
+				count, size, size, elapsed / 1.0E6, elapsed / 1.0E6 / count, parts / (double)count, valid, Math.min(count, 100)));
+		return;
+	}
+}
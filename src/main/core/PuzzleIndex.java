@@ -0,0 +1,389 @@
+package main.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import main.core.util.XMLStreamParser;
+
+/**
+ * Byte offsets of every puzzle element in a puzzle file, kept in a .idx file next to it.
+ *
+ * Opening a puzzle file reads the index rather than the XML, and get() reads and parses only the bytes of the one
+ * puzzle asked for, so loading puzzle N costs the same in a file of ten puzzles as in one of a hundred thousand.
+ *
+ * The index records the size, modification time and CRC32 of the XML it was built from.  If the size and time still
+ * match it is used as is.  If only the time differs the CRC32 is checked, so a file that was touched or copied keeps
+ * its index, and anything else rebuilds it.  Building scans the raw bytes for puzzle and dev_id tags, which the
+ * puzzles schema keeps free of attributes, comments and CDATA.  If the index can't be written, for example because the
+ * data folder is read-only, it is kept in memory only and built again on the next run.
+ *
+ * Entries are sorted by dev_id, the same order XMLStreamPuzzles.read() returns.
+ *
+ * @version 1.0 2026-10-17
+ */
+public class PuzzleIndex implements PuzzleSource
+{
+	public static final String EXTENSION = ".idx";
+	
+	private static final int MAGIC = 0x50494458;
+	private static final int VERSION = 1;
+	
+	private static final byte[] PUZZLE_START = ("<" + XMLTag.PUZZLE).getBytes();
+	private static final byte[] PUZZLE_END = ("</" + XMLTag.PUZZLE + ">").getBytes();
+	private static final byte[] DEV_ID_START = ("<" + XMLTag.DEV_ID + ">").getBytes();
+	
+	private File mXMLFile = null;
+	private File mIndexFile = null;
+	private long mLength = 0L;
+	private long mModified = 0L;
+	private long mChecksum = 0L;
+	private int[] mDevIDs = new int[0];
+	private long[] mOffsets = new long[0];
+	private int[] mLengths = new int[0];
+	private boolean mRebuilt = false;
+	
+	private PuzzleIndex(File xmlFile)
+	{
+		this.mXMLFile = xmlFile;
+		this.mIndexFile = getIndexFile(xmlFile);
+		return;
+	}
+	
+	/**
+	 * Reads the index of a puzzle file, building and saving it first if it is missing or out of date.
+	 * @param xmlFile File puzzle file.
+	 * @return PuzzleIndex, or null if the puzzle file can't be read.
+	 */
+	public static PuzzleIndex open(File xmlFile)
+	{
+		PuzzleIndex index = new PuzzleIndex(xmlFile);
+		try{
+			long length = xmlFile.length();
+			long modified = xmlFile.lastModified();
+			boolean loaded = index.readIndex();
+			if(loaded && index.mLength == length && index.mModified == modified){
+				return index;
+			}
+			if(loaded && index.mLength == length && index.mChecksum == checksum(xmlFile)){
+				index.mModified = modified;
+				index.writeIndex();
+				return index;
+			}
+			index.build();
+			index.writeIndex();
+			return index;
+		}catch(Exception ex){
+			ex.printStackTrace();
+		}
+		return null;
+	}
+	
+	/**
+	 * @param xmlFile File puzzle file.
+	 * @return File the index is kept in, the puzzle file with its .xml extension replaced.
+	 */
+	public static File getIndexFile(File xmlFile)
+	{
+		String name = xmlFile.getName();
+		int dot = name.lastIndexOf('.');
+		return new File(xmlFile.getParentFile(), (dot < 0 ? name : name.substring(0, dot)) + EXTENSION);
+	}
+	
+	@Override
+	public int size()
+	{
+		return this.mDevIDs.length;
+	}
+	
+	/**
+	 * Reads and parses the one puzzle element at the ordinal.
+	 * @param ordinal int zero-based position in dev_id order.
+	 * @return PipePuzzleData, or null if it can't be read.
+	 */
+	@Override
+	public PipePuzzleData get(int ordinal)
+	{
+		try{
+			byte[] bytes = new byte[this.mLengths[ordinal]];
+			RandomAccessFile file = new RandomAccessFile(this.mXMLFile, "r");
+			try{
+				file.seek(this.mOffsets[ordinal]);
+				file.readFully(bytes);
+			}finally{
+				file.close();
+			}
+			XMLStreamPuzzles parser = new XMLStreamPuzzles(new XMLStreamParser(new ByteArrayInputStream(bytes)));
+			try{
+				return parser.next();
+			}finally{
+				parser.close();
+			}
+		}catch(Exception ex){
+			ex.printStackTrace();
+		}
+		return null;
+	}
+	
+	@Override
+	public boolean isStale()
+	{
+		return this.mXMLFile.lastModified() != this.mModified || this.mXMLFile.length() != this.mLength;
+	}
+	
+	/**
+	 * @param devID int
+	 * @return int ordinal of the puzzle with the dev_id, or -1 if there is none.
+	 */
+	public int findOrdinal(int devID)
+	{
+		int ordinal = Arrays.binarySearch(this.mDevIDs, devID);
+		if(ordinal < 0){
+			return -1;
+		}
+		while(ordinal > 0 && this.mDevIDs[ordinal - 1] == devID)
+		{
+			ordinal--;
+		}
+		return ordinal;
+	}
+	
+	public int getDevID(int ordinal)
+	{
+		return this.mDevIDs[ordinal];
+	}
+	
+	public long getOffset(int ordinal)
+	{
+		return this.mOffsets[ordinal];
+	}
+	
+	public int getLength(int ordinal)
+	{
+		return this.mLengths[ordinal];
+	}
+	
+	/**
+	 * @return boolean true if the index was built from the XML when it was opened rather than read from its file.
+	 */
+	public boolean wasRebuilt()
+	{
+		return this.mRebuilt;
+	}
+	
+	private boolean readIndex()
+	{
+		if(!this.mIndexFile.isFile()){
+			return false;
+		}
+		try{
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(this.mIndexFile), 1 << 16));
+			try{
+				if(in.readInt() != MAGIC || in.readInt() != VERSION){
+					return false;
+				}
+				this.mLength = in.readLong();
+				this.mModified = in.readLong();
+				this.mChecksum = in.readLong();
+				int count = in.readInt();
+				this.mDevIDs = new int[count];
+				this.mOffsets = new long[count];
+				this.mLengths = new int[count];
+				for(int i = 0; i < count; i++)
+				{
+					this.mDevIDs[i] = in.readInt();
+					this.mOffsets[i] = in.readLong();
+					this.mLengths[i] = in.readInt();
+				}
+				return true;
+			}finally{
+				in.close();
+			}
+		}catch(Exception ex){
+			// A truncated or foreign file is rebuilt like a missing one.
+			return false;
+		}
+	}
+	
+	private void writeIndex()
+	{
+		File temp = new File(this.mIndexFile.getPath() + ".tmp");
+		try{
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 1 << 16));
+			try{
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeLong(this.mLength);
+				out.writeLong(this.mModified);
+				out.writeLong(this.mChecksum);
+				out.writeInt(this.mDevIDs.length);
+				for(int i = 0; i < this.mDevIDs.length; i++)
+				{
+					out.writeInt(this.mDevIDs[i]);
+					out.writeLong(this.mOffsets[i]);
+					out.writeInt(this.mLengths[i]);
+				}
+			}finally{
+				out.close();
+			}
+			if(!temp.renameTo(this.mIndexFile)){
+				this.mIndexFile.delete();
+				temp.renameTo(this.mIndexFile);
+			}
+		}catch(Exception ex){
+			// Read-only data folder, the index stays in memory.
+			temp.delete();
+		}
+		return;
+	}
+	
+	/**
+	 * Scans the XML for puzzle elements.  Each entry is sorted on a key of dev_id in the high half and file order in
+	 * the low half, so puzzles that share a dev_id keep their file order just as a stable sort would.
+	 */
+	private void build() throws Exception
+	{
+		RandomAccessFile file = new RandomAccessFile(this.mXMLFile, "r");
+		try{
+			FileChannel channel = file.getChannel();
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+			long[] starts = new long[64];
+			int[] lengths = new int[64];
+			long[] keys = new long[64];
+			int count = 0;
+			long start = -1L;
+			int devID = 0;
+			int limit = buffer.limit();
+			for(int i = 0; i < limit; i++)
+			{
+				if(buffer.get(i) != '<'){
+					continue;
+				}
+				if(start < 0L && matches(buffer, i, PUZZLE_START) && i + PUZZLE_START.length < limit && isTagEnd(buffer.get(i + PUZZLE_START.length))){
+					start = i;
+					devID = 0;
+				}else if(start >= 0L && matches(buffer, i, DEV_ID_START)){
+					devID = parseInt(buffer, i + DEV_ID_START.length);
+				}else if(start >= 0L && matches(buffer, i, PUZZLE_END)){
+					if(count == starts.length){
+						starts = Arrays.copyOf(starts, count * 2);
+						lengths = Arrays.copyOf(lengths, count * 2);
+						keys = Arrays.copyOf(keys, count * 2);
+					}
+					starts[count] = start;
+					lengths[count] = (int)(i + PUZZLE_END.length - start);
+					keys[count] = ((long)devID << 32) | count;
+					count++;
+					start = -1L;
+				}
+			}
+			keys = Arrays.copyOf(keys, count);
+			Arrays.sort(keys);
+			this.mDevIDs = new int[count];
+			this.mOffsets = new long[count];
+			this.mLengths = new int[count];
+			for(int i = 0; i < count; i++)
+			{
+				int order = (int)(keys[i] & 0xFFFFFFFFL);
+				this.mDevIDs[i] = (int)(keys[i] >> 32);
+				this.mOffsets[i] = starts[order];
+				this.mLengths[i] = lengths[order];
+			}
+			buffer.rewind();
+			CRC32 crc = new CRC32();
+			crc.update(buffer);
+			this.mChecksum = crc.getValue();
+			this.mLength = channel.size();
+			this.mModified = this.mXMLFile.lastModified();
+			this.mRebuilt = true;
+		}finally{
+			file.close();
+		}
+		return;
+	}
+	
+	private static long checksum(File xmlFile) throws Exception
+	{
+		RandomAccessFile file = new RandomAccessFile(xmlFile, "r");
+		try{
+			FileChannel channel = file.getChannel();
+			CRC32 crc = new CRC32();
+			crc.update(channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size()));
+			return crc.getValue();
+		}finally{
+			file.close();
+		}
+	}
+	
+	private static boolean matches(MappedByteBuffer buffer, int at, byte[] pattern)
+	{
+		if(at + pattern.length > buffer.limit()){
+			return false;
+		}
+		for(int i = 0; i < pattern.length; i++)
+		{
+			if(buffer.get(at + i) != pattern[i]){
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private static boolean isTagEnd(byte b)
+	{
+		return b == '>' || b == ' ' || b == '\t' || b == '\r' || b == '\n';
+	}
+	
+	private static int parseInt(MappedByteBuffer buffer, int at)
+	{
+		int value = 0;
+		boolean negative = false;
+		while(at < buffer.limit() && Character.isWhitespace(buffer.get(at)))
+		{
+			at++;
+		}
+		if(at < buffer.limit() && buffer.get(at) == '-'){
+			negative = true;
+			at++;
+		}
+		while(at < buffer.limit() && buffer.get(at) >= '0' && buffer.get(at) <= '9')
+		{
+			value = value * 10 + (buffer.get(at) - '0');
+			at++;
+		}
+		return negative ? -value : value;
+	}
+	
+	/**
+	 * Builds or refreshes the index of each file and reports how long opening it and loading its last puzzle take.
+	 * Usage: java main.core.PuzzleIndex puzzles.xml [...]
+	 */
+	public static void main(String[] args)
+	{
+		for(String path : args)
+		{
+			long start = System.nanoTime();
+			PuzzleIndex index = PuzzleIndex.open(new File(path));
+			long opened = System.nanoTime();
+			if(index == null || index.size() == 0){
+				System.out.println(path + ": no puzzles");
+				continue;
+			}
+			PipePuzzleData data = index.get(index.size() - 1);
+			long loaded = System.nanoTime();
+			System.out.println(String.format("%s: %d puzzles, index %s in %.1f ms, puzzle dev_id %d loaded in %.2f ms",
+					path, index.size(), index.wasRebuilt() ? "built" : "read", (opened - start) / 1.0E6, data.dev_id, (loaded - opened) / 1.0E6));
+		}
+		return;
+	}
+}
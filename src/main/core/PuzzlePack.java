@@ -0,0 +1,372 @@
+package main.core;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+import main.core.util.XMLStreamParser;
+
+/**
+ * Binary puzzle file, a compact alternative to the puzzles schema for very large catalogs.
+ *
+ * Layout, all numbers big-endian:
+ *   header        int magic "PPAK", int version, int count, int 0, long table start, long data start;
+ *   offset table  one int per puzzle, the start of its record relative to the data start;
+ *   data          one record per puzzle, in dev_id order.
+ * A record is a run of unsigned varints (7 bits per byte, low bits first):
+ *   dev_id, size, elbows, pipes, t_junctions, crosses,
+ *   start count, then per start (y * size + x) << 1 | orientation,
+ *   goal count, then per goal the same,
+ *   part count, then per part y * size + x followed by one byte of type << 4 | rotation,
+ * where orientation is the Orientation ordinal, type the ImageKey ordinal and rotation the angle in quarter turns.
+ *
+ * open() maps the file with FileChannel.map and decodes nothing until a puzzle is asked for, so opening a pack of a
+ * million puzzles costs the same as opening a pack of ten, and only the pages of the table and records actually used
+ * are ever read from disk.
+ *
+ * @version 1.0 2026-10-17
+ */
+public class PuzzlePack implements PuzzleSource
+{
+	public static final String EXTENSION = ".pack";
+	
+	private static final int MAGIC = 0x5050414B;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 32;
+	
+	private static final PipePuzzle.ImageKey[] TYPES = PipePuzzle.ImageKey.values();
+	private static final PipePuzzle.Orientation[] ORIENTATIONS = PipePuzzle.Orientation.values();
+	
+	private File mFile = null;
+	private long mLength = 0L;
+	private long mModified = 0L;
+	private File mSourceFile = null;
+	private long mSourceLength = 0L;
+	private long mSourceModified = 0L;
+	private ByteBuffer mBuffer = null;
+	private int mCount = 0;
+	private int mTableStart = 0;
+	private int mDataStart = 0;
+	
+	private PuzzlePack(ByteBuffer buffer) throws Exception
+	{
+		if(buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION){
+			throw new Exception("Not a puzzle pack");
+		}
+		this.mBuffer = buffer;
+		this.mCount = buffer.getInt(8);
+		this.mTableStart = (int)buffer.getLong(16);
+		this.mDataStart = (int)buffer.getLong(24);
+		return;
+	}
+	
+	/**
+	 * Maps a pack file.  The file is closed again straight away, the mapping stays valid without it.
+	 * @param packFile File
+	 * @return PuzzlePack, or null if the file can't be read or isn't a pack.
+	 */
+	public static PuzzlePack open(File packFile)
+	{
+		try{
+			RandomAccessFile file = new RandomAccessFile(packFile, "r");
+			try{
+				long modified = packFile.lastModified();
+				FileChannel channel = file.getChannel();
+				PuzzlePack pack = new PuzzlePack(channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size()));
+				pack.mFile = packFile;
+				pack.mLength = channel.size();
+				pack.mModified = modified;
+				return pack;
+			}finally{
+				file.close();
+			}
+		}catch(Exception ex){
+			ex.printStackTrace();
+		}
+		return null;
+	}
+	
+	/**
+	 * Maps a pack converted from a puzzle file, and watches the puzzle file too, so editing it while the pack is open
+	 * makes the pack stale.
+	 * @param packFile File
+	 * @param sourceFile File puzzle file the pack was converted from.
+	 * @return PuzzlePack, or null if the file can't be read or isn't a pack.
+	 */
+	public static PuzzlePack open(File packFile, File sourceFile)
+	{
+		long modified = sourceFile.lastModified();
+		long length = sourceFile.length();
+		PuzzlePack pack = open(packFile);
+		if(pack != null){
+			pack.mSourceFile = sourceFile;
+			pack.mSourceLength = length;
+			pack.mSourceModified = modified;
+		}
+		return pack;
+	}
+	
+	/**
+	 * Reads a whole pack into memory, for packs that are only reachable as a resource stream.
+	 * @param stream InputStream, closed afterward.
+	 * @return PuzzlePack, or null if the stream can't be read or isn't a pack.
+	 */
+	public static PuzzlePack read(InputStream stream)
+	{
+		try{
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			byte[] chunk = new byte[1 << 16];
+			int n = stream.read(chunk);
+			while(n >= 0)
+			{
+				bytes.write(chunk, 0, n);
+				n = stream.read(chunk);
+			}
+			return new PuzzlePack(ByteBuffer.wrap(bytes.toByteArray()));
+		}catch(Exception ex){
+			ex.printStackTrace();
+		}finally{
+			try{
+				stream.close();
+			}catch(Exception ex){
+				ex.printStackTrace();
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * @param xmlFile File puzzle file.
+	 * @return File the pack of the puzzle file is written to, the puzzle file with its extension replaced.
+	 */
+	public static File getPackFile(File xmlFile)
+	{
+		String name = xmlFile.getName();
+		int dot = name.lastIndexOf('.');
+		return new File(xmlFile.getParentFile(), (dot < 0 ? name : name.substring(0, dot)) + EXTENSION);
+	}
+	
+	@Override
+	public int size()
+	{
+		return this.mCount;
+	}
+	
+	/**
+	 * Decodes one record.  Reads use absolute positions only, so any number of threads may call this at once.
+	 * @param ordinal int zero-based position in dev_id order.
+	 * @return PipePuzzleData
+	 */
+	@Override
+	public PipePuzzleData get(int ordinal)
+	{
+		int[] at = new int[]{this.mDataStart + this.mBuffer.getInt(this.mTableStart + ordinal * 4)};
+		PipePuzzleData data = new PipePuzzleData();
+		data.dev_id = this.readVarInt(at);
+		data.size = this.readVarInt(at);
+		data.elbows = this.readVarInt(at);
+		data.pipes = this.readVarInt(at);
+		data.tJunctions = this.readVarInt(at);
+		data.crosses = this.readVarInt(at);
+		this.readStartGoals(at, data.size, data.starts);
+		this.readStartGoals(at, data.size, data.goals);
+		int parts = this.readVarInt(at);
+		for(int i = 0; i < parts; i++)
+		{
+			int cell = this.readVarInt(at);
+			int bits = this.mBuffer.get(at[0]++) & 0xFF;
+			SolutionData s = new SolutionData();
+			s.x = cell % data.size;
+			s.y = cell / data.size;
+			s.type = TYPES[bits >> 4];
+			s.angle = (bits & 0x0F) * 0.5;
+			data.solution.add(s);
+		}
+		return data;
+	}
+	
+	/**
+	 * @return boolean true if the file was changed after it was mapped, or the puzzle file it was opened with was
+	 * changed since or is now newer than the pack.  Always false for a pack read from a stream.
+	 */
+	@Override
+	public boolean isStale()
+	{
+		if(this.mFile == null){
+			return false;
+		}
+		if(this.mFile.lastModified() != this.mModified || this.mFile.length() != this.mLength){
+			return true;
+		}
+		if(this.mSourceFile == null){
+			return false;
+		}
+		long sourceModified = this.mSourceFile.lastModified();
+		return sourceModified != this.mSourceModified || this.mSourceFile.length() != this.mSourceLength || sourceModified > this.mModified;
+	}
+	
+	private void readStartGoals(int[] at, int size, List<PipePuzzleData.StartGoal> list)
+	{
+		int count = this.readVarInt(at);
+		for(int i = 0; i < count; i++)
+		{
+			int bits = this.readVarInt(at);
+			PipePuzzleData.StartGoal g = new PipePuzzleData.StartGoal();
+			g.x = (bits >> 1) % size;
+			g.y = (bits >> 1) / size;
+			g.orientation = ORIENTATIONS[bits & 1];
+			list.add(g);
+		}
+		return;
+	}
+	
+	private int readVarInt(int[] at)
+	{
+		int value = 0;
+		int shift = 0;
+		int b = this.mBuffer.get(at[0]++);
+		while((b & 0x80) != 0)
+		{
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+			b = this.mBuffer.get(at[0]++);
+		}
+		return value | (b << shift);
+	}
+	
+	/**
+	 * Writes every puzzle of a source, in its order, to a new pack.  Records are streamed to the file as they are
+	 * encoded and only the offset table is held in memory, so the source can be far larger than the heap.  The pack is
+	 * written under a temporary name and renamed once complete.
+	 * @param source PuzzleSource, such as the PuzzleIndex of a puzzle file.
+	 * @param packFile File to write.
+	 * @return boolean true if the pack was written.
+	 */
+	public static boolean write(PuzzleSource source, File packFile)
+	{
+		File temp = new File(packFile.getPath() + ".tmp");
+		try{
+			int count = source.size();
+			int tableStart = HEADER_SIZE;
+			int dataStart = tableStart + count * 4;
+			int[] offsets = new int[count];
+			RandomAccessFile file = new RandomAccessFile(temp, "rw");
+			try{
+				FileChannel channel = file.getChannel();
+				channel.truncate(0L);
+				channel.position(dataStart);
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+				for(int i = 0; i < count; i++)
+				{
+					offsets[i] = out.size();
+					writeRecord(out, source.get(i));
+				}
+				out.flush();
+				ByteBuffer head = ByteBuffer.allocate(dataStart);
+				head.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(0).putLong(tableStart).putLong(dataStart);
+				for(int offset : offsets)
+				{
+					head.putInt(offset);
+				}
+				head.flip();
+				channel.write(head, 0L);
+				channel.force(true);
+			}finally{
+				file.close();
+			}
+			if(!temp.renameTo(packFile)){
+				packFile.delete();
+				if(!temp.renameTo(packFile)){
+					throw new Exception("Unable to replace " + packFile);
+				}
+			}
+			return true;
+		}catch(Exception ex){
+			ex.printStackTrace();
+			temp.delete();
+		}
+		return false;
+	}
+	
+	private static void writeRecord(DataOutputStream out, PipePuzzleData data) throws Exception
+	{
+		writeVarInt(out, data.dev_id);
+		writeVarInt(out, data.size);
+		writeVarInt(out, data.elbows);
+		writeVarInt(out, data.pipes);
+		writeVarInt(out, data.tJunctions);
+		writeVarInt(out, data.crosses);
+		writeStartGoals(out, data.size, data.starts);
+		writeStartGoals(out, data.size, data.goals);
+		writeVarInt(out, data.solution.size());
+		for(SolutionData s : data.solution)
+		{
+			writeVarInt(out, s.y * data.size + s.x);
+			int rotation = (int)Math.round(s.angle * 2.0) & 3;
+			out.writeByte((((PipePuzzle.ImageKey)s.type).ordinal() << 4) | rotation);
+		}
+		return;
+	}
+	
+	private static void writeStartGoals(DataOutputStream out, int size, List<PipePuzzleData.StartGoal> list) throws Exception
+	{
+		writeVarInt(out, list.size());
+		for(PipePuzzleData.StartGoal g : list)
+		{
+			int orientation = g.orientation == null ? 0 : g.orientation.ordinal();
+			writeVarInt(out, ((g.y * size + g.x) << 1) | orientation);
+		}
+		return;
+	}
+	
+	private static void writeVarInt(DataOutputStream out, int value) throws Exception
+	{
+		while((value & ~0x7F) != 0)
+		{
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+		return;
+	}
+	
+	/**
+	 * Converts puzzle files to packs written next to them, then reports how long opening each pack and decoding every
+	 * puzzle in it take against a full parse of the XML.
+	 * Usage: java main.core.PuzzlePack data/easy_puzzle.xml [...]
+	 */
+	public static void main(String[] args)
+	{
+		for(String path : args)
+		{
+			File xmlFile = new File(path);
+			File packFile = getPackFile(xmlFile);
+			long start = System.nanoTime();
+			PuzzleIndex index = PuzzleIndex.open(xmlFile);
+			if(index == null || !write(index, packFile)){
+				continue;
+			}
+			long converted = System.nanoTime();
+			PuzzlePack pack = open(packFile);
+			long opened = System.nanoTime();
+			for(int i = 0; i < pack.size(); i++)
+			{
+				pack.get(i);
+			}
+			long decoded = System.nanoTime();
+			int parsed = new XMLStreamPuzzles(XMLStreamParser.openFile(path)).read().size();
+			long parsedEnd = System.nanoTime();
+			System.out.println(String.format("%s: %d puzzles, %d bytes of XML to %d bytes, converted in %.1f ms, opened in %.3f ms, decoded in %.1f ms, XML parsed (%d) in %.1f ms",
+					path, pack.size(), xmlFile.length(), packFile.length(), (converted - start) / 1.0E6, (opened - converted) / 1.0E6,
+					(decoded - opened) / 1.0E6, parsed, (parsedEnd - decoded) / 1.0E6));
+		}
+		return;
+	}
+}
@@ -0,0 +1,22 @@
+package main.core;
+
+/**
+ * Random access to the puzzles of one data file, in dev_id order.
+ *
+ * @version 1.0 2026-10-17
+ */
+public interface PuzzleSource
+{
+	abstract int size();
+	
+	/**
+	 * @param ordinal int zero-based position in dev_id order.
+	 * @return PipePuzzleData, which may be shared and must not be modified.
+	 */
+	abstract PipePuzzleData get(int ordinal);
+	
+	/**
+	 * @return boolean true if the file has changed since the source was opened.
+	 */
+	abstract boolean isStale();
+}
@@ -0,0 +1,153 @@
+package main.core;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import main.core.util.FrameJitter;
+import main.core.util.Ticker;
+
+/**
+ * Command-line comparison of frame pacing between the passive backend, a Display repainted from the Ticker, and the
+ * active backend, an ActiveDisplay drawn and shown from the Ticker.  Each draws a full board every frame in a window
+ * of its own while a Swing timer keeps the EDT busy for part of every period, as menus, layout and status bar updates
+ * do.  Passive frames wait behind that work; active frames don't.  The interval between frames reaching the screen is
+ * reported for each, the standard deviation being the jitter.
+ *
+ * Needs a display.
+ *
+ * Usage: java main.core.RenderBackendBenchmark [config.xml] [seconds] [grid size] [EDT busy ms per 50 ms]
+ *
+ * @version 1.0 2026-10-17
+ */
+public class RenderBackendBenchmark
+{
+	private static final int WINDOW_SIZE = 900;
+	private static final int LOAD_PERIOD = 50;
+	
+	public static void main(String[] args) throws Exception
+	{
+		String path = args.length > 0 ? args[0] : "config.xml";
+		int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+		int size = args.length > 2 ? Integer.parseInt(args[2]) : 40;
+		int load = args.length > 3 ? Integer.parseInt(args[3]) : 12;
+		
+		HashMap<Object, BufferedImage> resized = new HashMap<Object, BufferedImage>();
+		PipePuzzle puzzle = RenderBenchmark.createPuzzle(RenderBenchmark.loadOriginals(Config.load(path)), resized, size, WINDOW_SIZE / (double)size);
+		
+		String passive = run(puzzle, false, seconds, load);
+		String active = run(puzzle, true, seconds, load);
+		System.out.println(String.format("%d x %d board, %d s each, EDT busy %d of every %d ms", size, size, seconds, load, LOAD_PERIOD));
+		System.out.println("passive  " + passive);
+		System.out.println("active   " + active);
+		System.exit(0);
+		return;
+	}
+	
+	private static String run(PipePuzzle puzzle, boolean active, int seconds, int load) throws Exception
+	{
+		Display.Mediator mediator = new Display.Mediator()
+		{
+			@Override
+			public void render(Graphics2D g2d)
+			{
+				Rectangle bounds = new Rectangle(0, 0, WINDOW_SIZE, WINDOW_SIZE);
+				g2d.setPaint(Color.BLACK);
+				g2d.fillRect(0, 0, WINDOW_SIZE, WINDOW_SIZE);
+				puzzle.renderPuzzleGrid(g2d, bounds);
+				puzzle.renderParts(g2d, bounds, false);
+				return;
+			}
+		};
+		JFrame frame = new JFrame(active ? "Active rendering" : "Passive rendering");
+		Display display = new Display(active ? null : mediator);
+		ActiveDisplay canvas = active ? new ActiveDisplay(mediator, Config.DEFAULT_RENDER_BUFFERS) : null;
+		if(canvas != null){
+			display.add(canvas, BorderLayout.CENTER);
+		}
+		FrameJitter jitter = canvas != null ? canvas.getFrameJitter() : display.getFrameJitter();
+		
+		SwingUtilities.invokeAndWait(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				frame.setContentPane(display);
+				frame.setSize(WINDOW_SIZE, WINDOW_SIZE);
+				frame.setVisible(true);
+				return;
+			}
+		});
+		
+		Timer busy = new Timer(LOAD_PERIOD, new ActionListener()
+		{
+			@Override
+			public void actionPerformed(ActionEvent e)
+			{
+				long end = System.nanoTime() + load * 1000000L;
+				while(System.nanoTime() < end)
+				{
+					Thread.onSpinWait();
+				}
+				return;
+			}
+		});
+		busy.start();
+		
+		Ticker ticker = new Ticker(new Ticker.Observer()
+		{
+			@Override
+			public void tickerUpdateRequested()
+			{
+				return;
+			}
+			
+			@Override
+			public void tickerRenderRequested()
+			{
+				if(canvas != null){
+					canvas.renderFrame();
+				}else{
+					display.repaint();
+				}
+				return;
+			}
+			
+			@Override
+			public long tickerIdleMillis()
+			{
+				return 0L;
+			}
+		}, 60, 60, 1);
+		ticker.startTimer();
+		
+		/* A second to settle before measuring. */
+		Thread.sleep(1000L);
+		jitter.reset();
+		Thread.sleep(seconds * 1000L);
+		String report = jitter.report();
+		
+		ticker.stopTimer();
+		ticker.join();
+		busy.stop();
+		SwingUtilities.invokeAndWait(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				frame.dispose();
+				return;
+			}
+		});
+		return report;
+	}
+}
@@ -0,0 +1,170 @@
+package main.core;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Random;
+
+import main.core.util.ImageLoader;
+import main.core.util.ImageUtils;
+
+/**
+ * Command-line benchmark of drawing a full board of parts, off screen, at a fixed board width.
+ *
+ * The transform run draws the board the way PipePuzzle used to, one drawImage per tile and then every part through a
+ * Graphics2D rotated about the part.  The sprite run is PipePuzzle.renderPuzzleGrid(), a copy of the cached grid image,
+ * and renderParts(), a plain drawImage of the pre-rotated image for each part.  Both clear the board first, so each
+ * figure is a whole frame.  The drag run is the sprite run clipped to two neighboring squares, which is what Swing
+ * repaints while a part is dragged from one square to the next.
+ *
+ * Usage: java main.core.RenderBenchmark [config.xml] [board width] [frames] [grid sizes...]
+ *
+ * @version 1.0 2026-10-17
+ */
+public class RenderBenchmark
+{
+	private static final int[] DEFAULT_SIZES = new int[]{10, 40, 80};
+	private static final PipePuzzle.ImageKey[] PART_KEYS = new PipePuzzle.ImageKey[]{PipePuzzle.ImageKey.ELBOW, PipePuzzle.ImageKey.PIPE,
+			PipePuzzle.ImageKey.T_JUNCTION, PipePuzzle.ImageKey.CROSS};
+	private static final long SEED = 20190207L;
+	
+	public static void main(String[] args)
+	{
+		String path = args.length > 0 ? args[0] : "config.xml";
+		int width = args.length > 1 ? Integer.parseInt(args[1]) : 1200;
+		int frames = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+		int[] sizes = DEFAULT_SIZES;
+		if(args.length > 3){
+			sizes = new int[args.length - 3];
+			for(int i = 3; i < args.length; i++)
+			{
+				sizes[i - 3] = Integer.parseInt(args[i]);
+			}
+		}
+		
+		HashMap<Object, BufferedImage> originals = loadOriginals(Config.load(path));
+		BufferedImage target = new BufferedImage(width, width, BufferedImage.TYPE_INT_RGB);
+		
+		System.out.println(String.format("%-8s %8s %16s %16s %10s %12s", "grid", "parts", "transform ms", "sprite ms", "speedup", "drag ms"));
+		for(int size : sizes)
+		{
+			HashMap<Object, BufferedImage> resized = new HashMap<Object, BufferedImage>();
+			PipePuzzle puzzle = createPuzzle(originals, resized, size, width / (double)size);
+			
+			/* One untimed pass of each so the JIT and Java2D's loops are warmed up before anything is measured. */
+			BufferedImage tile = resized.get(PipePuzzle.ImageKey.TILE);
+			Rectangle drag = new Rectangle(tile.getWidth(), tile.getHeight(), tile.getWidth() * 2, tile.getHeight());
+			runTransform(puzzle, resized, target, frames / 4 + 1);
+			runSprite(puzzle, target, null, frames / 4 + 1);
+			runSprite(puzzle, target, drag, frames / 4 + 1);
+			
+			double transform = runTransform(puzzle, resized, target, frames) / frames;
+			double sprite = runSprite(puzzle, target, null, frames) / frames;
+			double dragged = runSprite(puzzle, target, drag, frames) / frames;
+			System.out.println(String.format("%-8s %8d %16.3f %16.3f %9.2fx %12.4f", size + "x" + size, size * size, transform, sprite, transform / sprite, dragged));
+		}
+		return;
+	}
+	
+	static HashMap<Object, BufferedImage> loadOriginals(Config config)
+	{
+		HashMap<Object, BufferedImage> originals = new HashMap<Object, BufferedImage>();
+		try{
+			for(PipePuzzle.ImageKey key : PipePuzzle.ImageKey.values())
+			{
+				originals.put(key, ImageLoader.getImageFromResourcePath(RenderBenchmark.class.getResource(config.getImagePath(key.getTag()))));
+			}
+		}catch(Exception ex){
+			ex.printStackTrace();
+		}
+		return originals;
+	}
+	
+	/**
+	 * Fills every square of the grid with a random part at a random rotation.
+	 */
+	static PipePuzzle createPuzzle(HashMap<Object, BufferedImage> originals, HashMap<Object, BufferedImage> resized, int size, double tileSize)
+	{
+		PipePuzzle puzzle = new PipePuzzle(size);
+		for(PipePuzzle.ImageKey key : PipePuzzle.ImageKey.values())
+		{
+			BufferedImage image = ImageUtils.resizeImage(originals.get(key), tileSize, tileSize);
+			resized.put(key, image);
+			puzzle.addPartImage(key, image);
+		}
+		Random random = new Random(SEED);
+		ArrayList<PipeNode> parts = new ArrayList<PipeNode>();
+		for(int i = 0; i < size * size; i++)
+		{
+			PipeNode part = new PipeNode(PipeGrid.ELBOW, PART_KEYS[random.nextInt(PART_KEYS.length)]);
+			part.setRotationIndex(random.nextInt(4));
+			parts.add(part);
+		}
+		puzzle.shuffleParts(parts);
+		puzzle.connectAllParts();
+		return puzzle;
+	}
+	
+	private static double runTransform(PipePuzzle puzzle, HashMap<Object, BufferedImage> resized, BufferedImage target, int frames)
+	{
+		Rectangle bounds = new Rectangle(0, 0, target.getWidth(), target.getHeight());
+		BufferedImage tile = resized.get(PipePuzzle.ImageKey.TILE);
+		long start = System.nanoTime();
+		for(int f = 0; f < frames; f++)
+		{
+			Graphics2D g2d = target.createGraphics();
+			clear(g2d, target);
+			for(int i = 0; i < puzzle.getSize(); i++)
+			{
+				for(int j = 0; j < puzzle.getSize(); j++)
+				{
+					g2d.drawImage(tile, tile.getWidth() * j, tile.getWidth() * i, null);
+				}
+			}
+			AffineTransform original = g2d.getTransform();
+			Iterator<PipeNode> iterator = puzzle.getIterator();
+			while(iterator.hasNext())
+			{
+				PipeNode part = iterator.next();
+				BufferedImage image = resized.get(part.getImageKey());
+				Point screen = puzzle.gridToScreen(bounds, part.getGridX(), part.getGridY());
+				g2d.rotate(-part.getRotation(), screen.x + (image.getWidth() / 2.0), screen.y + (image.getHeight() / 2.0));
+				g2d.drawImage(image, screen.x, screen.y, null);
+				g2d.setTransform(original);
+			}
+			g2d.dispose();
+		}
+		return (System.nanoTime() - start) / 1.0E6;
+	}
+	
+	private static double runSprite(PipePuzzle puzzle, BufferedImage target, Rectangle clip, int frames)
+	{
+		Rectangle bounds = new Rectangle(0, 0, target.getWidth(), target.getHeight());
+		long start = System.nanoTime();
+		for(int f = 0; f < frames; f++)
+		{
+			Graphics2D g2d = target.createGraphics();
+			if(clip != null){
+				g2d.setClip(clip);
+			}
+			clear(g2d, target);
+			puzzle.renderPuzzleGrid(g2d, bounds);
+			puzzle.renderParts(g2d, bounds, false);
+			g2d.dispose();
+		}
+		return (System.nanoTime() - start) / 1.0E6;
+	}
+	
+	private static void clear(Graphics2D g2d, BufferedImage target)
+	{
+		g2d.setPaint(new Color(0, 0, 0, 255));
+		g2d.fillRect(0, 0, target.getWidth(), target.getHeight());
+		return;
+	}
+}
@@ -3,15 +3,18 @@ package main.core;
 public class XMLAttrib
 {
 	public static final String ANGLE = "angle";
+	public static final String BUFFERS = "buffers";
 	public static final String CROSSES = "crosses";
 	public static final String DEV_ID = "dev_id";
 	public static final String DIFFICULTY = "difficulty";
 	public static final String ELBOWS = "elbows";
 	public static final String LANGUAGE = "language";
+	public static final String MODE = "mode";
 	public static final String ORIENTATION = "orientation";
 	public static final String PATH = "path";
 	public static final String PIPES = "pipes";
 	public static final String REGION = "region";
+	public static final String SCHEDULING = "scheduling";
 	public static final String SIZE = "size";
 	public static final String T_JUNCTIONS = "t_junctions";
 	public static final String TIME = "time";
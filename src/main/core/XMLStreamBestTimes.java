@@ -0,0 +1,46 @@
+package main.core;
+
+import main.core.util.XMLStreamParser;
+
+/**
+ * Pull parser for the best_time entries of the configs schema.
+ *
+ * @version 1.0 2026-10-17
+ */
+public class XMLStreamBestTimes extends XMLStreamParser
+{
+	public XMLStreamBestTimes(XMLStreamParser parser)
+	{
+		super(parser);
+		return;
+	}
+	
+	/**
+	 * Reads every best_time entry into the leaderboard and closes the file.  A puzzle may have several entries, one
+	 * for each of its top times.
+	 * @param board Leaderboard to fill.
+	 * @return int number of entries read, or -1 if the file couldn't be read to the end.
+	 */
+	public int read(Leaderboard board)
+	{
+		int count = 0;
+		try{
+			String tag = this.nextElement();
+			while(tag != null)
+			{
+				if(tag.equals(XMLTag.BEST_TIME)){
+					Difficulty dif = Difficulty.getTypeForName(this.getAttribute(XMLAttrib.DIFFICULTY));
+					board.add(dif, this.getIntAttribute(XMLAttrib.DEV_ID, 0), this.getLongAttribute(XMLAttrib.TIME, 0L));
+					count++;
+				}
+				tag = this.nextElement();
+			}
+		}catch(Exception ex){
+			ex.printStackTrace();
+			count = -1;
+		}finally{
+			this.close();
+		}
+		return count;
+	}
+}
@@ -0,0 +1,136 @@
+package main.core;
+
+import java.util.HashMap;
+
+import javax.xml.stream.XMLStreamException;
+
+import main.core.util.XMLStreamParser;
+
+/**
+ * Pull parser for the configs schema, reading config.xml in a single pass.
+ *
+ * There can be tens of thousands of best_time entries, so the pass can be split in two: readSettings() stops at a
+ * best_times element that comes after every setting, as it does in files the game writes, and readBestTimes()
+ * carries on from there, on another thread if need be.  Best times that come before the last setting, as in older
+ * files, are read along the way.
+ *
+ * @version 1.0 2026-10-17
+ */
+public class XMLStreamConfigs extends XMLStreamParser
+{
+	private static final int LOCALE = 1;
+	private static final int DIFFICULTY = 2;
+	private static final int RENDERING = 4;
+	private static final int IMAGES = 8;
+	private static final int PUZZLES = 16;
+	private static final int SETTINGS = LOCALE | DIFFICULTY | RENDERING | IMAGES | PUZZLES;
+	
+	private boolean mFinished = false;
+	private boolean mFailed = false;
+	
+	public XMLStreamConfigs(XMLStreamParser parser)
+	{
+		super(parser);
+		return;
+	}
+	
+	/**
+	 * Reads the settings and closes the file, passing over the best times.
+	 * @return ConfigData
+	 */
+	public ConfigData read()
+	{
+		ConfigData data = this.readSettings(null);
+		if(!this.mFinished){
+			this.mFinished = true;
+			this.close();
+		}
+		return data;
+	}
+	
+	/**
+	 * Reads up to a best_times element that follows every setting, leaving the file open there for readBestTimes(),
+	 * or otherwise to the end of the file, which is then closed.
+	 * @param board Leaderboard to fill with any best times before the last setting, or null to pass over them.
+	 * @return ConfigData
+	 */
+	public ConfigData readSettings(Leaderboard board)
+	{
+		ConfigData data = new ConfigData();
+		int found = 0;
+		try{
+			String tag = this.nextElement();
+			while(tag != null)
+			{
+				if(tag.equals(XMLTag.BEST_TIMES) && found == SETTINGS){
+					return data;
+				}else if(tag.equals(XMLTag.BEST_TIME)){
+					if(board != null){
+						Difficulty dif = Difficulty.getTypeForName(this.getAttribute(XMLAttrib.DIFFICULTY));
+						board.add(dif, this.getIntAttribute(XMLAttrib.DEV_ID, 0), this.getLongAttribute(XMLAttrib.TIME, 0L));
+					}
+				}else if(tag.equals(XMLTag.LOCALE)){
+					data.language = this.getAttribute(XMLAttrib.LANGUAGE);
+					data.region = this.getAttribute(XMLAttrib.REGION);
+					found |= LOCALE;
+				}else if(tag.equals(XMLTag.DIFFICULTY)){
+					data.difficulty = Difficulty.getTypeForName(this.getText());
+					found |= DIFFICULTY;
+				}else if(tag.equals(XMLTag.RENDERING)){
+					data.activeRendering = Config.ACTIVE_RENDERING.equalsIgnoreCase(this.getAttribute(XMLAttrib.MODE));
+					data.renderBuffers = this.getIntAttribute(XMLAttrib.BUFFERS, Config.DEFAULT_RENDER_BUFFERS);
+					data.demandScheduling = !Config.FIXED_SCHEDULING.equalsIgnoreCase(this.getAttribute(XMLAttrib.SCHEDULING));
+					found |= RENDERING;
+				}else if(tag.equals(XMLTag.IMAGES)){
+					this.readPaths(XMLTag.IMAGES, data.imagePaths);
+					found |= IMAGES;
+				}else if(tag.equals(XMLTag.PUZZLES)){
+					this.readPuzzlePaths(data.puzzlePaths);
+					found |= PUZZLES;
+				}
+				tag = this.nextElement();
+			}
+		}catch(Exception ex){
+			ex.printStackTrace();
+			this.mFailed = true;
+		}
+		this.close();
+		this.mFinished = true;
+		return data;
+	}
+	
+	/**
+	 * Reads the best times after the settings and closes the file.  Does nothing if readSettings() read to the end.
+	 * @param board Leaderboard to fill.
+	 * @return int number of entries read, or -1 if the file couldn't be read to the end, leaving the board incomplete.
+	 */
+	public int readBestTimes(Leaderboard board)
+	{
+		if(this.mFinished){
+			return this.mFailed ? -1 : 0;
+		}
+		this.mFinished = true;
+		return new XMLStreamBestTimes(this).read(board);
+	}
+	
+	private void readPaths(String parentTag, HashMap<String, String> paths) throws XMLStreamException
+	{
+		String tag = this.nextElementWithin(parentTag);
+		while(tag != null)
+		{
+			paths.put(tag, this.getAttribute(XMLAttrib.PATH));
+			tag = this.nextElementWithin(parentTag);
+		}
+		return;
+	}
+	
+	private void readPuzzlePaths(HashMap<Difficulty, String> paths) throws XMLStreamException
+	{
+		HashMap<String, String> byTag = new HashMap<String, String>();
+		this.readPaths(XMLTag.PUZZLES, byTag);
+		paths.put(Difficulty.EASY, byTag.get(XMLTag.EASY));
+		paths.put(Difficulty.MEDIUM, byTag.get(XMLTag.MEDIUM));
+		paths.put(Difficulty.HARD, byTag.get(XMLTag.HARD));
+		return;
+	}
+}
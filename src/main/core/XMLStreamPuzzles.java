@@ -0,0 +1,100 @@
+package main.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import javax.xml.stream.XMLStreamException;
+
+import main.core.util.XMLStreamParser;
+
+/**
+ * Pull parser for the puzzles schema.  next() returns each puzzle as soon as its end tag has been read, so a catalog
+ * can be processed one puzzle at a time however large the file is.
+ *
+ * @version 1.0 2026-10-17
+ */
+public class XMLStreamPuzzles extends XMLStreamParser
+{
+	public XMLStreamPuzzles(XMLStreamParser parser)
+	{
+		super(parser);
+		return;
+	}
+	
+	/**
+	 * @return PipePuzzleData for the next puzzle in the file, or null after the last one.
+	 */
+	public PipePuzzleData next() throws XMLStreamException
+	{
+		String tag = this.nextElement();
+		while(tag != null && !tag.equals(XMLTag.PUZZLE))
+		{
+			tag = this.nextElement();
+		}
+		return tag == null ? null : this.readPuzzle();
+	}
+	
+	/**
+	 * Reads every remaining puzzle and closes the file.
+	 * @return ArrayList of puzzles sorted by dev_id.
+	 */
+	public ArrayList<PipePuzzleData> read()
+	{
+		ArrayList<PipePuzzleData> results = new ArrayList<PipePuzzleData>();
+		try{
+			PipePuzzleData data = this.next();
+			while(data != null)
+			{
+				results.add(data);
+				data = this.next();
+			}
+			Collections.sort(results);
+		}catch(Exception ex){
+			ex.printStackTrace();
+		}finally{
+			this.close();
+		}
+		return results;
+	}
+	
+	private PipePuzzleData readPuzzle() throws XMLStreamException
+	{
+		PipePuzzleData data = new PipePuzzleData();
+		String tag = this.nextElementWithin(XMLTag.PUZZLE);
+		while(tag != null)
+		{
+			if(tag.equals(XMLTag.DEV_ID)){
+				data.dev_id = Integer.parseInt(this.getText());
+			}else if(tag.equals(XMLTag.GRID)){
+				data.size = this.getIntAttribute(XMLAttrib.SIZE, 0);
+			}else if(tag.equals(XMLTag.PARTS)){
+				data.elbows = this.getIntAttribute(XMLAttrib.ELBOWS, 0);
+				data.pipes = this.getIntAttribute(XMLAttrib.PIPES, 0);
+				data.tJunctions = this.getIntAttribute(XMLAttrib.T_JUNCTIONS, 0);
+				data.crosses = this.getIntAttribute(XMLAttrib.CROSSES, 0);
+			}else if(tag.equals(XMLTag.START)){
+				data.starts.add(this.readStartGoal());
+			}else if(tag.equals(XMLTag.GOAL)){
+				data.goals.add(this.readStartGoal());
+			}else if(tag.equals(XMLTag.PART)){
+				SolutionData s = new SolutionData();
+				s.type = PipePuzzle.ImageKey.getTypeForName(this.getAttribute(XMLAttrib.TYPE));
+				s.x = this.getIntAttribute(XMLAttrib.X_VALUE, 0);
+				s.y = this.getIntAttribute(XMLAttrib.Y_VALUE, 0);
+				s.angle = this.getDoubleAttribute(XMLAttrib.ANGLE, 0.0);
+				data.solution.add(s);
+			}
+			tag = this.nextElementWithin(XMLTag.PUZZLE);
+		}
+		return data;
+	}
+	
+	private PipePuzzleData.StartGoal readStartGoal()
+	{
+		PipePuzzleData.StartGoal g = new PipePuzzleData.StartGoal();
+		g.x = this.getIntAttribute(XMLAttrib.X_VALUE, 0);
+		g.y = this.getIntAttribute(XMLAttrib.Y_VALUE, 0);
+		g.orientation = PipePuzzle.Orientation.getTypeForName(this.getAttribute(XMLAttrib.ORIENTATION));
+		return g;
+	}
+}
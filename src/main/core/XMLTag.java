@@ -24,6 +24,7 @@ public class XMLTag
 	public static final String PUZZLE = "puzzle";
 	public static final String PUZZLES = "puzzles";
 	public static final String RED_GAUGE = "red_gauge";
+	public static final String RENDERING = "rendering";
 	public static final String RESIZE_GRIP = "resize_grip";
 	public static final String ROOT = "configs";
 	public static final String SOLUTION = "solution";
@@ -0,0 +1,121 @@
+package main.core;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Streams puzzles to a file in the same layout XMLStreamPuzzles reads, one puzzle at a time, so that a file of any
+ * length can be written without holding it in memory.
+ *
+ * @version 1.0 2026-10-17
+ */
+public class XMLWritePuzzles
+{
+	private static final XMLOutputFactory mFactory = XMLOutputFactory.newInstance();
+	
+	private OutputStream mStream = null;
+	private XMLStreamWriter mWriter = null;
+	private int mCount = 0;
+	
+	public XMLWritePuzzles(String path) throws Exception
+	{
+		this.mStream = new BufferedOutputStream(new FileOutputStream(path), 1 << 16);
+		synchronized(mFactory)
+		{
+			this.mWriter = mFactory.createXMLStreamWriter(this.mStream, "UTF-8");
+		}
+		this.mWriter.writeStartDocument("UTF-8", "1.0");
+		this.newLine(0);
+		this.mWriter.writeStartElement(XMLTag.PUZZLES);
+		return;
+	}
+	
+	public void write(PipePuzzleData data) throws XMLStreamException
+	{
+		this.newLine(1);
+		this.mWriter.writeStartElement(XMLTag.PUZZLE);
+		this.newLine(2);
+		this.mWriter.writeStartElement(XMLTag.DEV_ID);
+		this.mWriter.writeCharacters(Integer.toString(data.dev_id));
+		this.mWriter.writeEndElement();
+		this.newLine(2);
+		this.mWriter.writeEmptyElement(XMLTag.GRID);
+		this.mWriter.writeAttribute(XMLAttrib.SIZE, Integer.toString(data.size));
+		this.newLine(2);
+		this.mWriter.writeEmptyElement(XMLTag.PARTS);
+		this.mWriter.writeAttribute(XMLAttrib.ELBOWS, Integer.toString(data.elbows));
+		this.mWriter.writeAttribute(XMLAttrib.PIPES, Integer.toString(data.pipes));
+		this.mWriter.writeAttribute(XMLAttrib.T_JUNCTIONS, Integer.toString(data.tJunctions));
+		this.mWriter.writeAttribute(XMLAttrib.CROSSES, Integer.toString(data.crosses));
+		this.writeGauges(XMLTag.STARTS, XMLTag.START, data.starts);
+		this.writeGauges(XMLTag.GOALS, XMLTag.GOAL, data.goals);
+		this.newLine(2);
+		this.mWriter.writeStartElement(XMLTag.SOLUTION);
+		for(SolutionData s : data.solution)
+		{
+			this.newLine(3);
+			this.mWriter.writeEmptyElement(XMLTag.PART);
+			this.mWriter.writeAttribute(XMLAttrib.TYPE, s.type.toString());
+			this.mWriter.writeAttribute(XMLAttrib.X_VALUE, Integer.toString(s.x));
+			this.mWriter.writeAttribute(XMLAttrib.Y_VALUE, Integer.toString(s.y));
+			this.mWriter.writeAttribute(XMLAttrib.ANGLE, Double.toString(s.angle));
+		}
+		this.newLine(2);
+		this.mWriter.writeEndElement();
+		this.newLine(1);
+		this.mWriter.writeEndElement();
+		this.mCount++;
+		return;
+	}
+	
+	private void writeGauges(String listTag, String tag, List<PipePuzzleData.StartGoal> gauges) throws XMLStreamException
+	{
+		this.newLine(2);
+		this.mWriter.writeStartElement(listTag);
+		for(PipePuzzleData.StartGoal g : gauges)
+		{
+			this.newLine(3);
+			this.mWriter.writeEmptyElement(tag);
+			this.mWriter.writeAttribute(XMLAttrib.X_VALUE, Integer.toString(g.x));
+			this.mWriter.writeAttribute(XMLAttrib.Y_VALUE, Integer.toString(g.y));
+			this.mWriter.writeAttribute(XMLAttrib.ORIENTATION, g.orientation.name());
+		}
+		this.newLine(2);
+		this.mWriter.writeEndElement();
+		return;
+	}
+	
+	private void newLine(int depth) throws XMLStreamException
+	{
+		this.mWriter.writeCharacters("\n");
+		for(int i = 0; i < depth; i++)
+		{
+			this.mWriter.writeCharacters("\t");
+		}
+		return;
+	}
+	
+	public int getCount()
+	{
+		return this.mCount;
+	}
+	
+	/**
+	 * Closes the root element and the file.
+	 */
+	public void close() throws Exception
+	{
+		this.newLine(0);
+		this.mWriter.writeEndElement();
+		this.mWriter.writeEndDocument();
+		this.mWriter.close();
+		this.mStream.close();
+		return;
+	}
+}
@@ -2,10 +2,6 @@ package main.core.util;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 /**
  * Implementation of a Disjoint Set (also called a Union Find or a Merge Find Set).
@@ -20,12 +16,17 @@ import java.util.Set;
  * 
  * Based on article and code by Manish Bhojasia at https://www.sanfoundry.com/java-program-implement-disjoint-set-data-structure/
  * 
+ * Version 2.0 is a thin adapter over the int-indexed UnionFind.  Each element is given an index the first time it's seen,
+ * and the earliest element of each set is remembered by root, so findSet() and union() no longer scan every set.
+ * 
  * @author John McCullock
- * @version 1.0 2019-02-07
+ * @version 2.0 2026-10-17
  */
 public class DisjointSet<T>
 {
-	private List<Map<T, Set<T>>> mLists = new ArrayList<Map<T, Set<T>>>();
+	private HashMap<T, Integer> mIndices = new HashMap<T, Integer>();
+	private ArrayList<T> mRepresentatives = new ArrayList<T>();
+	private UnionFind mSets = new UnionFind();
 	
 	public DisjointSet()
 	{
@@ -38,11 +39,12 @@ public class DisjointSet<T>
 	 */
 	public void createSet(T element)
 	{
-		Map<T, Set<T>> map = new HashMap<T, Set<T>>();
-		Set<T> set = new HashSet<T>();
-		set.add(element);
-		map.put(element, set);
-		this.mLists.add(map);
+		if(this.mIndices.containsKey(element)){
+			return;
+		}
+		int index = this.mSets.makeSet();
+		this.mIndices.put(element, index);
+		this.mRepresentatives.add(element);
 		return;
 	}
 	
@@ -53,19 +55,11 @@ public class DisjointSet<T>
 	 */
 	public T findSet(T element)
 	{
-		for(int index = 0; index < this.mLists.size(); index++)
-		{
-			Map<T, Set<T>> map = this.mLists.get(index);
-			Set<T> keySet = map.keySet();
-			for(T key : keySet)
-			{
-				Set<T> set = map.get(key);
-				if(set.contains(element)){
-					return key;
-				}
-			}
+		Integer index = this.mIndices.get(element);
+		if(index == null){
+			return null;
 		}
-		return null;
+		return this.mRepresentatives.get(this.mSets.find(index));
 	}
 	
 	/**
@@ -75,40 +69,19 @@ public class DisjointSet<T>
 	 */
 	public void union(T first, T second)
 	{
-		T firstRep = this.findSet(first);
-		T secondRep = this.findSet(second);
-		Set<T> firstSet = null;
-		Set<T> secondSet = null;
-		
-		for(int index = 0; index < this.mLists.size(); index++)
-		{
-			Map<T, Set<T>> map = this.mLists.get(index);
-			if(map.containsKey(firstRep)){
-				firstSet = map.get(firstRep);
-			}else if(map.containsKey(secondRep)){
-				secondSet = map.get(secondRep);
-			}
-		}
-		
-		if(firstSet != null && secondSet != null){
-			firstSet.addAll(secondSet);
-		}
-		
-		for(int index = 0; index < this.mLists.size(); index++)
-		{
-			Map<T, Set<T>> map = this.mLists.get(index);
-			if(map.containsKey(firstRep)){
-				map.put(firstRep, firstSet);
-			}else if(map.containsKey(secondRep)){
-				map.remove(secondRep);
-				this.mLists.remove(index);
-			}
+		Integer firstIndex = this.mIndices.get(first);
+		Integer secondIndex = this.mIndices.get(second);
+		if(firstIndex == null || secondIndex == null){
+			return;
 		}
+		T firstRep = this.mRepresentatives.get(this.mSets.find(firstIndex));
+		int root = this.mSets.union(firstIndex, secondIndex);
+		this.mRepresentatives.set(root, firstRep);
 		return;
 	}
 	
 	public int getNumberOfDisjointSets()
 	{
-		return this.mLists.size();
+		return this.mSets.getNumberOfDisjointSets();
 	}
 }
@@ -0,0 +1,188 @@
+package main.core.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Command-line benchmark comparing the original list-of-maps disjoint set with the UnionFind-backed DisjointSet and
+ * the int-indexed UnionFind itself.
+ *
+ * Each run creates n sets, performs n - 1 unions between random pairs and then n finds.  The list-of-maps version is
+ * quadratic, so it's only run at sizes where it finishes in reasonable time.
+ *
+ * Usage: java main.core.util.DisjointSetBenchmark [sizes...]
+ *
+ * @version 1.0 2026-10-17
+ */
+public class DisjointSetBenchmark
+{
+	private static final int[] DEFAULT_SIZES = new int[]{10000, 100000, 1000000};
+	private static final int LIST_OF_MAPS_LIMIT = 10000;
+	private static final long SEED = 20190207L;
+	
+	public static void main(String[] args)
+	{
+		int[] sizes = DEFAULT_SIZES;
+		if(args.length > 0){
+			sizes = new int[args.length];
+			for(int i = 0; i < args.length; i++)
+			{
+				sizes[i] = Integer.parseInt(args[i]);
+			}
+		}
+		
+		/* One untimed pass so the JIT has compiled the hot paths before anything is measured. */
+		runUnionFind(100000);
+		runDisjointSet(100000);
+		
+		System.out.println(String.format("%-12s %16s %16s %16s", "elements", "list-of-maps ms", "DisjointSet ms", "UnionFind ms"));
+		for(int n : sizes)
+		{
+			String legacy = n <= LIST_OF_MAPS_LIMIT ? String.format("%.1f", runListOfMaps(n)) : "skipped";
+			System.out.println(String.format("%-12d %16s %16.1f %16.1f", n, legacy, runDisjointSet(n), runUnionFind(n)));
+		}
+		return;
+	}
+	
+	private static double runUnionFind(int n)
+	{
+		Random random = new Random(SEED);
+		long start = System.nanoTime();
+		UnionFind sets = new UnionFind(n);
+		for(int i = 1; i < n; i++)
+		{
+			sets.union(random.nextInt(n), random.nextInt(n));
+		}
+		long checksum = 0L;
+		for(int i = 0; i < n; i++)
+		{
+			checksum += sets.find(i);
+		}
+		return finish(start, checksum);
+	}
+	
+	private static double runDisjointSet(int n)
+	{
+		Random random = new Random(SEED);
+		long start = System.nanoTime();
+		DisjointSet<Integer> sets = new DisjointSet<Integer>();
+		for(int i = 0; i < n; i++)
+		{
+			sets.createSet(i);
+		}
+		for(int i = 1; i < n; i++)
+		{
+			sets.union(random.nextInt(n), random.nextInt(n));
+		}
+		long checksum = 0L;
+		for(int i = 0; i < n; i++)
+		{
+			checksum += sets.findSet(i);
+		}
+		return finish(start, checksum);
+	}
+	
+	private static double runListOfMaps(int n)
+	{
+		Random random = new Random(SEED);
+		long start = System.nanoTime();
+		ListOfMaps<Integer> sets = new ListOfMaps<Integer>();
+		for(int i = 0; i < n; i++)
+		{
+			sets.createSet(i);
+		}
+		for(int i = 1; i < n; i++)
+		{
+			sets.union(random.nextInt(n), random.nextInt(n));
+		}
+		long checksum = 0L;
+		for(int i = 0; i < n; i++)
+		{
+			Integer rep = sets.findSet(i);
+			checksum += rep == null ? 0 : rep;
+		}
+		return finish(start, checksum);
+	}
+	
+	private static double finish(long start, long checksum)
+	{
+		double millis = (System.nanoTime() - start) / 1.0E6;
+		if(checksum == Long.MIN_VALUE){
+			/* Keeps the finds from being optimized away. */
+			System.out.println(checksum);
+		}
+		return millis;
+	}
+	
+	/**
+	 * The original DisjointSet implementation (version 1.0), kept only as the baseline for this benchmark.
+	 */
+	private static class ListOfMaps<T>
+	{
+		private List<Map<T, Set<T>>> mLists = new ArrayList<Map<T, Set<T>>>();
+		
+		public void createSet(T element)
+		{
+			Map<T, Set<T>> map = new HashMap<T, Set<T>>();
+			Set<T> set = new HashSet<T>();
+			set.add(element);
+			map.put(element, set);
+			this.mLists.add(map);
+			return;
+		}
+		
+		public T findSet(T element)
+		{
+			for(int index = 0; index < this.mLists.size(); index++)
+			{
+				Map<T, Set<T>> map = this.mLists.get(index);
+				for(T key : map.keySet())
+				{
+					if(map.get(key).contains(element)){
+						return key;
+					}
+				}
+			}
+			return null;
+		}
+		
+		public void union(T first, T second)
+		{
+			T firstRep = this.findSet(first);
+			T secondRep = this.findSet(second);
+			Set<T> firstSet = null;
+			Set<T> secondSet = null;
+			
+			for(int index = 0; index < this.mLists.size(); index++)
+			{
+				Map<T, Set<T>> map = this.mLists.get(index);
+				if(map.containsKey(firstRep)){
+					firstSet = map.get(firstRep);
+				}else if(map.containsKey(secondRep)){
+					secondSet = map.get(secondRep);
+				}
+			}
+			
+			if(firstSet != null && secondSet != null){
+				firstSet.addAll(secondSet);
+			}
+			
+			for(int index = 0; index < this.mLists.size(); index++)
+			{
+				Map<T, Set<T>> map = this.mLists.get(index);
+				if(map.containsKey(firstRep)){
+					map.put(firstRep, firstSet);
+				}else if(map.containsKey(secondRep)){
+					map.remove(secondRep);
+					this.mLists.remove(index);
+				}
+			}
+			return;
+		}
+	}
+}
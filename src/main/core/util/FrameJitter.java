@@ -0,0 +1,75 @@
+package main.core.util;
+
+/**
+ * Running statistics of the time between frames actually reaching the screen.
+ *
+ * frame() is called once per frame shown; the intervals between calls are folded into a mean and variance as they
+ * arrive (Welford's method), so nothing is stored per frame.  The standard deviation of the interval is the jitter:
+ * zero for a perfectly steady pace, growing as frames bunch up and stall.
+ *
+ * @version 1.0 2026-10-17
+ */
+public class FrameJitter
+{
+	private static final double MILLION = 1.0E6;
+	
+	private long mLast = 0L;
+	private long mCount = 0L;
+	private double mMean = 0.0;
+	private double mSquares = 0.0;
+	private long mMax = 0L;
+	
+	public synchronized void frame()
+	{
+		long now = System.nanoTime();
+		if(this.mLast != 0L){
+			long interval = now - this.mLast;
+			this.mCount++;
+			double delta = interval - this.mMean;
+			this.mMean += delta / this.mCount;
+			this.mSquares += delta * (interval - this.mMean);
+			this.mMax = Math.max(this.mMax, interval);
+		}
+		this.mLast = now;
+		return;
+	}
+	
+	public synchronized void reset()
+	{
+		this.mLast = 0L;
+		this.mCount = 0L;
+		this.mMean = 0.0;
+		this.mSquares = 0.0;
+		this.mMax = 0L;
+		return;
+	}
+	
+	/**
+	 * @return long number of intervals measured, one less than the frames shown.
+	 */
+	public synchronized long getCount()
+	{
+		return this.mCount;
+	}
+	
+	public synchronized double getMeanMillis()
+	{
+		return this.mMean / MILLION;
+	}
+	
+	public synchronized double getStdDevMillis()
+	{
+		return this.mCount < 2L ? 0.0 : Math.sqrt(this.mSquares / (this.mCount - 1L)) / MILLION;
+	}
+	
+	public synchronized double getMaxMillis()
+	{
+		return this.mMax / MILLION;
+	}
+	
+	public synchronized String report()
+	{
+		return String.format("%d frames, interval mean %.2f ms, jitter (std dev) %.2f ms, max %.2f ms", this.mCount, this.getMeanMillis(),
+				this.getStdDevMillis(), this.getMaxMillis());
+	}
+}
@@ -1,5 +1,7 @@
 package main.core.util;
 
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
 import java.awt.geom.AffineTransform;
 import java.awt.image.AffineTransformOp;
 import java.awt.image.BufferedImage;
@@ -27,8 +29,10 @@ import java.util.Vector;
  * Version 1.4 adds the obvious methods to resize to a specific width and height that I'd been forgetting.  Also the obvious
  * rotate single image function.
  * 
+ * Version 1.5 adds quarterTurns(), for drawing rotated sprites without a transform per draw.
+ * 
  * @author John McCullock
- * @version 1.4 2018-10-31
+ * @version 1.5 2026-10-17
  */
 public class ImageUtils
 {
@@ -223,4 +227,27 @@ public class ImageUtils
 		}
 		return dest;
 	}
+	
+	/**
+	 * Makes the four quarter-turn rotations of an image, each copied into a premultiplied int ARGB image, which Java2D
+	 * draws without any per-pixel format conversion.
+	 * Every pixel is moved rather than interpolated, so a square image keeps its exact pixels in every rotation.
+	 * @param source java.awt.image.BufferedImage square image.
+	 * @return java.awt.image.BufferedImage[] four images, where index i is the source turned by -i * PI / 2 about its 
+	 * center, the same as drawing it with Graphics2D.rotate(-i * PI / 2).
+	 */
+	public static BufferedImage[] quarterTurns(BufferedImage source)
+	{
+		BufferedImage[] results = new BufferedImage[4];
+		for(int i = 0; i < results.length; i++)
+		{
+			results[i] = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+			Graphics2D g2d = results[i].createGraphics();
+			g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+			g2d.setTransform(AffineTransform.getQuadrantRotateInstance(-i, source.getWidth() / 2.0, source.getHeight() / 2.0));
+			g2d.drawImage(source, 0, 0, null);
+			g2d.dispose();
+		}
+		return results;
+	}
 }
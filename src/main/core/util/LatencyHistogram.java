@@ -0,0 +1,123 @@
+package main.core.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Distribution of durations in nanoseconds, counted into a fixed array of buckets laid out the way HdrHistogram lays
+ * them out.  Below 128 ns every value has a bucket of its own.  Above that, each power of two is split into 64 equal
+ * buckets, so a value is placed to within 1/64 of itself, about 1.6%, from a microsecond up to the 2^40 ns (18
+ * minute) ceiling, in 2240 buckets.
+ *
+ * record() is a few shifts and an atomic increment, allocates nothing, and may be called from any number of threads.
+ * Percentiles are read by walking the buckets, so they are meant for occasional reads such as a JMX poll.  A read
+ * that races a record() may miss that one value.
+ *
+ * @version 1.0 2026-10-17
+ */
+public class LatencyHistogram implements LatencyHistogramMBean
+{
+	private static final int SUB_BUCKET_BITS = 6;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+	private static final int MAX_MAGNITUDE = 39;
+	private static final long MAX_VALUE = (1L << (MAX_MAGNITUDE + 1)) - 1L;
+	private static final double MILLION = 1.0E6;
+	
+	private AtomicLongArray mCounts = new AtomicLongArray(((MAX_MAGNITUDE - SUB_BUCKET_BITS) * SUB_BUCKETS) + LINEAR_LIMIT);
+	private AtomicLong mMax = new AtomicLong();
+	
+	public void record(long nanos)
+	{
+		long value = Math.max(0L, Math.min(MAX_VALUE, nanos));
+		this.mCounts.incrementAndGet(indexOf(value));
+		long max = this.mMax.get();
+		while(value > max && !this.mMax.compareAndSet(max, value))
+		{
+			max = this.mMax.get();
+		}
+		return;
+	}
+	
+	@Override
+	public long getCount()
+	{
+		long count = 0L;
+		for(int i = 0; i < this.mCounts.length(); i++)
+		{
+			count += this.mCounts.get(i);
+		}
+		return count;
+	}
+	
+	/**
+	 * @param percentile double from 0 to 100.
+	 * @return long the highest value in the bucket holding that percentile, or 0 if nothing has been recorded.
+	 */
+	public long getValueAtPercentile(double percentile)
+	{
+		long count = this.getCount();
+		if(count == 0L){
+			return 0L;
+		}
+		long rank = Math.max(1L, (long)Math.ceil((Math.min(100.0, percentile) / 100.0) * count));
+		long seen = 0L;
+		for(int i = 0; i < this.mCounts.length(); i++)
+		{
+			seen += this.mCounts.get(i);
+			if(seen >= rank){
+				return Math.min(highestValueAt(i), this.mMax.get());
+			}
+		}
+		return this.mMax.get();
+	}
+	
+	@Override
+	public double getP50Millis()
+	{
+		return this.getValueAtPercentile(50.0) / MILLION;
+	}
+	
+	@Override
+	public double getP99Millis()
+	{
+		return this.getValueAtPercentile(99.0) / MILLION;
+	}
+	
+	@Override
+	public double getMaxMillis()
+	{
+		return this.mMax.get() / MILLION;
+	}
+	
+	@Override
+	public void reset()
+	{
+		for(int i = 0; i < this.mCounts.length(); i++)
+		{
+			this.mCounts.set(i, 0L);
+		}
+		this.mMax.set(0L);
+		return;
+	}
+	
+	private static int indexOf(long value)
+	{
+		if(value < LINEAR_LIMIT){
+			return (int)value;
+		}
+		int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+		/* value >>> shift keeps the top seven bits, from 64 to 127. */
+		return (shift * SUB_BUCKETS) + (int)(value >>> shift);
+	}
+	
+	private static long highestValueAt(int index)
+	{
+		if(index < LINEAR_LIMIT){
+			return index;
+		}
+		int shift = (index / SUB_BUCKETS) - 1;
+		long lowest = (long)((index % SUB_BUCKETS) + SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1L;
+	}
+}
@@ -0,0 +1,15 @@
+package main.core.util;
+
+/**
+ * Management interface of a LatencyHistogram, for reading it in jconsole or any other JMX client.
+ *
+ * @version 1.0 2026-10-17
+ */
+public interface LatencyHistogramMBean
+{
+	abstract long getCount();
+	abstract double getP50Millis();
+	abstract double getP99Millis();
+	abstract double getMaxMillis();
+	abstract void reset();
+}
@@ -0,0 +1,242 @@
+package main.core.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A chain of processing stages joined by bounded queues, each stage running on its own set of threads.
+ *
+ * Items are fed in from a source iterator on the calling thread.  Every queue holds at most a fixed number of items,
+ * so a slow stage blocks the stage before it (and in the end the source) instead of letting work pile up in memory.
+ * The end of the stream is passed along as a marker: each worker that takes it puts it back for its siblings, and the
+ * last worker of a stage to finish forwards it to the next stage.
+ *
+ * Each stage counts the items it takes and passes on, the time its threads spend working and the time they spend
+ * blocked on a full output queue, which is enough to see which stage holds the others back.
+ *
+ * @version 1.0 2026-10-17
+ */
+public class Pipeline
+{
+	private static final Object END = new Object();
+	
+	private int mCapacity = 0;
+	private ArrayList<Pipeline.Stage> mStages = new ArrayList<Pipeline.Stage>();
+	private long mElapsed = 0L;
+	
+	/**
+	 * @param capacity int maximum number of items waiting between two stages.
+	 */
+	public Pipeline(int capacity)
+	{
+		this.mCapacity = Math.max(1, capacity);
+		return;
+	}
+	
+	/**
+	 * Appends a stage.  Stages run in the order they were added.
+	 * @param name String shown in the report.
+	 * @param threads int number of worker threads.
+	 * @param step Pipeline.Step applied to every item.
+	 */
+	public void addStage(String name, int threads, Pipeline.Step<?, ?> step)
+	{
+		this.mStages.add(new Stage(name, Math.max(1, threads), step));
+		return;
+	}
+	
+	/**
+	 * Feeds every item of the source through the stages and waits until the last stage has finished.
+	 * @param source Iterator of items for the first stage.
+	 */
+	public void run(Iterator<?> source)
+	{
+		long start = System.nanoTime();
+		for(int i = 0; i < this.mStages.size(); i++)
+		{
+			Stage stage = this.mStages.get(i);
+			stage.mInput = new ArrayBlockingQueue<Object>(this.mCapacity);
+			if(i > 0){
+				this.mStages.get(i - 1).mOutput = stage.mInput;
+			}
+		}
+		for(Stage stage : this.mStages)
+		{
+			stage.start();
+		}
+		try{
+			BlockingQueue<Object> first = this.mStages.get(0).mInput;
+			while(source.hasNext())
+			{
+				first.put(source.next());
+			}
+			first.put(END);
+			for(Stage stage : this.mStages)
+			{
+				stage.join();
+			}
+		}catch(InterruptedException ie){
+			Thread.currentThread().interrupt();
+		}
+		this.mElapsed = System.nanoTime() - start;
+		return;
+	}
+	
+	public long getElapsedNanos()
+	{
+		return this.mElapsed;
+	}
+	
+	public String getReport()
+	{
+		double seconds = Math.max(1L, this.mElapsed) / 1.0E9;
+		StringBuilder b = new StringBuilder();
+		b.append(String.format("%-12s %8s %10s %10s %10s %12s %8s %9s", "stage", "threads", "in", "out", "failed", "out/s", "busy", "blocked"));
+		for(Stage stage : this.mStages)
+		{
+			double available = stage.mThreads.length * (double)this.mElapsed;
+			b.append(System.lineSeparator());
+			b.append(String.format("%-12s %8d %10d %10d %10d %12.1f %7.1f%% %8.1f%%", stage.mName, stage.mThreads.length,
+					stage.mIn.get(), stage.mOut.get(), stage.mFailed.get(), stage.mOut.get() / seconds,
+					100.0 * stage.mBusy.get() / available, 100.0 * stage.mBlocked.get() / available));
+		}
+		return b.toString();
+	}
+	
+	public interface Step<I, O>
+	{
+		/**
+		 * @param item I taken from the previous stage.
+		 * @return O passed on to the next stage, or null to drop the item.
+		 */
+		abstract O process(I item) throws Exception;
+	}
+	
+	private class Stage
+	{
+		private String mName = null;
+		private Pipeline.Step<Object, Object> mStep = null;
+		private Thread[] mThreads = null;
+		private BlockingQueue<Object> mInput = null;
+		private BlockingQueue<Object> mOutput = null;
+		private AtomicInteger mRunning = new AtomicInteger();
+		private AtomicLong mIn = new AtomicLong();
+		private AtomicLong mOut = new AtomicLong();
+		private AtomicLong mFailed = new AtomicLong();
+		private AtomicLong mBusy = new AtomicLong();
+		private AtomicLong mBlocked = new AtomicLong();
+		
+		@SuppressWarnings("unchecked")
+		public Stage(String name, int threads, Pipeline.Step<?, ?> step)
+		{
+			this.mName = name;
+			this.mStep = (Pipeline.Step<Object, Object>)step;
+			this.mThreads = new Thread[threads];
+			return;
+		}
+		
+		public void start()
+		{
+			this.mRunning.set(this.mThreads.length);
+			for(int i = 0; i < this.mThreads.length; i++)
+			{
+				this.mThreads[i] = new Thread(new Runnable()
+				{
+					@Override
+					public void run()
+					{
+						work();
+						return;
+					}
+				}, this.mName + "-" + (i + 1));
+				this.mThreads[i].setDaemon(true);
+				this.mThreads[i].start();
+			}
+			return;
+		}
+		
+		public void join() throws InterruptedException
+		{
+			for(Thread thread : this.mThreads)
+			{
+				thread.join();
+			}
+			return;
+		}
+		
+		private void work()
+		{
+			boolean finished = false;
+			try{
+				while(true)
+				{
+					Object item = this.mInput.take();
+					if(item == END){
+						/* Leave the marker for the other workers of this stage. */
+						this.mInput.put(END);
+						break;
+					}
+					this.mIn.incrementAndGet();
+					long start = System.nanoTime();
+					Object result = null;
+					try{
+						result = this.mStep.process(item);
+					}catch(Exception ex){
+						this.mFailed.incrementAndGet();
+						ex.printStackTrace();
+					}
+					long done = System.nanoTime();
+					this.mBusy.addAndGet(done - start);
+					if(result != null){
+						this.mOut.incrementAndGet();
+						if(this.mOutput != null){
+							this.mOutput.put(result);
+							this.mBlocked.addAndGet(System.nanoTime() - done);
+						}
+					}
+				}
+				finished = true;
+			}catch(InterruptedException ie){
+				Thread.currentThread().interrupt();
+			}finally{
+				if(!finished && !Thread.currentThread().isInterrupted()){
+					/* The item it was working on when an Error killed it. */
+					this.mFailed.incrementAndGet();
+				}
+				/* Even a worker killed by an Error has to pass the end on, or the next stage waits for it forever. */
+				if(this.mRunning.decrementAndGet() == 0){
+					this.finish(finished);
+				}
+			}
+			return;
+		}
+		
+		/**
+		 * Run by the last worker of the stage to stop.  If it stopped on an error rather than the end marker, what is
+		 * left of the input is drained and counted as failed first, so the stage before isn't left blocked on a full
+		 * queue.
+		 */
+		private void finish(boolean finished)
+		{
+			try{
+				if(!finished && !Thread.currentThread().isInterrupted()){
+					while(this.mInput.take() != END)
+					{
+						this.mIn.incrementAndGet();
+						this.mFailed.incrementAndGet();
+					}
+				}
+				if(this.mOutput != null){
+					this.mOutput.put(END);
+				}
+			}catch(InterruptedException ie){
+				Thread.currentThread().interrupt();
+			}
+			return;
+		}
+	}
+}
@@ -7,15 +7,20 @@ import java.io.IOException;
 import java.io.FileNotFoundException;
 import java.io.PrintStream;
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 /**
  * Class for reading and writing String contents to text files.
  * 
  * Version 3 included a new write function that accepts StringBuilder objects.
  * Version 3.1's write function accepts String objects.
+ * Version 3.2 added writeAtomic, which never leaves a half-written file behind.
  * 
  * @author John McCullock
- * @version 3.1 2013-09-17
+ * @version 3.2 2026-10-17
  */
 
 public class ReadWriteFile
@@ -122,5 +127,29 @@ public class ReadWriteFile
 
     	return;
     }
+	
+	/**
+	 * Writes the text to a temporary file in the same folder, forces it to disk and renames it over the target, so a
+	 * crash at any point leaves either the old file or the new one, never a mix of the two.
+	 */
+	public static void writeAtomic(String FileName, String bufferText) throws Exception, IOException
+	{
+		File target = new File(FileName).getAbsoluteFile();
+		File temp = new File(target.getParentFile(), target.getName() + ".tmp");
+		FileOutputStream fout = new FileOutputStream(temp);
+		try{
+			fout.write(bufferText.getBytes(StandardCharsets.UTF_8));
+			fout.flush();
+			fout.getFD().sync();
+		}finally{
+			fout.close();
+		}
+		try{
+			Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}catch(AtomicMoveNotSupportedException amnse){
+			Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		return;
+	}
 }
 
@@ -1,37 +1,63 @@
 package main.core.util;
 
+import java.util.concurrent.locks.LockSupport;
+
 /**
  * Fixed time-step game timer with separate update and render events.
- * 
+ *
  * It's recommended to use the startTimer() and stopTimer() methods instead of the thread's start() and stop().
- * 
+ *
  * Based on article/code found at http://www.java-gaming.org/index.php/topic,24220.0.html
- * 
+ *
+ * Version 1.1 adds demand-driven mode.  After every frame the observer is asked how long it can go without another
+ * one; the timer sleeps that long, or until wake() is called, instead of ticking at the fixed rate with nothing to do.
+ *
+ * Version 1.2 replaces the yield and sleep(1) wait with deadlines.  Times are long nanoseconds, each frame has an
+ * absolute deadline one update period after the last, and the wait parks the thread until just short of it, then
+ * spins for the remainder.  The spin covers how far parkNanos() has been overshooting lately, never more than a
+ * millisecond, so the thread is asleep for nearly all of every frame yet still wakes on time.  How late each frame
+ * started against its deadline is recorded.
+ *
+ * An exception thrown by the observer is printed and the timer carries on with the next frame, rather than ending the
+ * thread and with it every frame after.
+ *
  * @author John McCullock
- * @version 1.0 2015-05-14
+ * @version 1.2 2026-10-17
  */
 public class Ticker extends Thread
 {
-	private final double BILLION = 1.0E9;
+	private static final long BILLION = 1000000000L;
+	private static final long MIN_SPIN = 50000L; // Nanoseconds.
+	private static final long MAX_SPIN = 1000000L;
 	
 	private Ticker.Observer mObserver = null;
 	
 	private double mUpdateHertz = 60.0;
-	private double mUpdateDelta = BILLION / this.mUpdateHertz; // Nanoseconds.
+	private long mUpdateDelta = Math.round(BILLION / this.mUpdateHertz); // Nanoseconds.
 	private double mRenderHertz = 60; // Frames per second.
-	private double mRenderDelta = BILLION / this.mRenderHertz;
+	private long mRenderDelta = Math.round(BILLION / this.mRenderHertz);
 	
 	private int mMaxUpdatesBeforeRender = 5;
 	
-	private double mLastUpdate = System.nanoTime();
-	private double mLastRender = System.nanoTime();
+	private long mLastRender = 0L;
+	private long mSpin = MAX_SPIN;
 	private int mFPS = 0;
-
-	private boolean mIsRunning = false;
-	private boolean mStopRequested = false;
+	
+	private long mLateness = 0L;
+	private long mMaxLateness = 0L;
+	private long mTotalLateness = 0L;
+	private long mFrames = 0L;
+	private long mSkippedUpdates = 0L;
+	
+	private volatile boolean mIsRunning = false;
+	private volatile boolean mStopRequested = false;
 	private boolean mStatisticsEnabled = false;
 	private boolean mAllowSleep = true;
 	
+	private volatile boolean mDemandDriven = false;
+	private final Object mWakeLock = new Object();
+	private boolean mWakeRequested = false;
+	
 	public Ticker(Ticker.Observer listener)
 	{
 		this.mObserver = listener;
@@ -56,67 +82,176 @@ public class Ticker extends Thread
 	public void stopTimer()
 	{
 		this.mStopRequested = true;
+		this.wake();
+		return;
+	}
+	
+	/**
+	 * Ends an idle wait in demand-driven mode, so the next frame runs now.  Safe to call from any thread, and a wake
+	 * that arrives while a frame is running keeps the timer from going idle after that frame.
+	 */
+	public void wake()
+	{
+		synchronized(this.mWakeLock)
+		{
+			this.mWakeRequested = true;
+			this.mWakeLock.notifyAll();
+		}
 		return;
 	}
 	
 	@Override
 	public void run()
 	{
-		double now = System.nanoTime();
-		int updateCount = 0;
-		int frameCount = 0;
-		int thisSecond = 0;
-		int lastSecondTime = (int)(this.mLastUpdate / BILLION);
-		 
+		this.mIsRunning = true;
+		long deadline = System.nanoTime();
+		long frameCount = 0L;
+		long secondStart = deadline;
+		
 		while(!this.mStopRequested)
 		{
-			now = System.nanoTime();
-			updateCount = 0;
-			while(now - this.mLastUpdate > this.mUpdateDelta && updateCount < this.mMaxUpdatesBeforeRender)
+			this.waitUntil(deadline);
+			long now = System.nanoTime();
+			this.recordLateness(now - deadline);
+			
+			int updateCount = 0;
+			while(now - deadline >= 0L && updateCount < this.mMaxUpdatesBeforeRender)
 			{
-				this.mObserver.tickerUpdateRequested();
-				this.mLastUpdate += this.mUpdateDelta;
+				this.requestUpdate();
+				deadline += this.mUpdateDelta;
 				updateCount++;
-				
-				// Keep unprocessed updates from building up.
-				if(now - this.mLastUpdate > this.mUpdateDelta){
-					this.mLastUpdate = now - this.mUpdateDelta;
-				}
-				
-				this.mObserver.tickerRenderRequested();
+			}
+			
+			// Keep unprocessed updates from building up.
+			if(now - deadline >= 0L){
+				long behind = (now - deadline) / this.mUpdateDelta + 1L;
+				this.recordSkipped(behind);
+				deadline += behind * this.mUpdateDelta;
+			}
+			
+			/* Within half an update period counts as due, so a render rate at or above the update rate renders every pass. */
+			if(now - this.mLastRender >= this.mRenderDelta - (this.mUpdateDelta / 2L)){
+				this.requestRender();
 				this.mLastRender = now;
-				
-				if(this.mStatisticsEnabled){
-					frameCount++;
-					thisSecond = (int)(this.mLastUpdate / BILLION);
-					if(thisSecond > lastSecondTime)
-					{
-						this.mFPS = frameCount;
-						frameCount = 0;
-						lastSecondTime = thisSecond;
-					}
+				frameCount++;
+			}
+			
+			if(this.mStatisticsEnabled && now - secondStart >= BILLION){
+				this.mFPS = (int)frameCount;
+				frameCount = 0L;
+				secondStart = now;
+			}
+			
+			if(this.mDemandDriven){
+				long idle = this.requestIdleMillis();
+				if(idle > 0L){
+					this.idle(idle);
+					/* Start over from now rather than running the updates missed while idle. */
+					deadline = System.nanoTime();
 				}
-				
-				while(now - this.mLastRender < this.mRenderDelta && now - this.mLastUpdate < this.mUpdateDelta)
-				{
-					Thread.yield();
-					
-					if(this.mAllowSleep){
-						//This stops the app from consuming all your CPU. It makes this slightly less accurate, but is worth it.
-						//You can remove this line and it will still work (better), your CPU just climbs on certain OSes.
-						//FYI on some OS's this can cause pretty bad stuttering.
-						try{
-							Thread.sleep(1);
-						}catch(Exception e){
-							System.out.println(e.getMessage());
+			}
+		}
+		this.mIsRunning = false;
+		return;
+	}
+	
+	private void requestUpdate()
+	{
+		try{
+			this.mObserver.tickerUpdateRequested();
+		}catch(Exception ex){
+			ex.printStackTrace();
+		}
+		return;
+	}
+	
+	private void requestRender()
+	{
+		try{
+			this.mObserver.tickerRenderRequested();
+		}catch(Exception ex){
+			ex.printStackTrace();
+		}
+		return;
+	}
+	
+	/**
+	 * @return long the observer's idle time, or 0 to keep ticking if it failed to answer.
+	 */
+	private long requestIdleMillis()
+	{
+		try{
+			return this.mObserver.tickerIdleMillis();
+		}catch(Exception ex){
+			ex.printStackTrace();
+		}
+		return 0L;
+	}
+	
+	/**
+	 * Parks until a little before the deadline and spins the rest of the way.
+	 */
+	private void waitUntil(long deadline)
+	{
+		long remaining = deadline - System.nanoTime();
+		while(this.mAllowSleep && remaining > this.mSpin && !this.mStopRequested)
+		{
+			long parkStart = System.nanoTime();
+			long park = remaining - this.mSpin;
+			LockSupport.parkNanos(this, park);
+			long overshoot = (System.nanoTime() - parkStart) - park;
+			/* Spin for about twice the recent overshoot, within bounds, so the next park ends before the deadline. */
+			this.mSpin = Math.max(MIN_SPIN, Math.min(MAX_SPIN, this.mSpin + ((overshoot * 2L) - this.mSpin) / 8L));
+			remaining = deadline - System.nanoTime();
+		}
+		while(deadline - System.nanoTime() > 0L && !this.mStopRequested)
+		{
+			Thread.onSpinWait();
+		}
+		return;
+	}
+	
+	private synchronized void recordLateness(long lateness)
+	{
+		this.mLateness = lateness;
+		this.mMaxLateness = Math.max(this.mMaxLateness, lateness);
+		this.mTotalLateness += lateness;
+		this.mFrames++;
+		return;
+	}
+	
+	/**
+	 * Under the same lock as the getters, so a reader on another thread, such as JMX, never sees a torn count.
+	 */
+	private synchronized void recordSkipped(long updates)
+	{
+		this.mSkippedUpdates += updates;
+		return;
+	}
+	
+	private void idle(long millis)
+	{
+		synchronized(this.mWakeLock)
+		{
+			long deadline = millis == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + (millis * 1000000L);
+			while(!this.mWakeRequested && !this.mStopRequested)
+			{
+				try{
+					if(deadline == Long.MAX_VALUE){
+						this.mWakeLock.wait();
+					}else{
+						long remaining = deadline - System.nanoTime();
+						if(remaining <= 0L){
+							break;
 						}
+						this.mWakeLock.wait(remaining / 1000000L, (int)(remaining % 1000000L));
 					}
-					
-					now = System.nanoTime();
+				}catch(InterruptedException ex){
+					break;
 				}
 			}
+			this.mWakeRequested = false;
 		}
-		this.mIsRunning = false;
 		return;
 	}
 	
@@ -126,7 +261,7 @@ public class Ticker extends Thread
 			return;
 		}
 		this.mUpdateHertz = updateHertz;
-		this.mUpdateDelta = BILLION / this.mUpdateHertz;
+		this.mUpdateDelta = Math.round(BILLION / this.mUpdateHertz);
 		return;
 	}
 	
@@ -136,7 +271,7 @@ public class Ticker extends Thread
 			return;
 		}
 		this.mRenderHertz = renderHertz;
-		this.mRenderDelta = BILLION / this.mRenderHertz;
+		this.mRenderDelta = Math.round(BILLION / this.mRenderHertz);
 		return;
 	}
 	
@@ -149,6 +284,21 @@ public class Ticker extends Thread
 		return;
 	}
 	
+	/**
+	 * @param enabled boolean true to sleep between frames whenever the observer reports it has nothing to do.
+	 */
+	public void setDemandDriven(boolean enabled)
+	{
+		this.mDemandDriven = enabled;
+		this.wake();
+		return;
+	}
+	
+	public boolean isDemandDriven()
+	{
+		return this.mDemandDriven;
+	}
+	
 	public void enableStatisticsMode(boolean enabled)
 	{
 		this.mStatisticsEnabled = enabled;
@@ -170,9 +320,52 @@ public class Ticker extends Thread
 		return this.mFPS;
 	}
 	
+	/**
+	 * @return long nanoseconds the last frame started after its deadline.
+	 */
+	public synchronized long getLatenessNanos()
+	{
+		return this.mLateness;
+	}
+	
+	public synchronized long getMaxLatenessNanos()
+	{
+		return this.mMaxLateness;
+	}
+	
+	public synchronized long getMeanLatenessNanos()
+	{
+		return this.mFrames == 0L ? 0L : this.mTotalLateness / this.mFrames;
+	}
+	
+	/**
+	 * @return long updates dropped because the timer fell more than the update limit behind.
+	 */
+	public synchronized long getSkippedUpdates()
+	{
+		return this.mSkippedUpdates;
+	}
+	
+	public synchronized void resetLatenessStatistics()
+	{
+		this.mLateness = 0L;
+		this.mMaxLateness = 0L;
+		this.mTotalLateness = 0L;
+		this.mFrames = 0L;
+		this.mSkippedUpdates = 0L;
+		return;
+	}
+	
 	public interface Observer
 	{
 		abstract void tickerUpdateRequested();
 		abstract void tickerRenderRequested();
+		
+		/**
+		 * Asked after each frame in demand-driven mode.
+		 * @return long 0 to keep ticking at the fixed rate, the milliseconds that can pass before the next frame is
+		 * needed, or Long.MAX_VALUE to wait for wake().
+		 */
+		abstract long tickerIdleMillis();
 	}
 }
@@ -0,0 +1,133 @@
+package main.core.util;
+
+import java.util.Arrays;
+
+/**
+ * Union find over the integers 0 to size - 1, backed by primitive parent and rank arrays.
+ *
+ * Uses path compression in find() and union by rank in union(), so any sequence of operations runs in nearly constant
+ * amortized time per call.  Elements map directly to whatever int index the caller already has, such as a grid cell
+ * index, and the arrays grow on demand when makeSet() is used.
+ *
+ * @version 1.0 2026-10-17
+ */
+public class UnionFind
+{
+	private int[] mParent = null;
+	private int[] mRank = null;
+	private int mSize = 0;
+	private int mCount = 0;
+	
+	public UnionFind()
+	{
+		this.mParent = new int[16];
+		this.mRank = new int[16];
+		return;
+	}
+	
+	/**
+	 * Creates size singleton sets, one for each of the elements 0 to size - 1.
+	 * @param size int number of elements.
+	 */
+	public UnionFind(int size)
+	{
+		this.mParent = new int[Math.max(size, 1)];
+		this.mRank = new int[Math.max(size, 1)];
+		this.mSize = size;
+		this.reset();
+		return;
+	}
+	
+	/**
+	 * Returns every element to its own singleton set.
+	 */
+	public void reset()
+	{
+		for(int i = 0; i < this.mSize; i++)
+		{
+			this.mParent[i] = i;
+		}
+		Arrays.fill(this.mRank, 0, this.mSize, 0);
+		this.mCount = this.mSize;
+		return;
+	}
+	
+	/**
+	 * Adds a new singleton set, growing the arrays if necessary.
+	 * @return int the new element.
+	 */
+	public int makeSet()
+	{
+		if(this.mSize == this.mParent.length){
+			int capacity = this.mParent.length * 2;
+			this.mParent = Arrays.copyOf(this.mParent, capacity);
+			this.mRank = Arrays.copyOf(this.mRank, capacity);
+		}
+		int element = this.mSize++;
+		this.mParent[element] = element;
+		this.mRank[element] = 0;
+		this.mCount++;
+		return element;
+	}
+	
+	/**
+	 * @param element int
+	 * @return int root of the set holding the element.  Every element on the way is pointed straight at the root.
+	 */
+	public int find(int element)
+	{
+		int root = element;
+		while(this.mParent[root] != root)
+		{
+			root = this.mParent[root];
+		}
+		while(this.mParent[element] != root)
+		{
+			int next = this.mParent[element];
+			this.mParent[element] = root;
+			element = next;
+		}
+		return root;
+	}
+	
+	/**
+	 * Joins the sets holding the two elements.  The shallower tree is hung beneath the deeper one.
+	 * @param first int
+	 * @param second int
+	 * @return int root of the joined set.
+	 */
+	public int union(int first, int second)
+	{
+		int firstRoot = this.find(first);
+		int secondRoot = this.find(second);
+		if(firstRoot == secondRoot){
+			return firstRoot;
+		}
+		this.mCount--;
+		if(this.mRank[firstRoot] < this.mRank[secondRoot]){
+			this.mParent[firstRoot] = secondRoot;
+			return secondRoot;
+		}else if(this.mRank[firstRoot] > this.mRank[secondRoot]){
+			this.mParent[secondRoot] = firstRoot;
+			return firstRoot;
+		}
+		this.mParent[secondRoot] = firstRoot;
+		this.mRank[firstRoot]++;
+		return firstRoot;
+	}
+	
+	public boolean connected(int first, int second)
+	{
+		return this.find(first) == this.find(second);
+	}
+	
+	public int size()
+	{
+		return this.mSize;
+	}
+	
+	public int getNumberOfDisjointSets()
+	{
+		return this.mCount;
+	}
+}
@@ -0,0 +1,175 @@
+package main.core.util;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Base class for pull parsers built on XMLStreamReader.
+ *
+ * Unlike XMLReader, nothing is built in memory: the document is read forward one event at a time, so a file of any
+ * size can be parsed with a constant amount of memory.  The XMLInputFactory is created once per thread and reused,
+ * and it is configured to ignore DTDs and external entities.
+ *
+ * @version 1.0 2026-10-17
+ */
+public class XMLStreamParser
+{
+	private static final ThreadLocal<XMLInputFactory> mFactory = new ThreadLocal<XMLInputFactory>()
+	{
+		@Override
+		protected XMLInputFactory initialValue()
+		{
+			XMLInputFactory factory = XMLInputFactory.newInstance();
+			factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+			factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+			factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+			return factory;
+		}
+	};
+	
+	private InputStream mStream = null;
+	private XMLStreamReader mReader = null;
+	
+	public XMLStreamParser(InputStream stream) throws XMLStreamException
+	{
+		this.mStream = stream;
+		this.mReader = mFactory.get().createXMLStreamReader(stream);
+		return;
+	}
+	
+	/**
+	 * Hands the stream of another parser over to this one, which carries on from the other parser's position.
+	 * @param parser XMLStreamParser that shouldn't be used afterward.
+	 */
+	public XMLStreamParser(XMLStreamParser parser)
+	{
+		this.mStream = parser.mStream;
+		this.mReader = parser.mReader;
+		return;
+	}
+	
+	/**
+	 * @param resourcePath String class path resource, such as /data/easy_puzzle.xml.
+	 * @return XMLStreamParser, or null if the resource can't be opened.
+	 */
+	public static XMLStreamParser openResource(String resourcePath)
+	{
+		try{
+			InputStream stream = XMLStreamParser.class.getResourceAsStream(resourcePath);
+			if(stream == null){
+				throw new Exception("Unable to find resource " + resourcePath);
+			}
+			return new XMLStreamParser(new BufferedInputStream(stream, 1 << 16));
+		}catch(Exception ex){
+			ex.printStackTrace();
+		}
+		return null;
+	}
+	
+	/**
+	 * @param absolutePath String file system path.
+	 * @return XMLStreamParser, or null if the file can't be opened.
+	 */
+	public static XMLStreamParser openFile(String absolutePath)
+	{
+		try{
+			return new XMLStreamParser(new BufferedInputStream(new FileInputStream(absolutePath), 1 << 16));
+		}catch(Exception ex){
+			ex.printStackTrace();
+		}
+		return null;
+	}
+	
+	/**
+	 * Moves to the next start tag anywhere below the current position.
+	 * @return String local name of the element, or null at the end of the document.
+	 */
+	public String nextElement() throws XMLStreamException
+	{
+		while(this.mReader.hasNext())
+		{
+			if(this.mReader.next() == XMLStreamConstants.START_ELEMENT){
+				return this.mReader.getLocalName();
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Moves to the next start tag before the end tag of the named element.
+	 * @param parentTag String element whose end stops the search.
+	 * @return String local name of the element, or null once the parent has ended.
+	 */
+	public String nextElementWithin(String parentTag) throws XMLStreamException
+	{
+		while(this.mReader.hasNext())
+		{
+			int event = this.mReader.next();
+			if(event == XMLStreamConstants.START_ELEMENT){
+				return this.mReader.getLocalName();
+			}else if(event == XMLStreamConstants.END_ELEMENT && this.mReader.getLocalName().equals(parentTag)){
+				return null;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Must be called while positioned on a start tag.
+	 * @param name String attribute name.
+	 * @return String value, or null if the current element doesn't have the attribute.
+	 */
+	public String getAttribute(String name)
+	{
+		return this.mReader.getAttributeValue(null, name);
+	}
+	
+	public int getIntAttribute(String name, int defaultValue)
+	{
+		String value = this.getAttribute(name);
+		return value == null ? defaultValue : Integer.parseInt(value.trim());
+	}
+	
+	public long getLongAttribute(String name, long defaultValue)
+	{
+		String value = this.getAttribute(name);
+		return value == null ? defaultValue : Long.parseLong(value.trim());
+	}
+	
+	public double getDoubleAttribute(String name, double defaultValue)
+	{
+		String value = this.getAttribute(name);
+		return value == null ? defaultValue : Double.parseDouble(value.trim());
+	}
+	
+	/**
+	 * Reads the text of the current element and moves to its end tag.
+	 * @return String trimmed text.
+	 */
+	public String getText() throws XMLStreamException
+	{
+		return this.mReader.getElementText().trim();
+	}
+	
+	public XMLStreamReader getReader()
+	{
+		return this.mReader;
+	}
+	
+	public void close()
+	{
+		try{
+			this.mReader.close();
+			this.mStream.close();
+		}catch(Exception ex){
+			ex.printStackTrace();
+		}
+		return;
+	}
+}